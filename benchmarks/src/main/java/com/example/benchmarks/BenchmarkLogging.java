@@ -0,0 +1,21 @@
+package com.example.benchmarks;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Raises the application log level so benchmarks measure the hot path rather
+ * than console output. The logger is held statically because JUL only keeps
+ * weak references to configured loggers.
+ */
+final class BenchmarkLogging {
+
+    private static final Logger APPLICATION = Logger.getLogger("com.example");
+
+    private BenchmarkLogging() {
+    }
+
+    static void quiet() {
+        APPLICATION.setLevel(Level.WARNING);
+    }
+}
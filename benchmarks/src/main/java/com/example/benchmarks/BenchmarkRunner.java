@@ -0,0 +1,131 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the benchmark suite and writes one JMH JSON result file per run into
+ * the output directory, so results can be archived and diffed between builds.
+ * Contended benchmarks run once per thread count.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar [--threads 1,2,4,8] [--param name=v1,v2] [--out target/jmh-results]
+ *     [--prof gc] [--quick] [regex...]
+ * </pre>
+ *
+ * Any plain arguments are benchmark name regexes; without them every benchmark runs.
+ */
+public final class BenchmarkRunner {
+
+    private static final List<String> CONTENDED = List.of(
+        InventoryReservationBenchmark.class.getSimpleName(),
+        HotProductReservationBenchmark.class.getSimpleName(),
+        WalCommitBenchmark.class.getSimpleName());
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        List<Integer> threadCounts = defaultThreadCounts();
+        File outputDir = new File("target/jmh-results");
+        boolean quick = false;
+        List<String> includes = new ArrayList<>();
+        Map<String, String[]> params = new LinkedHashMap<>();
+        List<String> profilers = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threadCounts = parseThreads(args[++i]);
+                case "--out" -> outputDir = new File(args[++i]);
+                case "--quick" -> quick = true;
+                case "--prof" -> profilers.add(args[++i]);
+                case "--param" -> {
+                    String[] param = args[++i].split("=", 2);
+                    params.put(param[0], param[1].split(","));
+                }
+                default -> includes.add(args[i]);
+            }
+        }
+        if (includes.isEmpty()) {
+            includes.add(".*");
+        }
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create output directory " + outputDir);
+        }
+
+        for (String include : includes) {
+            for (String contended : CONTENDED) {
+                if (!contended.matches(".*" + include + ".*") && !".*".equals(include)) {
+                    continue;
+                }
+                for (int threads : threadCounts) {
+                    run(options(contended, outputDir, contended + "-t" + threads, quick, params, profilers)
+                        .threads(threads));
+                }
+            }
+            ChainedOptionsBuilder rest = options(include, outputDir, sanitize(include), quick, params, profilers);
+            CONTENDED.forEach(rest::exclude);
+            run(rest);
+        }
+    }
+
+    private static ChainedOptionsBuilder options(String include, File outputDir, String name, boolean quick,
+                                                 Map<String, String[]> params, List<String> profilers) {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(new File(outputDir, name + ".json").getPath());
+        params.forEach(options::param);
+        profilers.forEach(options::addProfiler);
+        if (quick) {
+            options.warmupIterations(1).measurementIterations(2).forks(1);
+        }
+        return options;
+    }
+
+    private static void run(ChainedOptionsBuilder options) throws RunnerException {
+        Options built = options.build();
+        try {
+            new Runner(built).run();
+        } catch (NoBenchmarksException e) {
+            // Everything matching this include was already run as a contended benchmark
+            if (built.getResult().hasValue()) {
+                new File(built.getResult().get()).delete();
+            }
+        }
+    }
+
+    private static List<Integer> defaultThreadCounts() {
+        int max = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < max; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(max);
+        return counts;
+    }
+
+    private static List<Integer> parseThreads(String value) {
+        List<Integer> counts = new ArrayList<>();
+        for (String part : value.split(",")) {
+            counts.add(Integer.parseInt(part.trim()));
+        }
+        return counts;
+    }
+
+    private static String sanitize(String include) {
+        String name = include.replaceAll("[^A-Za-z0-9]+", "");
+        return name.isEmpty() ? "all" : name;
+    }
+}
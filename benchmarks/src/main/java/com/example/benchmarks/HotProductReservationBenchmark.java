@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.inventory.service.HotProductStockStore;
+import com.example.inventory.service.StockLedger;
+import com.example.inventory.service.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation throughput on a single flash-sale product, with its stock in
+ * one counter ({@code single}) or sharded over {@code shards} counters by
+ * {@link HotProductStockStore}. Run it at 1..32 threads (see
+ * {@link BenchmarkRunner}); on one counter every thread CASes the same cache
+ * line, so throughput stops scaling after the first thread. Stock is topped
+ * up whenever it runs out, which at these volumes is rare enough not to show.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotProductReservationBenchmark {
+
+    private static final Long PRODUCT = 1L;
+    private static final int STOCK = 1_500_000_000;
+
+    @Param({"single", "sharded"})
+    public String counter;
+
+    @Param({"32"})
+    public int shards;
+
+    private StockStore store;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkLogging.quiet();
+        store = "sharded".equals(counter)
+            ? new HotProductStockStore(new StockLedger(), Set.of(PRODUCT), shards)
+            : new StockLedger();
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        store.register(PRODUCT, "Flash Sale", STOCK);
+    }
+
+    @Benchmark
+    public int reserve() {
+        int remaining = store.reserve(PRODUCT, 1);
+        if (remaining == StockStore.INSUFFICIENT) {
+            restock();
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.benchmarks;
+
+import com.example.inventory.persistence.StockJournal;
+import com.example.inventory.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation and availability-check throughput on InventoryService. Run it
+ * at several thread counts (see {@link BenchmarkRunner}) to see how the CAS
+ * ledger scales on one hot product versus reservations spread over the catalog.
+ * Each reservation is released again so stock never runs out mid-measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryReservationBenchmark {
+
+    private static final long PRODUCTS = 3;
+
+    @Param({"hot", "spread"})
+    public String access;
+
+    private InventoryService inventoryService;
+
+    @Setup
+    public void setup() {
+        BenchmarkLogging.quiet();
+        inventoryService = InventoryService.standalone(StockJournal.NONE);
+    }
+
+    @Benchmark
+    public int reserveAndRelease() {
+        Long productId = nextProduct();
+        int remaining = inventoryService.reserve(productId, 1);
+        if (remaining >= 0) {
+            inventoryService.release(productId, 1);
+        }
+        return remaining;
+    }
+
+    @Benchmark
+    public boolean checkAvailability() {
+        return inventoryService.checkAvailability(nextProduct(), 1);
+    }
+
+    private Long nextProduct() {
+        return "hot".equals(access) ? 1L : 1L + ThreadLocalRandom.current().nextLong(PRODUCTS);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.benchmarks;
+
+import com.example.order.model.Order;
+import com.example.order.model.Product;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list payloads returned by GET /orders and GET /inventory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectWriter orderWriter;
+    private ObjectWriter productWriter;
+    private ObjectReader orderReader;
+    private ObjectReader productReader;
+
+    private List<Order> orders;
+    private List<Product> products;
+    private byte[] ordersJson;
+    private byte[] productsJson;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        orderWriter = mapper.writerFor(new TypeReference<List<Order>>() { });
+        productWriter = mapper.writerFor(new TypeReference<List<Product>>() { });
+        orderReader = mapper.readerFor(new TypeReference<List<Order>>() { });
+        productReader = mapper.readerFor(new TypeReference<List<Product>>() { });
+
+        orders = new ArrayList<>(size);
+        products = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            orders.add(new Order(id, id % 50, "Product " + (id % 50), 2, "CONFIRMED"));
+            products.add(new Product(id, "Product " + id, 100, 1));
+        }
+        ordersJson = orderWriter.writeValueAsBytes(orders);
+        productsJson = productWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws IOException {
+        return orderWriter.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws IOException {
+        return productWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public List<Order> deserializeOrders() throws IOException {
+        return orderReader.readValue(ordersJson);
+    }
+
+    @Benchmark
+    public List<Product> deserializeProducts() throws IOException {
+        return productReader.readValue(productsJson);
+    }
+}
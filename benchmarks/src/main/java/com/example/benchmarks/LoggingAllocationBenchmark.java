@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.inventory.persistence.StockJournal;
+import com.example.inventory.service.InventoryService;
+import com.example.order.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation check for the request hot paths with application logging above
+ * DEBUG and INFO, as in production. Run it with the GC profiler:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar --prof gc LoggingAllocation
+ * </pre>
+ *
+ * {@code gc.alloc.rate.norm} should be 0 B/op for every benchmark here: a
+ * disabled log statement must not box its arguments or build a varargs array.
+ * Product IDs are boxed once in setup so the benchmark itself allocates nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingAllocationBenchmark {
+
+    private final Long productId = 2L;
+    private final Long missingOrderId = 1_000L;
+
+    private InventoryService inventoryService;
+    private OrderService orderService;
+
+    @Setup
+    public void setup() {
+        BenchmarkLogging.quiet();
+        inventoryService = InventoryService.standalone(StockJournal.NONE);
+        orderService = new OrderService();
+    }
+
+    @Benchmark
+    public int reserveAndRelease() {
+        int remaining = inventoryService.reserve(productId, 1);
+        if (remaining >= 0) {
+            inventoryService.release(productId, 1);
+        }
+        return remaining;
+    }
+
+    @Benchmark
+    public boolean checkAvailability() {
+        return inventoryService.checkAvailability(productId, 1);
+    }
+
+    @Benchmark
+    public Object orderLookup() {
+        return orderService.getOrder(missingOrderId);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.benchmarks;
+
+import com.example.order.model.Order;
+import com.example.order.persistence.Durability;
+import com.example.order.persistence.JournalFullException;
+import com.example.order.persistence.OrderLog;
+import com.example.order.service.OrderStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Order service startup cost with a journal: the time to open an existing
+ * order journal and rebuild the in-memory order store (primary map plus the
+ * product and status indexes) from it. One shot per iteration, each into a
+ * fresh store; {@link #decodeOnly} shows how much of that is the journal itself.
+ * The 10^7 case needs a large heap; pass {@code -p orders=1000000}
+ * to skip it on small machines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class OrderJournalRecoveryBenchmark {
+
+    private static final String[] STATUSES = {"CONFIRMED", "FAILED: Product not available"};
+
+    @Param({"1000000", "10000000"})
+    public int orders;
+
+    private Path directory;
+    private OrderStore store;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        BenchmarkLogging.quiet();
+        Path target = Files.createDirectories(Path.of("target"));
+        directory = Files.createTempDirectory(target, "order-journal-bench");
+        try (OrderLog log = open(order -> { })) {
+            for (long id = 1; id <= orders; id++) {
+                // One order in 50 fails
+                appendWaiting(log, new Order(id, id % 1000, "Product " + (id % 1000), 1, STATUSES[id % 50 == 0 ? 1 : 0]));
+            }
+        }
+    }
+
+    /**
+     * Unlike a request thread, the setup can wait while the writer is behind,
+     * so the journal ends up holding every order.
+     */
+    private static void appendWaiting(OrderLog log, Order order) {
+        while (true) {
+            try {
+                log.append(order).join();
+                return;
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof JournalFullException)) {
+                    throw e;
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void dropPreviousStore() {
+        store = null;
+        System.gc();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long recover() throws IOException {
+        store = new OrderStore();
+        try (OrderLog log = open(store::save)) {
+            return log.maxRecoveredId();
+        }
+    }
+
+    /**
+     * Reading and decoding alone, without building the store, to separate the
+     * journal's cost from the cost of the in-memory indexes.
+     */
+    @Benchmark
+    public long decodeOnly() throws IOException {
+        LongAdder decoded = new LongAdder();
+        try (OrderLog log = open(order -> decoded.increment())) {
+            return decoded.sum();
+        }
+    }
+
+    private OrderLog open(Consumer<Order> sink) throws IOException {
+        return OrderLog.open(directory, Durability.ASYNC, 64 * 1024 * 1024, 65_536, sink);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.benchmarks;
+
+import com.example.order.model.Order;
+import com.example.order.service.OrderStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order lookup by ID (the store behind OrderService.getOrder) as the number
+ * of stored orders grows. The 10^7 case needs a large heap; pass
+ * {@code -p orders=1000,100000} to skip it on small machines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class OrderLookupBenchmark {
+
+    private static final String[] STATUSES = {"CONFIRMED", "FAILED: Product not available"};
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int orders;
+
+    private OrderStore store;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkLogging.quiet();
+        store = new OrderStore();
+        for (long id = 1; id <= orders; id++) {
+            store.save(new Order(id, id % 1000, "Product " + (id % 1000), 1, STATUSES[(int) (id & 1)]));
+        }
+    }
+
+    @Benchmark
+    public Order getOrder() {
+        return store.get(1L + ThreadLocalRandom.current().nextLong(orders));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.benchmarks;
+
+import com.example.inventory.service.OffHeapStockLedger;
+import com.example.inventory.service.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap footprint and GC cost of the two stock storage engines with a large
+ * catalog loaded. Setup prints the heap retained after a full collection and
+ * the direct memory of the off-heap engine; {@link #fullGc} is the pause of a
+ * full collection with the catalog live, which grows with the number of heap
+ * objects to trace. {@link #reserveAndRelease} shows what the off-heap
+ * indirection costs on the hot path, with random products so most lookups
+ * miss the CPU caches either way.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:+UseG1GC"})
+public class StockStoreFootprintBenchmark {
+
+    @Param({"HEAP", "OFF_HEAP"})
+    public String engine;
+
+    @Param({"1000000", "10000000"})
+    public int products;
+
+    private StockStore store;
+
+    @Setup(Level.Trial)
+    public void load() {
+        BenchmarkLogging.quiet();
+        store = StockStore.Engine.valueOf(engine).create(products);
+        for (long id = 1; id <= products; id++) {
+            store.register(id, "Product " + id, 1_000_000);
+        }
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long offHeap = store instanceof OffHeapStockLedger offHeapStore ? offHeapStore.offHeapBytes() : 0;
+        System.out.printf("%n%s, %d products: heap retained %d MB (%d B/product), off-heap %d MB%n",
+            engine, products, heap >> 20, heap / products, offHeap >> 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int fullGc() {
+        System.gc();
+        return store.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int reserveAndRelease() {
+        Long productId = 1L + ThreadLocalRandom.current().nextLong(products);
+        int remaining = store.reserve(productId, 1);
+        if (remaining >= 0) {
+            store.release(productId, 1);
+        }
+        return remaining;
+    }
+}
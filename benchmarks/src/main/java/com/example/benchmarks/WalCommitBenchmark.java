@@ -0,0 +1,80 @@
+package com.example.benchmarks;
+
+import com.example.inventory.persistence.FsyncMode;
+import com.example.inventory.persistence.WriteAheadLog;
+import com.example.inventory.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable reservations per second through InventoryService with the
+ * write-ahead log in each fsync mode. Run it at several thread counts (see
+ * {@link BenchmarkRunner}): PER_OP is bounded by one fsync per reservation,
+ * while GROUP amortizes each fsync over every reservation that arrived during
+ * the previous one, so its throughput grows with concurrency.
+ *
+ * The log is written under {@code target/} in the working directory because
+ * /tmp is often a tmpfs, where fsync costs nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalCommitBenchmark {
+
+    private static final long PRODUCTS = 3;
+
+    @Param({"PER_OP", "GROUP", "NONE"})
+    public FsyncMode fsync;
+
+    private Path directory;
+    private WriteAheadLog log;
+    private InventoryService inventoryService;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkLogging.quiet();
+        Path target = Files.createDirectories(Path.of("target"));
+        directory = Files.createTempDirectory(target, "wal-bench");
+        log = WriteAheadLog.open(directory, fsync, 64 * 1024 * 1024, 4);
+        log.takeRecoveredState();
+        inventoryService = InventoryService.standalone(log);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            // Enough stock that no measurement runs out
+            inventoryService.restock(id, Integer.MAX_VALUE - 1_000);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int reserve() {
+        return inventoryService.reserve(1L + ThreadLocalRandom.current().nextLong(PRODUCTS), 1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.benchmarks;
+
+import com.example.inventory.resource.InventoryResource;
+import com.example.order.client.InventoryClient;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body encoding cost of one inventory call in JSON and in Smile
+ * ({@code order.inventory.wire-format}). {@link #exchange} does the
+ * serialization work of a whole call: the order client encodes the request
+ * body (batch only), inventory decodes it and encodes the response with its
+ * DTOs, and the client decodes that into its own DTOs. Setup prints the bytes
+ * on the wire for each body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int BATCH_LINES = 10;
+
+    @Param({"JSON", "SMILE"})
+    public String format;
+
+    /** check: GET /{id}/check, reserve: POST /{id}/reserve, batch: POST /reserve-batch with 10 lines. */
+    @Param({"check", "reserve", "batch"})
+    public String call;
+
+    private ObjectWriter requestWriter;
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private ObjectReader responseReader;
+
+    private Object request;
+    private Object response;
+
+    @Setup
+    public void setup() throws IOException {
+        // Both services leave unknown properties alone, as Quarkus configures its mapper
+        ObjectMapper json = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ObjectMapper mapper = "SMILE".equals(format) ? json.copyWith(new SmileFactory()) : json;
+
+        switch (call) {
+            case "check" -> {
+                response = new InventoryResource.AvailabilityResponse(true);
+                responseReader = mapper.readerFor(InventoryClient.AvailabilityResponse.class);
+            }
+            case "reserve" -> {
+                response = new InventoryResource.ReservationResponse(true, "Product reserved successfully", 1L,
+                    "Laptop", 41);
+                responseReader = mapper.readerFor(InventoryClient.ReservationResponse.class);
+            }
+            case "batch" -> {
+                List<InventoryClient.ReservationLine> lines = new ArrayList<>();
+                List<InventoryResource.LineResult> results = new ArrayList<>();
+                for (long id = 1; id <= BATCH_LINES; id++) {
+                    lines.add(new InventoryClient.ReservationLine(id, 2));
+                    InventoryResource.LineResult result = new InventoryResource.LineResult(id, 2, true, "Reserved");
+                    result.productName = "Product " + id;
+                    result.remainingQuantity = 98;
+                    result.productVersion = 1L;
+                    results.add(result);
+                }
+                request = new InventoryClient.BatchReservationRequest(lines);
+                requestWriter = mapper.writerFor(InventoryClient.BatchReservationRequest.class);
+                requestReader = mapper.readerFor(InventoryResource.BatchReservationRequest.class);
+                response = new InventoryResource.BatchReservationResponse(true, "All lines reserved", results);
+                responseReader = mapper.readerFor(InventoryClient.BatchReservationResponse.class);
+            }
+            default -> throw new IllegalArgumentException("Unknown call " + call);
+        }
+        responseWriter = mapper.writerFor(response.getClass());
+
+        int requestBytes = request == null ? 0 : requestWriter.writeValueAsBytes(request).length;
+        int responseBytes = responseWriter.writeValueAsBytes(response).length;
+        System.out.printf("%n%s %s: request body %d B, response body %d B%n", format, call, requestBytes, responseBytes);
+    }
+
+    @Benchmark
+    public Object exchange() throws IOException {
+        if (request != null) {
+            InventoryResource.BatchReservationRequest received =
+                requestReader.readValue(requestWriter.writeValueAsBytes(request));
+            if (received.lines.size() != BATCH_LINES) {
+                throw new IllegalStateException("Lost batch lines");
+            }
+        }
+        return responseReader.readValue(responseWriter.writeValueAsBytes(response));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Results of non-idempotent requests, keyed by the client's
+ * {@code Idempotency-Key} header, so a retried request gets the original
+ * result instead of being executed again.
+ *
+ * The first request with a key runs; requests with the same key that arrive
+ * while it runs wait for its result, and later ones get the stored result
+ * until it expires. Failed executions are not stored, so the client can retry
+ * them. A key reused with a different request is rejected.
+ */
+public class IdempotencyCache<T> {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, Entry<T>> entries;
+
+    public IdempotencyCache(String name, long maximumSize, Duration expireAfterWrite, MeterRegistry registry) {
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, entries, name);
+    }
+
+    /**
+     * Runs {@code action} unless {@code key} has already been used.
+     * {@code fingerprint} identifies the request; a stored result is only
+     * returned for the same fingerprint.
+     */
+    public CompletableFuture<Outcome<T>> execute(String key, String fingerprint, Supplier<CompletionStage<T>> action) {
+        Entry<T> created = new Entry<>(fingerprint, new CompletableFuture<>());
+        Entry<T> existing = entries.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return CompletableFuture.failedFuture(new KeyReusedException(key));
+            }
+            return existing.result.thenApply(value -> new Outcome<>(value, true));
+        }
+
+        CompletionStage<T> execution;
+        try {
+            execution = Objects.requireNonNull(action.get());
+        } catch (RuntimeException e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        execution.whenComplete((value, error) -> {
+            if (error != null) {
+                entries.asMap().remove(key, created);
+                created.result.completeExceptionally(error);
+            } else {
+                created.result.complete(value);
+            }
+        });
+        return created.result.thenApply(value -> new Outcome<>(value, false));
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    /**
+     * A result and whether it was stored by an earlier request.
+     */
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    /**
+     * The key was already used for a different request.
+     */
+    public static class KeyReusedException extends RuntimeException {
+        public KeyReusedException(String key) {
+            super("Idempotency key " + key + " was already used for a different request");
+        }
+    }
+
+    private record Entry<T>(String fingerprint, CompletableFuture<T> result) {
+    }
+}
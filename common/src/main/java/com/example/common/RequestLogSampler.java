@@ -0,0 +1,33 @@
+package com.example.common;
+
+import org.jboss.logging.Logger;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a per-request INFO line is written. With a sample rate of
+ * N about one line in N is logged; a rate of 1 logs every line. Warnings and
+ * errors are never sampled. Call sites sample independently, so the INFO
+ * lines of one request do not necessarily appear together.
+ *
+ * Each service produces one from its own
+ * {@code <service>.log.request-sample-rate} property.
+ */
+public class RequestLogSampler {
+
+    private final int sampleRate;
+
+    public RequestLogSampler() {
+        this(1);
+    }
+
+    public RequestLogSampler(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean sampled(Logger log) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        return sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes bodies as Smile, Jackson's binary JSON encoding
+ * ({@value #APPLICATION_SMILE}). It is the same data model as JSON with the
+ * same DTOs, so the mapper is a copy of the application's JSON mapper (same
+ * modules and features) over a Smile factory.
+ *
+ * Both ends of the inventory API use this class, so they always agree on the
+ * wire format. Each service registers a subclass the way it needs it: the
+ * inventory service as a server provider, the order service on its inventory
+ * client only. Media type annotations are not inherited, so the subclasses
+ * repeat them.
+ */
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE_TYPE = MediaType.valueOf(APPLICATION_SMILE);
+
+    private final ObjectMapper mapper;
+
+    public SmileMessageBodyHandler(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copyWith(new SmileFactory())
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        return mapper.readValue(entityStream, mapper.constructType(genericType));
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        mapper.writerFor(mapper.constructType(genericType)).writeValue(entityStream, value);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.inventory.model;
+
+/**
+ * One row of a bulk import: a product with its absolute stock level when it
+ * has a name, or a restock of an existing product by {@code quantity} when not.
+ */
+public class ImportRecord {
+    private Long id;
+    private String name;
+    private int quantity;
+
+    public ImportRecord() {
+    }
+
+    public ImportRecord(Long id, String name, int quantity) {
+        this.id = id;
+        this.name = name;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public boolean restock() {
+        return name == null || name.isEmpty();
+    }
+}
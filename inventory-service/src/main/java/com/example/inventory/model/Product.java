@@ -4,6 +4,7 @@ public class Product {
     private Long id;
     private String name;
     private int quantity;
+    private long version;
 
     public Product() {
     }
@@ -14,6 +15,11 @@ public class Product {
         this.quantity = quantity;
     }
 
+    public Product(Long id, String name, int quantity, long version) {
+        this(id, name, quantity);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -37,6 +43,12 @@ public class Product {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
-}
 
+    public long getVersion() {
+        return version;
+    }
 
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
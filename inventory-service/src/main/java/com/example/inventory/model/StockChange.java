@@ -0,0 +1,19 @@
+package com.example.inventory.model;
+
+/**
+ * One entry of the stock change feed. {@code delta} is the change in
+ * available units (0 for a registration) and {@code quantity} the product's
+ * stock right after it. Changes to one product made at the same moment by
+ * different requests can be numbered in another order than they were applied,
+ * so a consumer that needs exact levels sums deltas rather than taking the
+ * last {@code quantity}.
+ */
+public record StockChange(long seq, long productId, Type type, int delta, int quantity, long timestamp) {
+
+    public enum Type {
+        REGISTER,
+        RESERVE,
+        RELEASE,
+        RESTOCK
+    }
+}
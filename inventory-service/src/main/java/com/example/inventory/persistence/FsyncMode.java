@@ -0,0 +1,16 @@
+package com.example.inventory.persistence;
+
+/**
+ * When appended records are forced to disk.
+ */
+public enum FsyncMode {
+    /** Every append forces the log before returning; appends are serialized behind each fsync. */
+    PER_OP,
+    /**
+     * A flusher thread forces the log while appenders wait, so every append
+     * that arrived during one fsync is made durable by the next (group commit).
+     */
+    GROUP,
+    /** Appends return immediately; data reaches disk when the OS writes it back or the segment rolls. */
+    NONE
+}
@@ -0,0 +1,130 @@
+package com.example.inventory.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot files hold the full stock state as of the start of a log segment:
+ * {@code snapshot-N.dat} covers every record in segments before N. A snapshot
+ * is written to a temporary file, fsynced and renamed into place, so a crash
+ * leaves either the old or the new snapshot, never a partial one.
+ */
+final class Snapshots {
+
+    private static final int MAGIC = 0x494E5653; // "INVS"
+    private static final int FORMAT = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".dat";
+
+    private Snapshots() {
+    }
+
+    record Loaded(long coversBefore, StockState state) {
+    }
+
+    static Path path(Path directory, long coversBefore) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, coversBefore, SUFFIX));
+    }
+
+    static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static void write(Path directory, long coversBefore, StockState state) throws IOException {
+        Path target = path(directory, coversBefore);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(state.size());
+            for (StockState.Entry entry : state.entries()) {
+                byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+                out.writeLong(entry.id());
+                out.writeLong(entry.version());
+                out.writeInt(entry.quantity());
+                out.writeShort(name.length);
+                out.write(name);
+            }
+            out.flush();
+            // The checksum itself is written past the checked stream
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(directory);
+    }
+
+    static StockState read(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        StockState state = new StockState();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                throw new IOException("Not an inventory snapshot: " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long version = in.readLong();
+                int quantity = in.readInt();
+                byte[] name = new byte[in.readUnsignedShort()];
+                in.readFully(name);
+                state.put(id, new String(name, StandardCharsets.UTF_8), version, quantity);
+            }
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(raw).readInt() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Returns the newest snapshot in {@code directory}, or an empty state
+     * covering nothing if there is none.
+     */
+    static Loaded readLatest(Path directory) throws IOException {
+        long latest = -1;
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                latest = Math.max(latest, indexOf(file));
+            }
+        }
+        if (latest < 0) {
+            return new Loaded(0, new StockState());
+        }
+        return new Loaded(latest, read(path(directory, latest)));
+    }
+
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the rename itself is still atomic
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.inventory.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One write-ahead log record. The binary payload is a type byte followed by
+ * the product ID and quantity; REGISTER and UPDATE records also carry the
+ * metadata version and the UTF-8 name. A REGISTER quantity is the absolute
+ * stock of a new product; an UPDATE replaces the name and version of a known
+ * product but records its stock change as a delta, so it commutes with the
+ * reservations that raced with it.
+ */
+record StockEvent(Type type, long productId, int quantity, long version, String name) {
+
+    static final int MAX_NAME_BYTES = 0xFFFF;
+    static final int MAX_PAYLOAD = 1 + Long.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES + MAX_NAME_BYTES;
+
+    enum Type {
+        REGISTER,
+        RESERVE,
+        RELEASE,
+        RESTOCK,
+        UPDATE;
+
+        private static final Type[] VALUES = values();
+
+        static Type of(byte code) {
+            if (code < 0 || code >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown record type " + code);
+            }
+            return VALUES[code];
+        }
+    }
+
+    static StockEvent delta(Type type, long productId, int quantity) {
+        return new StockEvent(type, productId, quantity, 0, null);
+    }
+
+    static StockEvent register(long productId, String name, long version, int quantity) {
+        return new StockEvent(Type.REGISTER, productId, quantity, version, name);
+    }
+
+    /**
+     * Writes the payload at the buffer's position.
+     */
+    static void encodeDelta(ByteBuffer out, Type type, long productId, int quantity) {
+        out.put((byte) type.ordinal()).putLong(productId).putInt(quantity);
+    }
+
+    static void encodeRegister(ByteBuffer out, long productId, String name, long version, int quantity) {
+        encodeNamed(out, Type.REGISTER, productId, name, version, quantity);
+    }
+
+    static void encodeUpdate(ByteBuffer out, long productId, String name, long version, int delta) {
+        encodeNamed(out, Type.UPDATE, productId, name, version, delta);
+    }
+
+    private static void encodeNamed(ByteBuffer out, Type type, long productId, String name, long version, int quantity) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Product name longer than " + MAX_NAME_BYTES + " bytes");
+        }
+        out.put((byte) type.ordinal()).putLong(productId).putInt(quantity)
+            .putLong(version).putShort((short) nameBytes.length).put(nameBytes);
+    }
+
+    static StockEvent decode(ByteBuffer in) {
+        Type type = Type.of(in.get());
+        long productId = in.getLong();
+        int quantity = in.getInt();
+        if (type != Type.REGISTER && type != Type.UPDATE) {
+            return delta(type, productId, quantity);
+        }
+        long version = in.getLong();
+        byte[] name = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(name);
+        return new StockEvent(type, productId, quantity, version, new String(name, StandardCharsets.UTF_8));
+    }
+}
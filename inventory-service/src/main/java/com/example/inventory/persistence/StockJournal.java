@@ -0,0 +1,70 @@
+package com.example.inventory.persistence;
+
+import com.example.inventory.model.ImportRecord;
+import com.example.inventory.model.ReservationLine;
+import java.util.List;
+
+/**
+ * Receives every stock change after it has been applied to the ledger. Each
+ * call returns once the change is as durable as the implementation promises,
+ * so callers acknowledge a reservation only after it has been journaled.
+ * Deltas commute, so concurrent changes may be journaled in any order.
+ */
+public interface StockJournal extends AutoCloseable {
+
+    /** Journal that records nothing, for purely in-memory inventories. */
+    StockJournal NONE = new StockJournal() {
+        @Override
+        public void register(long productId, String name, long version, int quantity) {
+        }
+
+        @Override
+        public void reserve(long productId, int quantity) {
+        }
+
+        @Override
+        public void reserveAll(List<ReservationLine> lines, int[] results) {
+        }
+
+        @Override
+        public void release(long productId, int quantity) {
+        }
+
+        @Override
+        public void restock(long productId, int quantity) {
+        }
+
+        @Override
+        public void importAll(List<ImportRecord> records, long[] versions, int[] replaced) {
+        }
+    };
+
+    /** Records a product with its absolute stock level, replacing any earlier state. */
+    void register(long productId, String name, long version, int quantity);
+
+    void reserve(long productId, int quantity);
+
+    /**
+     * Records every line whose result is a successful reservation, waiting for
+     * durability once for the whole batch.
+     */
+    void reserveAll(List<ReservationLine> lines, int[] results);
+
+    void release(long productId, int quantity);
+
+    void restock(long productId, int quantity);
+
+    /**
+     * Records a batch of imported rows, waiting for durability once: named rows
+     * with {@code versions[i]}, the others as restocks. A named row for a
+     * product that existed replaced stock {@code replaced[i]} and is recorded
+     * as a delta from it, so it stays in order with concurrent reservations;
+     * a negative {@code replaced[i]} marks a new product. Rows whose version
+     * is negative were not applied and are skipped.
+     */
+    void importAll(List<ImportRecord> records, long[] versions, int[] replaced);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.inventory.persistence;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the stock write-ahead log.
+ */
+@ApplicationScoped
+public class StockPersistence {
+
+    private static final Logger LOG = Logger.getLogger(StockPersistence.class);
+
+    @ConfigProperty(name = "inventory.wal.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.wal.directory", defaultValue = "data/inventory-wal")
+    String directory;
+
+    @ConfigProperty(name = "inventory.wal.fsync", defaultValue = "group")
+    FsyncMode fsync;
+
+    @ConfigProperty(name = "inventory.wal.segment-size", defaultValue = "16M")
+    MemorySize segmentSize;
+
+    @ConfigProperty(name = "inventory.wal.snapshot-after-segments", defaultValue = "4")
+    int snapshotAfterSegments;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recovers and opens the log; the caller owns and closes it.
+     */
+    public WriteAheadLog open() {
+        Path path = Path.of(directory);
+        LOG.infof("🏗️ Opening inventory write-ahead log in %s (fsync: %s, segment size: %d bytes)",
+            path.toAbsolutePath(), fsync, segmentSize.asLongValue());
+        try {
+            return WriteAheadLog.open(path, fsync, Math.toIntExact(segmentSize.asLongValue()), snapshotAfterSegments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open inventory write-ahead log in " + path, e);
+        }
+    }
+}
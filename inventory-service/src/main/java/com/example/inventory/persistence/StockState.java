@@ -0,0 +1,79 @@
+package com.example.inventory.persistence;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock levels rebuilt from a snapshot and log records, used for recovery and
+ * for compacting closed log segments into a new snapshot.
+ */
+public final class StockState {
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long orphanedDeltas;
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Deltas that referenced a product with no REGISTER record before them. */
+    public long orphanedDeltas() {
+        return orphanedDeltas;
+    }
+
+    void put(long productId, String name, long version, int quantity) {
+        entries.put(productId, new Entry(productId, name, version, quantity));
+    }
+
+    void apply(StockEvent event) {
+        if (event.type() == StockEvent.Type.REGISTER) {
+            put(event.productId(), event.name(), event.version(), event.quantity());
+            return;
+        }
+        Entry entry = entries.get(event.productId());
+        if (entry == null) {
+            orphanedDeltas++;
+            return;
+        }
+        if (event.type() == StockEvent.Type.UPDATE) {
+            put(event.productId(), event.name(), event.version(), entry.quantity + event.quantity());
+            return;
+        }
+        entry.quantity += event.type() == StockEvent.Type.RESERVE ? -event.quantity() : event.quantity();
+    }
+
+    public static final class Entry {
+        private final long id;
+        private final String name;
+        private final long version;
+        private int quantity;
+
+        Entry(long id, String name, long version, int quantity) {
+            this.id = id;
+            this.name = name;
+            this.version = version;
+            this.quantity = quantity;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int quantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.inventory.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * One preallocated, memory-mapped log file. Records are framed as
+ * {@code [int length][int crc32][payload]}; the file is zero-filled, so a zero
+ * length marks the end of the written data. The length is written last, and
+ * a record whose checksum does not match is treated as a torn write: replay
+ * stops there and everything before it is kept.
+ */
+final class WalSegment {
+
+    static final int FRAME_HEADER = 2 * Integer.BYTES;
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    private final long index;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    private WalSegment(long index, MappedByteBuffer buffer) {
+        this.index = index;
+        this.buffer = buffer;
+    }
+
+    static WalSegment create(Path directory, long index, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(directory, index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new WalSegment(index, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    static Path path(Path directory, long index) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, index, SUFFIX));
+    }
+
+    /**
+     * Returns the segment index encoded in a file name, or -1 if the file is not a segment.
+     */
+    static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    long index() {
+        return index;
+    }
+
+    /**
+     * Copies a framed record into the segment. Returns false, writing nothing,
+     * if the record does not fit.
+     */
+    boolean append(byte[] payload, int length, CRC32 crc) {
+        int end = position + FRAME_HEADER + length;
+        if (end > buffer.capacity()) {
+            return false;
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+        buffer.put(position + FRAME_HEADER, payload, 0, length);
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(position, length);
+        position = end;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return position == 0;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Feeds every intact record in {@code file} to {@code consumer} and
+     * returns how many there were.
+     */
+    static long replay(Path file, Consumer<StockEvent> consumer) {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read log segment " + file, e);
+        }
+
+        CRC32 crc = new CRC32();
+        long records = 0;
+        int position = 0;
+        while (data.limit() - position >= FRAME_HEADER) {
+            int length = data.getInt(position);
+            if (length <= 0 || length > StockEvent.MAX_PAYLOAD || length > data.limit() - position - FRAME_HEADER) {
+                break;
+            }
+            ByteBuffer payload = data.slice(position + FRAME_HEADER, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != data.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            consumer.accept(StockEvent.decode(payload));
+            records++;
+            position += FRAME_HEADER + length;
+        }
+        return records;
+    }
+
+    static void delete(Path directory, long index) throws IOException {
+        Files.deleteIfExists(path(directory, index));
+    }
+}
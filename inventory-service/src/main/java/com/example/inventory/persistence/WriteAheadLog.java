@@ -0,0 +1,418 @@
+package com.example.inventory.persistence;
+
+import com.example.inventory.model.ImportRecord;
+import com.example.inventory.model.ReservationLine;
+import org.jboss.logging.Logger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only stock journal made of memory-mapped segment files.
+ *
+ * Appends are serialized by one lock and only copy a small record into the
+ * mapped segment; durability is governed by {@link FsyncMode}. When a segment
+ * fills up it is forced and a new one is started. Every
+ * {@code snapshotAfterSegments} closed segments a background thread folds the
+ * previous snapshot and those segments into a new snapshot and deletes them.
+ * Because snapshots are built from closed files rather than from the live
+ * ledger, they are consistent without pausing reservations.
+ *
+ * Opening a log recovers the state from the latest snapshot plus every later
+ * segment, then starts appending to a fresh segment.
+ */
+public final class WriteAheadLog implements StockJournal {
+
+    private static final Logger LOG = Logger.getLogger(WriteAheadLog.class);
+
+    private final Path directory;
+    private final FsyncMode fsync;
+    private final int segmentSize;
+    private final int snapshotAfterSegments;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final ByteBuffer scratch = ByteBuffer.allocate(StockEvent.MAX_PAYLOAD);
+    private final CRC32 crc = new CRC32();
+
+    private WalSegment segment;
+    private long appendedSeq;
+    private long durableSeq;
+    private int closedSinceSnapshot;
+    private boolean closed;
+    private RuntimeException failure;
+
+    private final Thread flusher;
+    private final ExecutorService compactor;
+    private StockState recovered;
+
+    private WriteAheadLog(Path directory, FsyncMode fsync, int segmentSize, int snapshotAfterSegments) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.segmentSize = segmentSize;
+        this.snapshotAfterSegments = snapshotAfterSegments;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = fsync == FsyncMode.GROUP ? new Thread(this::flushLoop, "wal-flusher") : null;
+    }
+
+    /**
+     * Recovers the log in {@code directory} (creating it if needed) and opens
+     * it for appending. The recovered state is available once through
+     * {@link #takeRecoveredState()}.
+     */
+    public static WriteAheadLog open(Path directory, FsyncMode fsync, int segmentSize, int snapshotAfterSegments)
+            throws IOException {
+        if (segmentSize < WalSegment.FRAME_HEADER + StockEvent.MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Segment size must be at least "
+                + (WalSegment.FRAME_HEADER + StockEvent.MAX_PAYLOAD) + " bytes");
+        }
+        Files.createDirectories(directory);
+        WriteAheadLog log = new WriteAheadLog(directory, fsync, segmentSize, Math.max(1, snapshotAfterSegments));
+        long next = log.recover();
+        log.segment = WalSegment.create(directory, next, segmentSize);
+        Snapshots.syncDirectory(directory);
+        if (log.flusher != null) {
+            log.flusher.setDaemon(true);
+            log.flusher.start();
+        }
+        return log;
+    }
+
+    public StockState takeRecoveredState() {
+        StockState state = recovered;
+        recovered = null;
+        return state;
+    }
+
+    private long recover() throws IOException {
+        long start = System.nanoTime();
+        deleteTemporaryFiles();
+        Snapshots.Loaded snapshot = Snapshots.readLatest(directory);
+        StockState state = snapshot.state();
+
+        long next = snapshot.coversBefore();
+        long records = 0;
+        for (long index : segmentIndexes()) {
+            if (index < snapshot.coversBefore()) {
+                // Already folded into the snapshot; left over from an interrupted cleanup
+                WalSegment.delete(directory, index);
+                continue;
+            }
+            records += WalSegment.replay(WalSegment.path(directory, index), state::apply);
+            next = index + 1;
+        }
+        closedSinceSnapshot = (int) Math.min(Integer.MAX_VALUE, next - snapshot.coversBefore());
+        recovered = state;
+        LOG.infof("✅ Recovered %d products from snapshot %d and %d log records in %d ms",
+            (Object) state.size(), (Object) snapshot.coversBefore(), (Object) records,
+            (Object) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (state.orphanedDeltas() > 0) {
+            LOG.warnf("⚠️ Ignored %d log records for products that were never registered", state.orphanedDeltas());
+        }
+        return next;
+    }
+
+    @Override
+    public void register(long productId, String name, long version, int quantity) {
+        long seq;
+        lock.lock();
+        try {
+            scratch.clear();
+            StockEvent.encodeRegister(scratch, productId, name, version, quantity);
+            seq = appendLocked();
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    @Override
+    public void reserve(long productId, int quantity) {
+        appendDelta(StockEvent.Type.RESERVE, productId, quantity);
+    }
+
+    @Override
+    public void reserveAll(List<ReservationLine> lines, int[] results) {
+        long seq = -1;
+        lock.lock();
+        try {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] >= 0) {
+                    ReservationLine line = lines.get(i);
+                    scratch.clear();
+                    StockEvent.encodeDelta(scratch, StockEvent.Type.RESERVE, line.getProductId(), line.getQuantity());
+                    seq = appendLocked();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (seq >= 0) {
+            awaitDurable(seq);
+        }
+    }
+
+    @Override
+    public void importAll(List<ImportRecord> records, long[] versions, int[] replaced) {
+        long seq = -1;
+        lock.lock();
+        try {
+            for (int i = 0; i < versions.length; i++) {
+                if (versions[i] >= 0) {
+                    ImportRecord record = records.get(i);
+                    scratch.clear();
+                    if (record.restock()) {
+                        StockEvent.encodeDelta(scratch, StockEvent.Type.RESTOCK, record.getId(), record.getQuantity());
+                    } else if (replaced[i] >= 0) {
+                        StockEvent.encodeUpdate(scratch, record.getId(), record.getName(), versions[i],
+                            record.getQuantity() - replaced[i]);
+                    } else {
+                        StockEvent.encodeRegister(scratch, record.getId(), record.getName(), versions[i],
+                            record.getQuantity());
+                    }
+                    seq = appendLocked();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (seq >= 0) {
+            awaitDurable(seq);
+        }
+    }
+
+    @Override
+    public void release(long productId, int quantity) {
+        appendDelta(StockEvent.Type.RELEASE, productId, quantity);
+    }
+
+    @Override
+    public void restock(long productId, int quantity) {
+        appendDelta(StockEvent.Type.RESTOCK, productId, quantity);
+    }
+
+    private void appendDelta(StockEvent.Type type, long productId, int quantity) {
+        long seq;
+        lock.lock();
+        try {
+            scratch.clear();
+            StockEvent.encodeDelta(scratch, type, productId, quantity);
+            seq = appendLocked();
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    /**
+     * Appends the record in {@link #scratch}; caller holds the lock.
+     */
+    private long appendLocked() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        if (!segment.append(scratch.array(), scratch.position(), crc)) {
+            roll();
+            segment.append(scratch.array(), scratch.position(), crc);
+        }
+        long seq = ++appendedSeq;
+        if (fsync == FsyncMode.PER_OP) {
+            segment.force();
+            durableSeq = seq;
+        } else if (fsync == FsyncMode.GROUP) {
+            appended.signal();
+        }
+        return seq;
+    }
+
+    private void roll() {
+        WalSegment full = segment;
+        full.force();
+        durableSeq = appendedSeq;
+        durable.signalAll();
+        try {
+            segment = WalSegment.create(directory, full.index() + 1, segmentSize);
+        } catch (IOException e) {
+            failure = new UncheckedIOException("Cannot create log segment " + (full.index() + 1), e);
+            durable.signalAll();
+            throw failure;
+        }
+        Snapshots.syncDirectory(directory);
+        LOG.debugf("Rolled write-ahead log to segment %d", segment.index());
+
+        if (++closedSinceSnapshot >= snapshotAfterSegments) {
+            closedSinceSnapshot = 0;
+            long coversBefore = segment.index();
+            compactor.execute(() -> snapshot(coversBefore));
+        }
+    }
+
+    private void awaitDurable(long seq) {
+        if (fsync != FsyncMode.GROUP) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw failure;
+                }
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            WalSegment target;
+            long seq;
+            lock.lock();
+            try {
+                while (durableSeq == appendedSeq && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (durableSeq == appendedSeq) {
+                    return;
+                }
+                target = segment;
+                seq = appendedSeq;
+            } finally {
+                lock.unlock();
+            }
+
+            RuntimeException error = null;
+            try {
+                // Records appended while this runs are picked up by the next round
+                target.force();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    LOG.errorf(error, "❌ Write-ahead log flush failed");
+                } else {
+                    durableSeq = Math.max(durableSeq, seq);
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Folds the latest snapshot and the closed segments before
+     * {@code coversBefore} into a new snapshot, then deletes what it replaced.
+     */
+    private void snapshot(long coversBefore) {
+        long start = System.nanoTime();
+        try {
+            Snapshots.Loaded previous = Snapshots.readLatest(directory);
+            StockState state = previous.state();
+            for (long index : segmentIndexes()) {
+                if (index >= previous.coversBefore() && index < coversBefore) {
+                    WalSegment.replay(WalSegment.path(directory, index), state::apply);
+                }
+            }
+            Snapshots.write(directory, coversBefore, state);
+
+            if (previous.coversBefore() > 0) {
+                Files.deleteIfExists(Snapshots.path(directory, previous.coversBefore()));
+            }
+            for (long index : segmentIndexes()) {
+                if (index < coversBefore) {
+                    WalSegment.delete(directory, index);
+                }
+            }
+            LOG.infof("📸 Wrote inventory snapshot %d (%d products) in %d ms", (Object) coversBefore,
+                (Object) state.size(), (Object) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            // The segments are kept, so nothing is lost; the next snapshot covers them
+            LOG.errorf(e, "❌ Failed to write inventory snapshot %d", coversBefore);
+        }
+    }
+
+    private List<Long> segmentIndexes() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (var files = Files.list(directory)) {
+            files.mapToLong(WalSegment::indexOf).filter(index -> index >= 0).sorted().forEach(indexes::add);
+        }
+        return indexes;
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for any pending snapshot; test and benchmark hook.
+     */
+    public void awaitSnapshots() throws InterruptedException {
+        try {
+            compactor.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (failure == null) {
+                segment.force();
+                durableSeq = appendedSeq;
+            }
+            appended.signalAll();
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        compactor.shutdown();
+        try {
+            if (flusher != null) {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            }
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.inventory.resource;
+
+import com.example.inventory.model.ImportRecord;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads {@code id,name,quantity} rows one line at a time. An optional header
+ * line starting with {@code id} is skipped, blank lines are ignored and the
+ * name may be double-quoted (with {@code ""} for a quote) to contain commas.
+ * An empty name makes the row a restock. Malformed lines fail with an
+ * {@link IllegalArgumentException} naming the line.
+ */
+final class CsvImportReader implements Iterator<ImportRecord> {
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber;
+    private ImportRecord next;
+
+    CsvImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRecord();
+        }
+        return next != null;
+    }
+
+    @Override
+    public ImportRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportRecord record = next;
+        next = null;
+        return record;
+    }
+
+    private ImportRecord readRecord() {
+        String line;
+        try {
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank() || (lineNumber == 1 && line.regionMatches(true, 0, "id", 0, 2)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int idEnd = line.indexOf(',');
+        if (idEnd < 0) {
+            throw malformed("expected id,name,quantity");
+        }
+        int position = idEnd + 1;
+        field.setLength(0);
+        if (position < line.length() && line.charAt(position) == '"') {
+            position++;
+            for (;;) {
+                if (position >= line.length()) {
+                    throw malformed("unterminated quoted name");
+                }
+                char c = line.charAt(position++);
+                if (c != '"') {
+                    field.append(c);
+                } else if (position < line.length() && line.charAt(position) == '"') {
+                    field.append('"');
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            if (position >= line.length() || line.charAt(position) != ',') {
+                throw malformed("expected a comma after the quoted name");
+            }
+        } else {
+            int nameEnd = line.indexOf(',', position);
+            if (nameEnd < 0) {
+                throw malformed("expected id,name,quantity");
+            }
+            field.append(line, position, nameEnd);
+            position = nameEnd;
+        }
+        try {
+            return new ImportRecord(Long.parseLong(line.substring(0, idEnd).trim()), field.toString(),
+                Integer.parseInt(line.substring(position + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw malformed("id and quantity must be numbers");
+        }
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed CSV line " + lineNumber + ": " + reason);
+    }
+}
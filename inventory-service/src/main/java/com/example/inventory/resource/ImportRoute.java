@@ -0,0 +1,116 @@
+package com.example.inventory.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import java.io.IOException;
+
+/**
+ * {@code POST /inventory/import}, routed ahead of the REST layer so that the
+ * body is streamed to the importer with back-pressure instead of counting
+ * against {@code quarkus.http.limits.max-body-size}, which stays at its small
+ * default for every other endpoint. Imports have their own limit,
+ * {@code inventory.import.max-body-size}, checked against Content-Length up
+ * front and against the bytes received for chunked uploads.
+ */
+@ApplicationScoped
+public class ImportRoute {
+
+    private static final Logger LOG = Logger.getLogger(ImportRoute.class);
+
+    /** Before Quarkus' upload limit check, which would refuse large imports by Content-Length. */
+    private static final int ROUTE_ORDER = RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT - 1;
+
+    @Inject
+    InventoryResource resource;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "inventory.import.max-body-size", defaultValue = "1G")
+    MemorySize maxBodySize;
+
+    void register(@Observes Router router) {
+        router.post("/inventory/import").order(ROUTE_ORDER).handler(this::handle);
+    }
+
+    private void handle(RoutingContext routing) {
+        String contentType = routing.request().getHeader(HttpHeaders.CONTENT_TYPE);
+        boolean ndjson = contentType != null && contentType.startsWith(InventoryResource.APPLICATION_NDJSON);
+        boolean csv = contentType != null && contentType.startsWith(InventoryResource.TEXT_CSV);
+        if (!ndjson && !csv) {
+            routing.response().setStatusCode(Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode()).end();
+            return;
+        }
+        long limit = maxBodySize.asLongValue();
+        String length = routing.request().getHeader(HttpHeaders.CONTENT_LENGTH);
+        long declared;
+        try {
+            declared = length == null ? -1 : Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            LOG.warnf("⚠️ Import refused - Content-Length %s is not a number", length);
+            routing.response().setStatusCode(Response.Status.BAD_REQUEST.getStatusCode())
+                .putHeader(HttpHeaders.CONNECTION, "close")
+                .end();
+            return;
+        }
+        if (declared > limit) {
+            LOG.warnf("⚠️ Import refused - Body of %s bytes is over the %d byte limit", length, limit);
+            routing.response().setStatusCode(Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode())
+                .putHeader(HttpHeaders.CONNECTION, "close")
+                .end();
+            return;
+        }
+
+        Context context = routing.vertx().getOrCreateContext();
+        RequestBodyInputStream body = new RequestBodyInputStream(routing.request(), context, limit);
+        // Importing blocks on the body and on the journal, so it runs on a worker thread
+        Infrastructure.getDefaultWorkerPool().execute(() -> {
+            Response result;
+            try {
+                result = ndjson ? resource.importNdjson(body) : resource.importCsv(body);
+            } catch (RequestBodyInputStream.BodyTooLargeException e) {
+                result = Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).build();
+            } catch (IOException | RuntimeException e) {
+                LOG.errorf(e, "❌ Import failed");
+                result = Response.serverError().build();
+            }
+            body.discardRest();
+            respond(routing.response(), context, result);
+        });
+    }
+
+    private void respond(HttpServerResponse response, Context context, Response result) {
+        byte[] entity;
+        try {
+            entity = result.getEntity() == null ? null : objectMapper.writeValueAsBytes(result.getEntity());
+        } catch (IOException e) {
+            LOG.errorf(e, "❌ Import summary could not be written");
+            entity = null;
+        }
+        byte[] bytes = entity;
+        context.runOnContext(ignored -> {
+            response.setStatusCode(result.getStatus());
+            if (bytes == null) {
+                response.end();
+            } else {
+                response.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                    .end(Buffer.buffer(bytes));
+            }
+        });
+    }
+}
@@ -1,39 +1,223 @@
 package com.example.inventory.resource;
 
+import com.example.common.IdempotencyCache;
+import com.example.common.RequestLogSampler;
+import com.example.common.SmileMessageBodyHandler;
+import com.example.inventory.model.ImportRecord;
 import com.example.inventory.model.Product;
+import com.example.inventory.model.ReservationLine;
+import com.example.inventory.model.StockChange;
 import com.example.inventory.service.InventoryService;
+import com.example.inventory.service.ReservationHolds;
+import com.example.inventory.service.StockChangeFeed;
+import com.example.inventory.service.StockStore;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Path("/inventory")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
 public class InventoryResource {
 
     private static final Logger LOG = Logger.getLogger(InventoryResource.class);
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_BATCH_LINES = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+    static final String TEXT_CSV = "text/csv";
+    private static final int MAX_IMPORT_NAME_LENGTH = 4096;
+
     @Inject
     InventoryService inventoryService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RequestLogSampler requestLog;
+
+    /** Rows applied and journaled together; the request body is read one batch at a time. */
+    @ConfigProperty(name = "inventory.import.batch-size", defaultValue = "10000")
+    int importBatchSize;
+
+    /** Longest a caught-up {@code GET /inventory/changes?waitMs=} long poll may wait. */
+    @ConfigProperty(name = "inventory.changes.max-wait", defaultValue = "30s")
+    Duration maxChangeWait;
+
+    /** Idle SSE change streams send a comment this often so dead connections are noticed. */
+    @ConfigProperty(name = "inventory.changes.heartbeat", defaultValue = "15s")
+    Duration changeHeartbeat;
+
+    private IdempotencyCache<StoredReservation> reservations;
+
+    @Inject
+    void initIdempotency(MeterRegistry registry,
+                         @ConfigProperty(name = "inventory.idempotency.maximum-size", defaultValue = "100000")
+                         long maximumSize,
+                         @ConfigProperty(name = "inventory.idempotency.expire-after-write", defaultValue = "10m")
+                         Duration expireAfterWrite) {
+        reservations = new IdempotencyCache<>("idempotent-reservations", maximumSize, expireAfterWrite, registry);
+    }
+
     @GET
-    public List<Product> getAllProducts() {
-        LOG.info("📋 Fetching all products");
-        List<Product> products = inventoryService.getAllProducts();
-        LOG.infof("✅ Retrieved %d products", products.size());
-        return products;
+    public Response getAllProducts(@QueryParam("after") Long after, @QueryParam("limit") Integer limit) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📋 Fetching products - After: %s, Limit: %s", after, limit);
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            LOG.warnf("⚠️ Invalid page size %d", limit);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        List<Product> products = inventoryService.getProducts(after, limit == null ? Integer.MAX_VALUE : limit);
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("✅ Retrieved %d products", products.size());
+        }
+
+        Response.ResponseBuilder response = Response.ok(products);
+        if (limit != null && products.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, products.get(products.size() - 1).getId());
+        }
+        return response.build();
+    }
+
+    @GET
+    @Produces(APPLICATION_NDJSON)
+    public Response streamProducts(@QueryParam("after") Long after) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📋 Streaming products - After: %s", after);
+        }
+        Iterator<Product> products = inventoryService.streamProducts(after);
+        StreamingOutput body = output -> {
+            try (SequenceWriter writer = objectMapper.writerFor(Product.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(output)) {
+                boolean written = false;
+                while (products.hasNext()) {
+                    writer.write(products.next());
+                    written = true;
+                }
+                writer.flush();
+                if (written) {
+                    output.write('\n');
+                }
+            }
+        };
+        return Response.ok(body, APPLICATION_NDJSON).build();
+    }
+
+    /**
+     * Changes with a sequence number above {@code since}, oldest first. Continue
+     * from {@code nextSeq}. With {@code waitMs} a caught-up caller is held until
+     * the next change or the timeout (long poll). {@code truncated} means changes
+     * after {@code since} were already dropped from the feed and the caller
+     * should re-read {@code GET /inventory} before applying the rest.
+     */
+    @GET
+    @Path("/changes")
+    public Uni<Response> getChanges(@QueryParam("since") @DefaultValue("0") long since,
+                                    @QueryParam("limit") Integer limit,
+                                    @QueryParam("waitMs") @DefaultValue("0") long waitMs) {
+        if ((limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) || waitMs < 0
+                || waitMs > maxChangeWait.toMillis()) {
+            LOG.warnf("⚠️ Invalid change feed request - Limit: %s, Wait: %d ms", limit, waitMs);
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).build());
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Reading stock changes - Since: %d, Limit: %s, Wait: %d ms", (Object) since, limit, (Object) waitMs);
+        }
+        return inventoryService.changes()
+                .await(since, limit == null ? MAX_PAGE_SIZE : limit, Duration.ofMillis(waitMs))
+                .map(batch -> Response.ok(new ChangesResponse(since, batch)).build());
+    }
+
+    /**
+     * The change feed as Server-Sent Events: one {@code stock} event per change
+     * with the sequence number as event ID, starting after {@code Last-Event-ID},
+     * {@code since} or, without either, the latest change. Events are read from
+     * the feed only as fast as the client takes them; a client that falls out
+     * of the feed gets a {@code reset} event and continues from the oldest
+     * change still held.
+     */
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> streamChanges(@QueryParam("since") Long since,
+                                                 @HeaderParam("Last-Event-ID") Long lastEventId,
+                                                 @Context Sse sse) {
+        StockChangeFeed feed = inventoryService.changes();
+        AtomicLong cursor = new AtomicLong(lastEventId != null ? lastEventId : since != null ? since : feed.lastSeq());
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📡 Streaming stock changes after %d", cursor.get());
+        }
+        return Multi.createBy().repeating()
+                .uni(() -> feed.await(cursor.get(), MAX_PAGE_SIZE, changeHeartbeat))
+                .indefinitely()
+                .onItem().invoke(batch -> cursor.set(batch.nextSeq()))
+                .onItem().transformToIterable(batch -> changeEvents(batch, sse));
+    }
+
+    private static List<OutboundSseEvent> changeEvents(StockChangeFeed.Batch batch, Sse sse) {
+        List<OutboundSseEvent> events = new ArrayList<>(batch.changes().size() + 1);
+        if (batch.truncated()) {
+            long resumeFrom = batch.changes().isEmpty() ? batch.nextSeq() : batch.changes().get(0).seq() - 1;
+            events.add(sse.newEventBuilder()
+                    .name("reset")
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(Map.of("resumeFrom", resumeFrom))
+                    .build());
+        } else if (batch.changes().isEmpty()) {
+            events.add(sse.newEventBuilder().comment("heartbeat").build());
+        }
+        for (StockChange change : batch.changes()) {
+            events.add(sse.newEventBuilder()
+                    .id(Long.toString(change.seq()))
+                    .name("stock")
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(StockChange.class, change)
+                    .build());
+        }
+        return events;
     }
 
     @GET
     @Path("/{id}")
     public Response getProduct(@PathParam("id") Long id) {
-        LOG.infof("🔍 Fetching product with ID: %d", id);
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("🔍 Fetching product with ID: %d", id);
+        }
         Product product = inventoryService.getProduct(id);
         if (product != null) {
-            LOG.debugf("Found product: %s (quantity: %d)", product.getName(), product.getQuantity());
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf("Found product: %s (quantity: %d)", product.getName(), product.getQuantity());
+            }
             return Response.ok(product).build();
         }
         LOG.warnf("⚠️ Product not found with ID: %d", id);
@@ -43,7 +227,9 @@ public class InventoryResource {
     @GET
     @Path("/{id}/check")
     public Response checkAvailability(@PathParam("id") Long id, @QueryParam("quantity") int quantity) {
-        LOG.infof("🔎 Checking availability - Product ID: %d, Quantity: %d", id, quantity);
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("🔎 Checking availability - Product ID: %d, Quantity: %d", id, quantity);
+        }
         boolean available = inventoryService.checkAvailability(id, quantity);
         LOG.debugf("Availability check result: %b", available);
         return Response.ok(new AvailabilityResponse(available)).build();
@@ -51,25 +237,366 @@ public class InventoryResource {
 
     @POST
     @Path("/{id}/reserve")
-    public Response reserveProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity) {
-        LOG.infof("📦 Reserve request - Product ID: %d, Quantity: %d", id, quantity);
+    @Consumes(MediaType.WILDCARD)
+    public Response reserveProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                   @HeaderParam(IdempotencyCache.HEADER) String idempotencyKey) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📦 Reserve request - Product ID: %d, Quantity: %d", id, quantity);
+        }
+
+        if (quantity <= 0) {
+            LOG.warnf("⚠️ Invalid reserve quantity %d for product %d", quantity, id);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ReservationResponse(false, "Quantity must be positive"))
+                    .build();
+        }
 
         try {
-            boolean reserved = inventoryService.reserveProduct(id, quantity);
-            if (reserved) {
+            if (idempotencyKey == null) {
+                return reserve(id, quantity).toResponse(false);
+            }
+            IdempotencyCache.Outcome<StoredReservation> outcome = reservations
+                    .execute(idempotencyKey, id + ":" + quantity,
+                            () -> CompletableFuture.completedFuture(reserve(id, quantity)))
+                    .join();
+            if (outcome.replayed() && requestLog.sampled(LOG)) {
+                LOG.infof("🔁 Replaying reservation for idempotency key %s", idempotencyKey);
+            }
+            return outcome.value().toResponse(outcome.replayed());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IdempotencyCache.KeyReusedException reused) {
+                LOG.warnf("⚠️ %s", reused.getMessage());
+                return Response.status(422)
+                        .entity(new ReservationResponse(false, reused.getMessage()))
+                        .build();
+            }
+            return reservationError(id, e.getCause());
+        } catch (Exception e) {
+            return reservationError(id, e);
+        }
+    }
+
+    private StoredReservation reserve(Long id, int quantity) {
+        int remaining = inventoryService.reserve(id, quantity);
+        if (remaining >= 0) {
+            if (requestLog.sampled(LOG)) {
                 LOG.infof("✅ Successfully reserved %d units of product %d", quantity, id);
-                return Response.ok(new ReservationResponse(true, "Product reserved successfully")).build();
             }
-            LOG.warnf("⚠️ Failed to reserve product %d - Insufficient quantity or not found", id);
+            return new StoredReservation(Response.Status.OK, new ReservationResponse(true, "Product reserved successfully",
+                    id, inventoryService.getProductName(id), remaining)
+                    .withVersion(inventoryService.getProductVersion(id)));
+        }
+        if (remaining == StockStore.NOT_FOUND) {
+            LOG.warnf("⚠️ Failed to reserve product %d - Not found", id);
+            return new StoredReservation(Response.Status.NOT_FOUND, new ReservationResponse(false, "Product not found"));
+        }
+        LOG.warnf("⚠️ Failed to reserve product %d - Insufficient quantity", id);
+        return new StoredReservation(Response.Status.BAD_REQUEST, new ReservationResponse(false, "Insufficient quantity",
+                id, inventoryService.getProductName(id), inventoryService.getAvailable(id))
+                .withVersion(inventoryService.getProductVersion(id)));
+    }
+
+    @POST
+    @Path("/{id}/holds")
+    @Consumes(MediaType.WILDCARD)
+    public Response holdProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                @QueryParam("ttlMs") Long ttlMs,
+                                @HeaderParam(IdempotencyCache.HEADER) String idempotencyKey) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("⏳ Hold request - Product ID: %d, Quantity: %d, TTL: %s ms", id, quantity, ttlMs);
+        }
+        if (quantity <= 0 || (ttlMs != null && ttlMs <= 0)) {
+            LOG.warnf("⚠️ Invalid hold request for product %d - Quantity: %d, TTL: %s ms", id, quantity, ttlMs);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ReservationResponse(false, "Quantity and TTL must be positive"))
+                    .build();
+        }
+        Duration ttl = ttlMs == null ? null : Duration.ofMillis(ttlMs);
+
+        try {
+            if (idempotencyKey == null) {
+                return hold(id, quantity, ttl).toResponse(false);
+            }
+            IdempotencyCache.Outcome<StoredReservation> outcome = reservations
+                    .execute(idempotencyKey, "hold:" + id + ":" + quantity + ":" + ttlMs,
+                            () -> CompletableFuture.completedFuture(hold(id, quantity, ttl)))
+                    .join();
+            return outcome.value().toResponse(outcome.replayed());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IdempotencyCache.KeyReusedException reused) {
+                LOG.warnf("⚠️ %s", reused.getMessage());
+                return Response.status(422)
+                        .entity(new ReservationResponse(false, reused.getMessage()))
+                        .build();
+            }
+            return reservationError(id, e.getCause());
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("⚠️ Invalid hold request for product %d - %s", id, e.getMessage());
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ReservationResponse(false, "Insufficient quantity or product not found"))
+                    .entity(new ReservationResponse(false, e.getMessage()))
                     .build();
         } catch (Exception e) {
-            LOG.errorf(e, "❌ Error reserving product %d", id);
-            return Response.serverError()
-                    .entity(new ReservationResponse(false, "Internal server error"))
+            return reservationError(id, e);
+        }
+    }
+
+    private StoredReservation hold(Long id, int quantity, Duration ttl) {
+        InventoryService.HoldResult result = inventoryService.hold(id, quantity, ttl);
+        if (result.hold() != null) {
+            if (requestLog.sampled(LOG)) {
+                LOG.infof("✅ Held %d units of product %d (hold %d)", quantity, id, result.hold().id());
+            }
+            return new StoredReservation(Response.Status.CREATED,
+                    HoldResponse.of(result.hold(), "Product held", inventoryService.getProductName(id), result.remaining())
+                            .withVersion(inventoryService.getProductVersion(id)));
+        }
+        if (result.remaining() == StockStore.NOT_FOUND) {
+            return new StoredReservation(Response.Status.NOT_FOUND, new ReservationResponse(false, "Product not found"));
+        }
+        return new StoredReservation(Response.Status.BAD_REQUEST, new ReservationResponse(false, "Insufficient quantity",
+                id, inventoryService.getProductName(id), inventoryService.getAvailable(id))
+                .withVersion(inventoryService.getProductVersion(id)));
+    }
+
+    @POST
+    @Path("/holds/{holdId}/confirm")
+    @Consumes(MediaType.WILDCARD)
+    public Response confirmHold(@PathParam("holdId") long holdId) {
+        ReservationHolds.Hold hold = inventoryService.confirmHold(holdId);
+        if (hold == null) {
+            LOG.warnf("⚠️ Cannot confirm hold %d - Not found or expired", holdId);
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(new ReservationResponse(false, "Hold not found or expired"))
+                    .build();
+        }
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("✅ Confirmed hold %d - Product: %d, Quantity: %d", holdId, hold.productId(), hold.quantity());
+        }
+        return Response.ok(HoldResponse.of(hold, "Hold confirmed",
+                inventoryService.getProductName(hold.productId()), null)).build();
+    }
+
+    @DELETE
+    @Path("/holds/{holdId}")
+    public Response releaseHold(@PathParam("holdId") long holdId) {
+        ReservationHolds.Hold hold;
+        try {
+            hold = inventoryService.releaseHold(holdId);
+        } catch (IllegalStateException e) {
+            LOG.warnf("⚠️ Cannot release hold %d - %s", holdId, e.getMessage());
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(new ReservationResponse(false, e.getMessage()))
+                    .build();
+        }
+        if (hold == null) {
+            LOG.warnf("⚠️ Cannot release hold %d - Not found or expired", holdId);
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(new ReservationResponse(false, "Hold not found or expired"))
                     .build();
         }
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("↩️ Released hold %d - Product: %d, Quantity: %d", holdId, hold.productId(), hold.quantity());
+        }
+        return Response.ok(HoldResponse.of(hold, "Hold released",
+                inventoryService.getProductName(hold.productId()), inventoryService.getAvailable(hold.productId())))
+                .build();
+    }
+
+    private Response reservationError(Long id, Throwable e) {
+        LOG.errorf(e, "❌ Error reserving product %d", id);
+        return Response.serverError()
+                .entity(new ReservationResponse(false, "Internal server error"))
+                .build();
+    }
+
+    /**
+     * Outcome of a reservation, kept for replays of the same idempotency key.
+     */
+    record StoredReservation(Response.Status status, ReservationResponse body) {
+        Response toResponse(boolean replayed) {
+            Response.ResponseBuilder response = Response.status(status).entity(body);
+            if (replayed) {
+                response.header(IdempotencyCache.REPLAYED_HEADER, true);
+            }
+            return response.build();
+        }
+    }
+
+    @POST
+    @Path("/{id}/restock")
+    @Consumes(MediaType.WILDCARD)
+    public Response restockProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📥 Restock request - Product ID: %d, Quantity: %d", id, quantity);
+        }
+        if (quantity <= 0) {
+            LOG.warnf("⚠️ Invalid restock quantity %d for product %d", quantity, id);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        if (inventoryService.restock(id, quantity) == StockStore.NOT_FOUND) {
+            LOG.warnf("⚠️ Failed to restock product %d - Not found", id);
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(inventoryService.getProduct(id)).build();
+    }
+
+    @POST
+    @Path("/reserve-batch")
+    public Response reserveBatch(BatchReservationRequest request,
+                                 @QueryParam("atomic") @DefaultValue("true") boolean atomic) {
+        if (request == null || request.lines == null || request.lines.isEmpty()
+                || request.lines.size() > MAX_BATCH_LINES) {
+            LOG.warn("⚠️ Invalid batch reservation request");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new BatchReservationResponse(false, "Batch must contain 1 to " + MAX_BATCH_LINES + " lines", List.of()))
+                    .build();
+        }
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📦 Batch reserve request - Lines: %d, Atomic: %b", request.lines.size(), atomic);
+        }
+
+        int[] results;
+        try {
+            results = inventoryService.reserveBatch(request.lines, atomic);
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("⚠️ Invalid batch reservation request - %s", e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new BatchReservationResponse(false, e.getMessage(), List.of()))
+                    .build();
+        }
+
+        boolean allReserved = true;
+        List<LineResult> lines = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            ReservationLine line = request.lines.get(i);
+            LineResult result = LineResult.of(line, results[i]);
+            if (results[i] != StockStore.NOT_FOUND) {
+                result.productName = inventoryService.getProductName(line.getProductId());
+                result.productVersion = inventoryService.getProductVersion(line.getProductId());
+                if (results[i] >= 0) {
+                    result.remainingQuantity = results[i];
+                }
+            }
+            lines.add(result);
+            allReserved &= results[i] >= 0;
+        }
+
+        if (allReserved) {
+            if (requestLog.sampled(LOG)) {
+                LOG.infof("✅ Successfully reserved batch of %d lines", results.length);
+            }
+            return Response.ok(new BatchReservationResponse(true, "Batch reserved successfully", lines)).build();
+        }
+        if (atomic) {
+            LOG.warn("⚠️ Batch reservation rejected - No lines were reserved");
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(new BatchReservationResponse(false, "Batch rejected, no lines were reserved", lines))
+                    .build();
+        }
+        return Response.ok(new BatchReservationResponse(false, "Some lines could not be reserved", lines)).build();
+    }
+
+    /**
+     * Bulk catalog import from a streamed NDJSON body of
+     * {@code {"id":..,"name":..,"quantity":..}} objects, served by
+     * {@link ImportRoute} for {@code POST /inventory/import}. See {@link #importRows}.
+     */
+    Response importNdjson(InputStream body) throws IOException {
+        try (MappingIterator<ImportRecord> rows = objectMapper.readerFor(ImportRecord.class).readValues(body)) {
+            return importRows(rows, "NDJSON");
+        }
+    }
+
+    /** Bulk catalog import from a streamed {@code id,name,quantity} CSV body. See {@link #importRows}. */
+    Response importCsv(InputStream body) {
+        return importRows(new CsvImportReader(body), "CSV");
+    }
+
+    /**
+     * Applies rows in batches as they are read. Rows with a name upsert the
+     * product with an absolute stock level, rows without one restock an
+     * existing product. Invalid rows are counted and skipped; a malformed row
+     * stops the import with 400 and a body over the import limit with 413,
+     * keeping every row before it.
+     */
+    private Response importRows(Iterator<ImportRecord> rows, String format) {
+        LOG.infof("📥 %s import started", format);
+        long start = System.nanoTime();
+        ImportResponse summary = new ImportResponse();
+        List<ImportRecord> batch = new ArrayList<>(importBatchSize);
+        String failure = null;
+        Response.Status failureStatus = Response.Status.BAD_REQUEST;
+        try {
+            while (rows.hasNext()) {
+                ImportRecord row = rows.next();
+                summary.rows++;
+                if (!validImportRow(row)) {
+                    summary.rejected++;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debugf("Rejected import row %d for product %s", (Object) summary.rows, row.getId());
+                    }
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == importBatchSize) {
+                    applyImportBatch(batch, summary);
+                }
+            }
+        } catch (IllegalArgumentException | RuntimeJsonMappingException e) {
+            failure = e.getMessage();
+        } catch (RuntimeException e) {
+            // Parse errors and failed reads of the body both arrive wrapped in an unchecked exception
+            if (!(e.getCause() instanceof IOException)) {
+                throw e;
+            }
+            failure = e.getCause().getMessage();
+            if (e.getCause() instanceof RequestBodyInputStream.BodyTooLargeException) {
+                failureStatus = Response.Status.REQUEST_ENTITY_TOO_LARGE;
+            }
+        }
+        applyImportBatch(batch, summary);
+
+        long elapsed = System.nanoTime() - start;
+        summary.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        summary.rowsPerSecond = summary.rows * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+        if (failure != null) {
+            summary.message = "Import stopped after " + summary.rows + " rows: " + failure;
+            LOG.warnf("⚠️ %s", summary.message);
+            return Response.status(failureStatus).entity(summary).build();
+        }
+        summary.success = true;
+        summary.message = "Imported " + summary.rows + " rows";
+        LOG.infof("✅ %s import finished - Rows: %d, Added: %d, Updated: %d, Renamed: %d, Restocked: %d, "
+                + "Not found: %d, Rejected: %d in %d ms (%d rows/s)", format, summary.rows, summary.added,
+            summary.updated, summary.renamed, summary.restocked, summary.notFound, summary.rejected,
+            summary.elapsedMillis, summary.rowsPerSecond);
+        return Response.ok(summary).build();
+    }
+
+    private static boolean validImportRow(ImportRecord row) {
+        if (row.getId() == null) {
+            return false;
+        }
+        if (row.restock()) {
+            return row.getQuantity() > 0;
+        }
+        return row.getQuantity() >= 0 && row.getName().length() <= MAX_IMPORT_NAME_LENGTH;
+    }
+
+    private void applyImportBatch(List<ImportRecord> batch, ImportResponse summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int result : inventoryService.importBatch(batch)) {
+            switch (result) {
+                case InventoryService.IMPORT_ADDED -> summary.added++;
+                case InventoryService.IMPORT_UPDATED -> summary.updated++;
+                case InventoryService.IMPORT_RENAMED -> summary.renamed++;
+                case InventoryService.IMPORT_RESTOCKED -> summary.restocked++;
+                default -> summary.notFound++;
+            }
+        }
+        batch.clear();
     }
 
     public static class AvailabilityResponse {
@@ -86,6 +613,10 @@ public class InventoryResource {
     public static class ReservationResponse {
         public boolean success;
         public String message;
+        public Long productId;
+        public String productName;
+        public Integer remainingQuantity;
+        public Long productVersion;
 
         public ReservationResponse() {
         }
@@ -94,6 +625,135 @@ public class InventoryResource {
             this.success = success;
             this.message = message;
         }
+
+        public ReservationResponse(boolean success, String message, Long productId, String productName,
+                                   Integer remainingQuantity) {
+            this(success, message);
+            this.productId = productId;
+            this.productName = productName;
+            this.remainingQuantity = remainingQuantity;
+        }
+
+        ReservationResponse withVersion(long productVersion) {
+            this.productVersion = productVersion;
+            return this;
+        }
+    }
+
+    /**
+     * A reservation that is held until confirmed, released or expired. The
+     * hold ID is a string because it does not fit a JavaScript number.
+     */
+    public static class HoldResponse extends ReservationResponse {
+        public String holdId;
+        public int quantity;
+        public long expiresAt;
+
+        public HoldResponse() {
+        }
+
+        static HoldResponse of(ReservationHolds.Hold hold, String message, String productName, Integer remaining) {
+            HoldResponse response = new HoldResponse();
+            response.success = true;
+            response.message = message;
+            response.productId = hold.productId();
+            response.productName = productName;
+            response.remainingQuantity = remaining;
+            response.holdId = Long.toString(hold.id());
+            response.quantity = hold.quantity();
+            response.expiresAt = hold.expiresAtMillis();
+            return response;
+        }
+    }
+
+    public static class BatchReservationRequest {
+        public List<ReservationLine> lines;
+
+        public BatchReservationRequest() {
+        }
+
+        public BatchReservationRequest(List<ReservationLine> lines) {
+            this.lines = lines;
+        }
+    }
+
+    public static class BatchReservationResponse {
+        public boolean success;
+        public String message;
+        public List<LineResult> lines;
+
+        public BatchReservationResponse() {
+        }
+
+        public BatchReservationResponse(boolean success, String message, List<LineResult> lines) {
+            this.success = success;
+            this.message = message;
+            this.lines = lines;
+        }
     }
-}
 
+    public static class LineResult {
+        public Long productId;
+        public int quantity;
+        public boolean success;
+        public String message;
+        public String productName;
+        public Integer remainingQuantity;
+        public Long productVersion;
+
+        public LineResult() {
+        }
+
+        public LineResult(Long productId, int quantity, boolean success, String message) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.success = success;
+            this.message = message;
+        }
+
+        static LineResult of(ReservationLine line, int result) {
+            String message;
+            if (result >= 0) {
+                message = "Reserved";
+            } else if (result == StockStore.NOT_FOUND) {
+                message = "Product not found";
+            } else if (result == StockStore.INSUFFICIENT) {
+                message = "Insufficient quantity";
+            } else {
+                message = "Not reserved, batch rolled back";
+            }
+            return new LineResult(line.getProductId(), line.getQuantity(), result >= 0, message);
+        }
+    }
+
+    public static class ImportResponse {
+        public boolean success;
+        public String message;
+        public long rows;
+        public long added;
+        public long updated;
+        public long renamed;
+        public long restocked;
+        public long notFound;
+        public long rejected;
+        public long elapsedMillis;
+        public long rowsPerSecond;
+    }
+
+    public static class ChangesResponse {
+        public long since;
+        public long nextSeq;
+        public boolean truncated;
+        public List<StockChange> changes;
+
+        public ChangesResponse() {
+        }
+
+        ChangesResponse(long since, StockChangeFeed.Batch batch) {
+            this.since = since;
+            this.nextSeq = batch.nextSeq();
+            this.truncated = batch.truncated();
+            this.changes = batch.changes();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.inventory.resource;
+
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Blocking view of a request body as it arrives, for a worker thread to read
+ * while the event loop keeps receiving. At most {@link #HIGH_WATER} chunks
+ * are queued: past that the request is paused until the reader catches up,
+ * so a large upload is never held in memory as a whole. Bodies longer than
+ * {@code maxBytes} end with a {@link BodyTooLargeException}.
+ */
+final class RequestBodyInputStream extends InputStream {
+
+    private static final int HIGH_WATER = 32;
+    private static final int LOW_WATER = 8;
+    private static final Object END = new Object();
+
+    /** The body went past the limit; whatever was read before it has been consumed. */
+    static final class BodyTooLargeException extends IOException {
+        BodyTooLargeException(long maxBytes) {
+            super("Request body is larger than " + maxBytes + " bytes");
+        }
+    }
+
+    private final HttpServerRequest request;
+    private final Context context;
+    private final long maxBytes;
+    private final BlockingQueue<Object> chunks = new LinkedBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /** Bytes received so far; only touched on the event loop. */
+    private long received;
+    private Buffer current;
+    private int position;
+    private Object finished;
+
+    RequestBodyInputStream(HttpServerRequest request, Context context, long maxBytes) {
+        this.request = request;
+        this.context = context;
+        this.maxBytes = maxBytes;
+        request.handler(this::received)
+            .endHandler(ignored -> chunks.add(END))
+            .exceptionHandler(chunks::add);
+    }
+
+    private void received(Buffer chunk) {
+        if (received > maxBytes) {
+            return;
+        }
+        received += chunk.length();
+        if (received > maxBytes) {
+            chunks.add(new BodyTooLargeException(maxBytes));
+            return;
+        }
+        chunks.add(chunk);
+        if (queued.incrementAndGet() >= HIGH_WATER) {
+            request.pause();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current.getByte(position++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length() - position);
+        current.getBytes(position, position + count, bytes, offset);
+        position += count;
+        return count;
+    }
+
+    private boolean fill() throws IOException {
+        while (current == null || position == current.length()) {
+            if (finished != null) {
+                return rethrow(finished);
+            }
+            Object next;
+            try {
+                next = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading the request body", e);
+            }
+            if (next instanceof Buffer chunk) {
+                current = chunk;
+                position = 0;
+                if (queued.decrementAndGet() == LOW_WATER) {
+                    context.runOnContext(ignored -> resumeIfDrained());
+                }
+            } else {
+                finished = next;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops whatever the client still sends after the reader stopped early,
+     * so the request can complete without the rest being queued. A body that
+     * has already ended cannot take a handler any more and is left alone.
+     */
+    void discardRest() {
+        context.runOnContext(ignored -> {
+            if (!request.isEnded()) {
+                request.handler(chunk -> { });
+                request.resume();
+            }
+        });
+        chunks.clear();
+    }
+
+    /**
+     * Runs on the event loop; chunks may have piled up again since the resume
+     * was requested, or the body may have ended in the meantime.
+     */
+    private void resumeIfDrained() {
+        if (queued.get() < HIGH_WATER && !request.isEnded()) {
+            request.resume();
+        }
+    }
+
+    private static boolean rethrow(Object finished) throws IOException {
+        if (finished == END) {
+            return false;
+        }
+        if (finished instanceof IOException e) {
+            throw e;
+        }
+        throw new IOException("Request body could not be read", (Throwable) finished);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.inventory.resource;
+
+import com.example.common.SmileMessageBodyHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Answers clients that send {@code Accept: application/x-jackson-smile} in
+ * Smile and reads Smile request bodies; JSON stays the default for everyone
+ * else.
+ */
+@Provider
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileProvider extends SmileMessageBodyHandler {
+
+    @Inject
+    public SmileProvider(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.inventory.service;
+
+import com.example.inventory.model.Product;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps a {@link StockStore} and keeps the stock of designated hot products
+ * in a {@link ShardedStock} instead, so a flash sale on one product does not
+ * funnel every reservation through a single counter. The wrapped store still
+ * holds the product's name and version with a stock of zero; reads of the
+ * stock go to the shards. Every other product is passed straight through.
+ *
+ * For hot products {@link #reserve} reports the sum of every shard rather
+ * than the lower bound {@link ShardedStock} returns, since the remaining
+ * quantity goes to the change feed and back to the client as the stock
+ * left. Reading the shards only shares their cache lines; the reservation
+ * itself still writes to one.
+ */
+public final class HotProductStockStore implements StockStore {
+
+    private final StockStore delegate;
+    private final Set<Long> hotProducts;
+    private final int shards;
+    private final ConcurrentHashMap<Long, ShardedStock> sharded = new ConcurrentHashMap<>();
+
+    /**
+     * @param shards counters per hot product, rounded up to a power of two
+     */
+    public HotProductStockStore(StockStore delegate, Set<Long> hotProducts, int shards) {
+        this.delegate = delegate;
+        this.hotProducts = Set.copyOf(hotProducts);
+        this.shards = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+    }
+
+    /** Shard count for {@code inventory.hot-products.shards=0}: one per available processor. */
+    public static int defaultShards() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public boolean isHot(Long productId) {
+        return sharded.containsKey(productId);
+    }
+
+    @Override
+    public int register(Long productId, String name, long version, int quantity) {
+        if (!hotProducts.contains(productId)) {
+            return delegate.register(productId, name, version, quantity);
+        }
+        synchronized (sharded) {
+            ShardedStock stock = sharded.get(productId);
+            int replaced = NOT_FOUND;
+            if (stock == null) {
+                sharded.put(productId, new ShardedStock(shards, quantity));
+            } else {
+                replaced = stock.set(quantity);
+            }
+            delegate.register(productId, name, version, 0);
+            return replaced;
+        }
+    }
+
+    @Override
+    public boolean contains(Long productId) {
+        return delegate.contains(productId);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int available(Long productId) {
+        ShardedStock stock = sharded.get(productId);
+        return stock == null ? delegate.available(productId) : stock.sum();
+    }
+
+    @Override
+    public String name(Long productId) {
+        return delegate.name(productId);
+    }
+
+    @Override
+    public long version(Long productId) {
+        return delegate.version(productId);
+    }
+
+    @Override
+    public int reserve(Long productId, int quantity) {
+        ShardedStock stock = sharded.get(productId);
+        if (stock == null) {
+            return delegate.reserve(productId, quantity);
+        }
+        int remaining = stock.reserve(quantity);
+        return remaining < 0 ? remaining : stock.sum();
+    }
+
+    @Override
+    public int release(Long productId, int quantity) {
+        ShardedStock stock = sharded.get(productId);
+        return stock == null ? delegate.release(productId, quantity) : stock.release(quantity);
+    }
+
+    @Override
+    public Product snapshot(Long productId) {
+        return withShardedStock(delegate.snapshot(productId));
+    }
+
+    @Override
+    public Iterator<Product> iterate(Long after) {
+        Iterator<Product> products = delegate.iterate(after);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return products.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                return withShardedStock(products.next());
+            }
+        };
+    }
+
+    private Product withShardedStock(Product product) {
+        if (product != null) {
+            ShardedStock stock = sharded.get(product.getId());
+            if (stock != null) {
+                product.setQuantity(stock.sum());
+            }
+        }
+        return product;
+    }
+}
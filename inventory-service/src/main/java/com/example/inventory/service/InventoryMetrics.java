@@ -0,0 +1,136 @@
+package com.example.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for the reservation path. Timers are resolved once up front, so
+ * recording a reservation costs a clock read and a few atomic adds. Stock
+ * gauges are read from the ledger only when metrics are scraped, one per
+ * product up to {@code maxStockGauges} so a large catalog cannot flood the
+ * registry with time series.
+ */
+final class InventoryMetrics {
+
+    private final MeterRegistry registry;
+    private final StockStore ledger;
+    private final int maxStockGauges;
+    private final AtomicInteger stockGauges = new AtomicInteger();
+
+    private final Timer reserved;
+    private final Timer insufficient;
+    private final Timer notFound;
+    private final Timer batchApplied;
+    private final Timer batchRolledBack;
+    private final Counter holdsCreated;
+    private final Counter holdsConfirmed;
+    private final Counter holdsReleased;
+    private final Counter holdsExpired;
+
+    /**
+     * Meters that record nothing, used until a registry is injected and when
+     * the service is constructed outside the container (benchmarks).
+     */
+    static InventoryMetrics disabled(StockStore ledger) {
+        return new InventoryMetrics(new CompositeMeterRegistry(), ledger, 0);
+    }
+
+    InventoryMetrics(MeterRegistry registry, StockStore ledger, int maxStockGauges) {
+        this.registry = registry;
+        this.ledger = ledger;
+        this.maxStockGauges = maxStockGauges;
+        this.reserved = reservationTimer("reserved");
+        this.insufficient = reservationTimer("insufficient");
+        this.notFound = reservationTimer("not_found");
+        this.batchApplied = batchTimer("applied");
+        this.batchRolledBack = batchTimer("rolled_back");
+        this.holdsCreated = holdCounter("created");
+        this.holdsConfirmed = holdCounter("confirmed");
+        this.holdsReleased = holdCounter("released");
+        this.holdsExpired = holdCounter("expired");
+
+        Gauge.builder("inventory.products", ledger, StockStore::size)
+            .description("Products registered in the stock store")
+            .register(registry);
+    }
+
+    void productRegistered(Long productId) {
+        if (stockGauges.getAndIncrement() >= maxStockGauges) {
+            return;
+        }
+        Gauge.builder("inventory.stock.available", ledger, l -> l.available(productId))
+            .description("Units currently available per product")
+            .tag("product", productId.toString())
+            .register(registry);
+    }
+
+    void bindHolds(ReservationHolds holds) {
+        Gauge.builder("inventory.holds.active", holds, ReservationHolds::active)
+            .description("Reservation holds that are neither confirmed, released nor expired")
+            .register(registry);
+    }
+
+    void bindChanges(StockChangeFeed changes) {
+        FunctionCounter.builder("inventory.changes.published", changes, StockChangeFeed::lastSeq)
+            .description("Stock changes published to the change feed")
+            .register(registry);
+        FunctionCounter.builder("inventory.changes.truncated.reads", changes, StockChangeFeed::truncations)
+            .description("Change feed reads whose cursor had already been overwritten")
+            .register(registry);
+        Gauge.builder("inventory.changes.waiting", changes, StockChangeFeed::waiting)
+            .description("Change feed readers waiting for the next change")
+            .register(registry);
+    }
+
+    void recordHold(int state) {
+        switch (state) {
+            case ReservationHolds.HELD -> holdsCreated.increment();
+            case ReservationHolds.CONFIRMED -> holdsConfirmed.increment();
+            case ReservationHolds.RELEASED -> holdsReleased.increment();
+            default -> holdsExpired.increment();
+        }
+    }
+
+    void recordReservation(int result, long startNanos) {
+        Timer timer = result >= 0 ? reserved
+            : result == StockStore.INSUFFICIENT ? insufficient
+            : notFound;
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordBatch(boolean rolledBack, long startNanos) {
+        (rolledBack ? batchRolledBack : batchApplied)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer reservationTimer(String outcome) {
+        return Timer.builder("inventory.reservations")
+            .description("Single-product reservations by outcome")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(100))
+            .maximumExpectedValue(Duration.ofMillis(100))
+            .register(registry);
+    }
+
+    private Counter holdCounter(String event) {
+        return Counter.builder("inventory.holds")
+            .description("Reservation hold lifecycle events")
+            .tag("event", event)
+            .register(registry);
+    }
+
+    private Timer batchTimer(String outcome) {
+        return Timer.builder("inventory.reservation.batches")
+            .description("Batch reservations by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
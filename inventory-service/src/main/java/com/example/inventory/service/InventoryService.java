@@ -1,77 +1,484 @@
 package com.example.inventory.service;
 
+import com.example.common.RequestLogSampler;
+import com.example.inventory.model.ImportRecord;
 import com.example.inventory.model.Product;
+import com.example.inventory.model.ReservationLine;
+import com.example.inventory.model.StockChange;
+import com.example.inventory.persistence.StockJournal;
+import com.example.inventory.persistence.StockPersistence;
+import com.example.inventory.persistence.StockState;
+import com.example.inventory.persistence.WriteAheadLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @ApplicationScoped
 public class InventoryService {
 
     private static final Logger LOG = Logger.getLogger(InventoryService.class);
 
-    private final Map<Long, Product> inventory = new HashMap<>();
+    /** Batch line result for lines that were rolled back because another line failed. */
+    public static final int ABORTED = -3;
 
-    public InventoryService() {
-        LOG.info("🏗️ Initializing InventoryService");
+    /** Import row results: a new product, a stock update, a rename (new version) or a restock. */
+    public static final int IMPORT_ADDED = 0;
+    public static final int IMPORT_UPDATED = 1;
+    public static final int IMPORT_RENAMED = 2;
+    public static final int IMPORT_RESTOCKED = 3;
+
+    private static final int DEFAULT_CHANGE_CAPACITY = 65_536;
+
+    private final Object importLock = new Object();
+
+    private StockStore ledger = new StockLedger();
+    private InventoryMetrics metrics = InventoryMetrics.disabled(ledger);
+    private StockJournal journal = StockJournal.NONE;
+    private StockChangeFeed changes = new StockChangeFeed(DEFAULT_CHANGE_CAPACITY);
+
+    @Inject
+    RequestLogSampler requestLog = new RequestLogSampler();
+
+    @Inject
+    StockPersistence persistence;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "inventory.metrics.max-stock-gauges", defaultValue = "1000")
+    int maxStockGauges;
+
+    /** heap (an object per product) or off-heap (primitive index, stock and names in direct memory). */
+    @ConfigProperty(name = "inventory.storage.engine", defaultValue = "heap")
+    StockStore.Engine storageEngine = StockStore.Engine.HEAP;
+
+    /** Products the off-heap engine sizes its index for up front; it grows past this as needed. */
+    @ConfigProperty(name = "inventory.storage.expected-products", defaultValue = "1024")
+    int expectedProducts;
+
+    /** Flash-sale products whose stock is split over several counters, see {@link HotProductStockStore}. */
+    @ConfigProperty(name = "inventory.hot-products.ids")
+    Optional<Set<Long>> hotProducts = Optional.empty();
+
+    /** Counters per hot product; 0 means one per available processor. */
+    @ConfigProperty(name = "inventory.hot-products.shards", defaultValue = "0")
+    int hotProductShards;
+
+    /** Stock changes kept for the change feed; a power of two. */
+    @ConfigProperty(name = "inventory.changes.capacity", defaultValue = "65536")
+    int changeCapacity = DEFAULT_CHANGE_CAPACITY;
+
+    @ConfigProperty(name = "inventory.holds.tick", defaultValue = "50ms")
+    Duration holdTick = Duration.ofMillis(50);
+
+    @ConfigProperty(name = "inventory.holds.default-ttl", defaultValue = "30s")
+    Duration defaultHoldTtl = Duration.ofSeconds(30);
+
+    @ConfigProperty(name = "inventory.holds.max-ttl", defaultValue = "10m")
+    Duration maxHoldTtl = Duration.ofMinutes(10);
+
+    private ReservationHolds holds;
+
+    /** Outcome of {@link #hold}: the hold, or null with a {@link StockStore} code in {@code remaining}. */
+    public record HoldResult(ReservationHolds.Hold hold, int remaining) {
+    }
+
+    /**
+     * Creates a service outside the container, seeded with the sample
+     * products and journaling every change to {@code journal}.
+     */
+    public static InventoryService standalone(StockJournal journal) {
+        InventoryService service = new InventoryService();
+        service.journal = journal;
+        service.startHolds();
+        service.seedSampleProducts();
+        return service;
+    }
+
+    @PostConstruct
+    void init() {
+        LOG.infof("🏗️ Initializing InventoryService with %s storage", storageEngine);
+        ledger = storageEngine.create(expectedProducts);
+        if (hotProducts.isPresent() && !hotProducts.get().isEmpty()) {
+            int shards = hotProductShards > 0 ? hotProductShards : HotProductStockStore.defaultShards();
+            ledger = new HotProductStockStore(ledger, hotProducts.get(), shards);
+            LOG.infof("🔥 Sharding stock of hot products %s over %d counters each",
+                      hotProducts.get(), ((HotProductStockStore) ledger).shards());
+        }
+        changes = new StockChangeFeed(changeCapacity);
+        metrics = new InventoryMetrics(registry, ledger, maxStockGauges);
+        metrics.bindChanges(changes);
+        if (persistence.isEnabled()) {
+            WriteAheadLog log = persistence.open();
+            StockState recovered = log.takeRecoveredState();
+            for (StockState.Entry entry : recovered.entries()) {
+                ledger.register(entry.id(), entry.name(), entry.version(), entry.quantity());
+            }
+            journal = log;
+        }
+        if (ledger.size() == 0) {
+            seedSampleProducts();
+        }
+        ledger.iterate(null).forEachRemaining(product -> metrics.productRegistered(product.getId()));
+        startHolds();
+        metrics.bindHolds(holds);
+        LOG.infof("✅ InventoryService initialized with %d products", ledger.size());
+    }
+
+    private void startHolds() {
+        holds = new ReservationHolds(holdTick, this::holdExpired);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        holds.close();
+        journal.close();
+    }
+
+    private void seedSampleProducts() {
         // Initialize with some sample data
-        inventory.put(1L, new Product(1L, "Laptop", 10));
-        inventory.put(2L, new Product(2L, "Mouse", 50));
-        inventory.put(3L, new Product(3L, "Keyboard", 30));
-        LOG.infof("✅ InventoryService initialized with %d products", inventory.size());
+        register(1L, "Laptop", 10);
+        register(2L, "Mouse", 50);
+        register(3L, "Keyboard", 30);
+    }
+
+    private void register(Long productId, String name, int quantity) {
+        ledger.register(productId, name, quantity);
+        journal.register(productId, name, 1, quantity);
+        changes.publish(productId, StockChange.Type.REGISTER, 0, quantity);
+    }
+
+    /** Sequence-numbered feed of every stock change since startup. */
+    public StockChangeFeed changes() {
+        return changes;
     }
 
     public List<Product> getAllProducts() {
         LOG.debug("Fetching all products from inventory");
-        return inventory.values().stream().toList();
+        return ledger.snapshotAll();
+    }
+
+    public List<Product> getProducts(Long after, int limit) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Fetching products page - After: %s, Limit: %d", (Object) after, (Object) limit);
+        }
+        return ledger.page(after, limit);
+    }
+
+    public Iterator<Product> streamProducts(Long after) {
+        LOG.debugf("Streaming products - After: %s", after);
+        return ledger.iterate(after);
     }
 
     public Product getProduct(Long id) {
         LOG.debugf("Looking up product with ID: %d", id);
-        Product product = inventory.get(id);
+        Product product = ledger.snapshot(id);
         if (product == null) {
             LOG.debugf("Product with ID %d not found in inventory", id);
         }
         return product;
     }
 
+    public String getProductName(Long id) {
+        return ledger.name(id);
+    }
+
+    public long getProductVersion(Long id) {
+        return ledger.version(id);
+    }
+
+    public int getAvailable(Long id) {
+        return ledger.available(id);
+    }
+
     public boolean checkAvailability(Long productId, int quantity) {
-        LOG.debugf("Checking availability - Product: %d, Requested: %d", (Object) productId, (Object) quantity);
-        Product product = inventory.get(productId);
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Checking availability - Product: %d, Requested: %d", (Object) productId, (Object) quantity);
+        }
+        int stock = ledger.available(productId);
 
-        if (product == null) {
+        if (stock == StockStore.NOT_FOUND) {
             LOG.debugf("Product %d not found", productId);
             return false;
         }
 
-        boolean available = product.getQuantity() >= quantity;
-        LOG.debugf("Product %d availability: %b (available: %d, requested: %d)",
-                  (Object) productId, (Object) available, (Object) product.getQuantity(), (Object) quantity);
+        boolean available = stock >= quantity;
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Product %d availability: %b (available: %d, requested: %d)",
+                      (Object) productId, (Object) available, (Object) stock, (Object) quantity);
+        }
         return available;
     }
 
     public boolean reserveProduct(Long productId, int quantity) {
-        LOG.debugf("🔄 Attempting to reserve - Product: %d, Quantity: %d", (Object) productId, (Object) quantity);
+        return reserve(productId, quantity) >= 0;
+    }
 
-        Product product = inventory.get(productId);
-        if (product == null) {
+    /**
+     * Reserves stock and returns the remaining quantity, or one of
+     * {@link StockStore#NOT_FOUND} / {@link StockStore#INSUFFICIENT}.
+     */
+    public int reserve(Long productId, int quantity) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("🔄 Attempting to reserve - Product: %d, Quantity: %d", (Object) productId, (Object) quantity);
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+
+        long start = System.nanoTime();
+        int remaining = ledger.reserve(productId, quantity);
+        metrics.recordReservation(remaining, start);
+        if (remaining == StockStore.NOT_FOUND) {
             LOG.warnf("Cannot reserve - Product %d not found", productId);
-            return false;
+        } else if (remaining == StockStore.INSUFFICIENT) {
+            LOG.warnf("⚠️ Insufficient stock for product %d (Available: %d, Requested: %d)",
+                     (Object) productId, (Object) ledger.available(productId), (Object) quantity);
+        } else {
+            journal.reserve(productId, quantity);
+            changes.publish(productId, StockChange.Type.RESERVE, -quantity, remaining);
+            if (requestLog.sampled(LOG)) {
+                LOG.infof("✅ Reserved %d units of product %d (After: %d)",
+                         (Object) quantity, (Object) productId, (Object) remaining);
+            }
         }
+        return remaining;
+    }
 
-        if (product.getQuantity() >= quantity) {
-            int oldQuantity = product.getQuantity();
-            product.setQuantity(oldQuantity - quantity);
-            LOG.infof("✅ Reserved %d units of product %d (Before: %d, After: %d)",
-                     (Object) quantity, (Object) productId, (Object) oldQuantity, (Object) product.getQuantity());
-            return true;
+    /**
+     * Takes {@code quantity} units for at most {@code ttl} (the configured
+     * default when null). The stock is unavailable to others until the hold is
+     * confirmed, released or expires. Holds are not journaled: after a restart
+     * the stock of unconfirmed holds is simply available again.
+     */
+    public HoldResult hold(Long productId, int quantity, Duration ttl) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        Duration holdTtl = ttl == null ? defaultHoldTtl : ttl;
+        if (holdTtl.isNegative() || holdTtl.isZero() || holdTtl.compareTo(maxHoldTtl) > 0) {
+            throw new IllegalArgumentException("Hold TTL must be positive and at most " + maxHoldTtl);
         }
 
-        LOG.warnf("⚠️ Insufficient stock for product %d (Available: %d, Requested: %d)",
-                 (Object) productId, (Object) product.getQuantity(), (Object) quantity);
-        return false;
+        long start = System.nanoTime();
+        int remaining = ledger.reserve(productId, quantity);
+        metrics.recordReservation(remaining, start);
+        if (remaining < 0) {
+            LOG.warnf("⚠️ Cannot hold %d units of product %d - %s", (Object) quantity, (Object) productId,
+                remaining == StockStore.NOT_FOUND ? "not found" : "insufficient stock");
+            return new HoldResult(null, remaining);
+        }
+        changes.publish(productId, StockChange.Type.RESERVE, -quantity, remaining);
+        ReservationHolds.Hold hold = holds.create(productId, quantity, holdTtl);
+        metrics.recordHold(ReservationHolds.HELD);
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Held %d units of product %d as hold %d for %s",
+                (Object) quantity, (Object) productId, (Object) hold.id(), holdTtl);
+        }
+        return new HoldResult(hold, remaining);
+    }
+
+    /**
+     * Makes a hold permanent. Returns the hold, also when it was already
+     * confirmed, or null if it is unknown, released or expired.
+     */
+    public ReservationHolds.Hold confirmHold(long holdId) {
+        ReservationHolds.Hold hold = holds.get(holdId);
+        if (hold == null) {
+            return null;
+        }
+        if (hold.settle(ReservationHolds.CONFIRMED)) {
+            journal.reserve(hold.productId(), hold.quantity());
+            metrics.recordHold(ReservationHolds.CONFIRMED);
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf("Confirmed hold %d on product %d", (Object) holdId, (Object) hold.productId());
+            }
+        }
+        return hold.isConfirmed() ? hold : null;
+    }
+
+    /**
+     * Returns a hold's stock. Returns the hold, or null if it is unknown or
+     * already settled; throws {@link IllegalStateException} if it was confirmed.
+     */
+    public ReservationHolds.Hold releaseHold(long holdId) {
+        ReservationHolds.Hold hold = holds.get(holdId);
+        if (hold == null) {
+            return null;
+        }
+        if (hold.settle(ReservationHolds.RELEASED)) {
+            holds.remove(hold);
+            int stock = ledger.release(hold.productId(), hold.quantity());
+            changes.publish(hold.productId(), StockChange.Type.RELEASE, hold.quantity(), stock);
+            metrics.recordHold(ReservationHolds.RELEASED);
+            return hold;
+        }
+        if (hold.isConfirmed()) {
+            throw new IllegalStateException("Hold " + holdId + " is already confirmed");
+        }
+        return null;
+    }
+
+    private void holdExpired(ReservationHolds.Hold hold) {
+        int stock = ledger.release(hold.productId(), hold.quantity());
+        changes.publish(hold.productId(), StockChange.Type.RELEASE, hold.quantity(), stock);
+        metrics.recordHold(ReservationHolds.EXPIRED);
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Hold %d on product %d expired, returned %d units",
+                (Object) hold.id(), (Object) hold.productId(), (Object) hold.quantity());
+        }
     }
-}
 
+    public int release(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        int stock = ledger.release(productId, quantity);
+        if (stock >= 0) {
+            journal.release(productId, quantity);
+            changes.publish(productId, StockChange.Type.RELEASE, quantity, stock);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Released %d units of product %d (After: %d)", (Object) quantity, (Object) productId, (Object) stock);
+        }
+        return stock;
+    }
+
+    /**
+     * Adds newly received stock. Returns the new stock level or {@link StockStore#NOT_FOUND}.
+     */
+    public int restock(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        int stock = ledger.release(productId, quantity);
+        if (stock >= 0) {
+            journal.restock(productId, quantity);
+            changes.publish(productId, StockChange.Type.RESTOCK, quantity, stock);
+            LOG.infof("📥 Restocked %d units of product %d (After: %d)", (Object) quantity, (Object) productId, (Object) stock);
+        }
+        return stock;
+    }
+
+    /**
+     * Reserves every line of a batch and returns one result per line, using the
+     * same codes as {@link #reserve}. Lines are applied in product ID order so
+     * overlapping batches always contend on products in the same sequence.
+     * When {@code atomic} is set and any line fails, the lines already taken
+     * are released again and marked {@link #ABORTED}.
+     */
+    public int[] reserveBatch(List<ReservationLine> lines, boolean atomic) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("🔄 Attempting batch reservation - Lines: %d, Atomic: %b", (Object) lines.size(), (Object) atomic);
+        }
+        for (ReservationLine line : lines) {
+            if (line.getProductId() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each line needs a product ID and a positive quantity");
+            }
+        }
+
+        Integer[] order = new Integer[lines.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> lines.get(i).getProductId()));
+
+        long start = System.nanoTime();
+        int[] results = new int[lines.size()];
+        for (int taken = 0; taken < order.length; taken++) {
+            ReservationLine line = lines.get(order[taken]);
+            int remaining = ledger.reserve(line.getProductId(), line.getQuantity());
+            results[order[taken]] = remaining;
+            if (remaining < 0 && atomic) {
+                for (int i = taken - 1; i >= 0; i--) {
+                    ReservationLine reserved = lines.get(order[i]);
+                    ledger.release(reserved.getProductId(), reserved.getQuantity());
+                    results[order[i]] = ABORTED;
+                }
+                for (int i = taken + 1; i < order.length; i++) {
+                    results[order[i]] = ABORTED;
+                }
+                metrics.recordBatch(true, start);
+                LOG.warnf("⚠️ Batch reservation rolled back - Product %d could not be reserved", line.getProductId());
+                return results;
+            }
+        }
+        journal.reserveAll(lines, results);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] >= 0) {
+                ReservationLine line = lines.get(i);
+                changes.publish(line.getProductId(), StockChange.Type.RESERVE, -line.getQuantity(), results[i]);
+            }
+        }
+        metrics.recordBatch(false, start);
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("✅ Batch reservation applied - Lines: %d", lines.size());
+        }
+        return results;
+    }
+
+    /**
+     * Applies one batch of an import and journals it with a single wait for
+     * durability. A named row sets the product's absolute stock, adding the
+     * product if needed and bumping its version when the name changes; a row
+     * without a name restocks an existing product. Returns one of the
+     * {@code IMPORT_*} codes per row, or {@link StockStore#NOT_FOUND} for a
+     * restock of an unknown product. Rows must already be validated. Imports
+     * are serialized so a rename's read-modify-write of the version is safe.
+     * Reservations are not: an existing product's stock is swapped in place
+     * and journaled as the difference to what it replaced, which commutes
+     * with the reservations journaled around it.
+     */
+    public int[] importBatch(List<ImportRecord> records) {
+        int[] results = new int[records.size()];
+        long[] versions = new long[records.size()];
+        int[] replaced = new int[records.size()];
+        synchronized (importLock) {
+            for (int i = 0; i < results.length; i++) {
+                ImportRecord record = records.get(i);
+                Long productId = record.getId();
+                if (record.restock()) {
+                    int stock = ledger.release(productId, record.getQuantity());
+                    results[i] = stock == StockStore.NOT_FOUND ? StockStore.NOT_FOUND : IMPORT_RESTOCKED;
+                    versions[i] = stock == StockStore.NOT_FOUND ? StockStore.NOT_FOUND : 0;
+                    if (stock >= 0) {
+                        changes.publish(productId, StockChange.Type.RESTOCK, record.getQuantity(), stock);
+                    }
+                    continue;
+                }
+                long version = ledger.version(productId);
+                if (version == StockStore.NOT_FOUND) {
+                    version = 1;
+                    results[i] = IMPORT_ADDED;
+                } else if (record.getName().equals(ledger.name(productId))) {
+                    results[i] = IMPORT_UPDATED;
+                } else {
+                    version++;
+                    results[i] = IMPORT_RENAMED;
+                }
+                replaced[i] = ledger.register(productId, record.getName(), version, record.getQuantity());
+                changes.publish(productId, StockChange.Type.REGISTER, 0, record.getQuantity());
+                versions[i] = version;
+                if (results[i] == IMPORT_ADDED) {
+                    metrics.productRegistered(productId);
+                }
+            }
+            journal.importAll(records, versions, replaced);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Imported batch of %d rows", (Object) records.size());
+        }
+        return results;
+    }
+}
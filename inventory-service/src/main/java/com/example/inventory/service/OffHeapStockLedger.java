@@ -0,0 +1,347 @@
+package com.example.inventory.service;
+
+import com.example.inventory.model.Product;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Stock ledger for large catalogs that keeps almost nothing on the Java heap
+ * for the collector to trace. Products are found through an open-addressing
+ * table of primitive {@code long} keys and {@code int} slots (linear probing,
+ * at most 3/4 full). A slot addresses a fixed 24-byte record in chunks of
+ * direct memory holding the stock count, the version and where the name is
+ * in a separate pool of length-prefixed UTF-8 bytes, also in direct memory.
+ *
+ * Reservations are CAS loops on the record's stock field, so like
+ * {@link StockLedger} they never lock and only contend on the same product.
+ * Lookups are lock-free: a record is fully written before its slot is
+ * published with release semantics, and a grown table is only published
+ * once complete. Registering is serialized on the ledger. Re-registering a
+ * product overwrites its record in place, as {@link StockLedger} does, so
+ * reservations racing with it keep hitting the live stock field; a new name
+ * is appended to the pool and swapped in with a single reference write. The
+ * old name bytes are not reclaimed, which is fine for recovery and the odd
+ * rename but means a catalog renamed many times over should be reloaded.
+ *
+ * ID order for paging comes from a separate array of IDs that is sorted on
+ * the first walk after IDs were registered out of order.
+ */
+public final class OffHeapStockLedger implements StockStore {
+
+    /** Bytes 4 to 7 are padding so the name reference and version are 8-byte aligned. */
+    private static final int RECORD_BYTES = 24;
+    private static final int STOCK = 0;
+    private static final int NAME_REF = 8;
+    private static final int VERSION = 16;
+
+    private static final int RECORD_CHUNK_SHIFT = 16;
+    private static final int RECORD_CHUNK_MASK = (1 << RECORD_CHUNK_SHIFT) - 1;
+    private static final int NAME_CHUNK_BYTES = 1 << 20;
+    private static final long NULL_NAME = -1;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /** Keys and 1-based slots; a slot of 0 marks an empty bucket. */
+    private static final class Index {
+        final long[] keys;
+        final int[] slots;
+        final int mask;
+        final int threshold;
+
+        Index(int capacity) {
+            keys = new long[capacity];
+            slots = new int[capacity];
+            mask = capacity - 1;
+            threshold = capacity / 4 * 3;
+        }
+    }
+
+    private volatile Index index;
+    private volatile ByteBuffer[] records = new ByteBuffer[0];
+    private volatile ByteBuffer[] names = new ByteBuffer[0];
+    private volatile int size;
+
+    // Guarded by this
+    private int nextSlot;
+    private int nameChunk = -1;
+    private long[] order;
+    private int ordered;
+    private boolean sorted = true;
+
+    public OffHeapStockLedger(int expectedProducts) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedProducts / 3 * 4 + 1) - 1) << 1;
+        this.index = new Index(capacity);
+        this.order = new long[Math.max(16, expectedProducts)];
+    }
+
+    @Override
+    public synchronized int register(Long productId, String name, long version, int quantity) {
+        long id = productId;
+        Index current = index;
+        int bucket = mix(id) & current.mask;
+        for (;;) {
+            int existing = current.slots[bucket];
+            if (existing == 0) {
+                break;
+            }
+            if (current.keys[bucket] == id) {
+                return update(existing - 1, name, version, quantity);
+            }
+            bucket = (bucket + 1) & current.mask;
+        }
+
+        int slot = nextSlot++;
+        ByteBuffer chunk = recordChunk(slot);
+        int base = stockOffset(slot);
+        chunk.putLong(base + NAME_REF, name == null ? NULL_NAME : appendName(name));
+        chunk.putLong(base + VERSION, version);
+        chunk.putInt(base + STOCK, quantity);
+        if (size >= current.threshold) {
+            current = grow(current);
+            bucket = mix(id) & current.mask;
+            while (current.slots[bucket] != 0) {
+                bucket = (bucket + 1) & current.mask;
+            }
+        }
+        current.keys[bucket] = id;
+        SLOT.setRelease(current.slots, bucket, slot + 1);
+        size++;
+        addToOrder(id);
+        return NOT_FOUND;
+    }
+
+    /** Overwrites a live record; caller holds the lock. */
+    private int update(int slot, String name, long version, int quantity) {
+        ByteBuffer chunk = records[slot >>> RECORD_CHUNK_SHIFT];
+        int base = stockOffset(slot);
+        if (!Objects.equals(name, readName(slot))) {
+            LONG.setRelease(chunk, base + NAME_REF, name == null ? NULL_NAME : appendName(name));
+        }
+        LONG.setRelease(chunk, base + VERSION, version);
+        return (int) INT.getAndSet(chunk, base + STOCK, quantity);
+    }
+
+    @Override
+    public boolean contains(Long productId) {
+        return slotOf(productId) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int available(Long productId) {
+        int slot = slotOf(productId);
+        return slot < 0 ? NOT_FOUND : (int) INT.getVolatile(records[slot >>> RECORD_CHUNK_SHIFT], stockOffset(slot));
+    }
+
+    @Override
+    public String name(Long productId) {
+        int slot = slotOf(productId);
+        return slot < 0 ? null : readName(slot);
+    }
+
+    @Override
+    public long version(Long productId) {
+        int slot = slotOf(productId);
+        return slot < 0 ? NOT_FOUND : (long) LONG.getAcquire(records[slot >>> RECORD_CHUNK_SHIFT], stockOffset(slot) + VERSION);
+    }
+
+    @Override
+    public int reserve(Long productId, int quantity) {
+        int slot = slotOf(productId);
+        if (slot < 0) {
+            return NOT_FOUND;
+        }
+        ByteBuffer chunk = records[slot >>> RECORD_CHUNK_SHIFT];
+        int offset = stockOffset(slot);
+        for (;;) {
+            int current = (int) INT.getVolatile(chunk, offset);
+            if (current < quantity) {
+                return INSUFFICIENT;
+            }
+            int remaining = current - quantity;
+            if (INT.compareAndSet(chunk, offset, current, remaining)) {
+                return remaining;
+            }
+        }
+    }
+
+    @Override
+    public int release(Long productId, int quantity) {
+        int slot = slotOf(productId);
+        if (slot < 0) {
+            return NOT_FOUND;
+        }
+        return (int) INT.getAndAdd(records[slot >>> RECORD_CHUNK_SHIFT], stockOffset(slot), quantity) + quantity;
+    }
+
+    @Override
+    public Product snapshot(Long productId) {
+        int slot = slotOf(productId);
+        if (slot < 0) {
+            return null;
+        }
+        ByteBuffer chunk = records[slot >>> RECORD_CHUNK_SHIFT];
+        int offset = stockOffset(slot);
+        return new Product(productId, readName(slot), (int) INT.getVolatile(chunk, offset),
+            (long) LONG.getAcquire(chunk, offset + VERSION));
+    }
+
+    @Override
+    public Iterator<Product> iterate(Long after) {
+        long[] ids;
+        int count;
+        synchronized (this) {
+            if (!sorted) {
+                // Sort a copy: iterators handed out earlier still walk the old array
+                order = Arrays.copyOf(order, order.length);
+                Arrays.sort(order, 0, ordered);
+                sorted = true;
+            }
+            ids = order;
+            count = ordered;
+        }
+        int start = 0;
+        if (after != null) {
+            int found = Arrays.binarySearch(ids, 0, count, after);
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+        int first = start;
+        return new Iterator<>() {
+            private int position = first;
+
+            @Override
+            public boolean hasNext() {
+                return position < count;
+            }
+
+            @Override
+            public Product next() {
+                if (position >= count) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot(ids[position++]);
+            }
+        };
+    }
+
+    /** Direct memory reserved for records and names. */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : records) {
+            bytes += chunk.capacity();
+        }
+        for (ByteBuffer chunk : names) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    private int slotOf(long id) {
+        Index current = index;
+        int bucket = mix(id) & current.mask;
+        for (;;) {
+            int slot = (int) SLOT.getAcquire(current.slots, bucket);
+            if (slot == 0) {
+                return -1;
+            }
+            if (current.keys[bucket] == id) {
+                return slot - 1;
+            }
+            bucket = (bucket + 1) & current.mask;
+        }
+    }
+
+    private static int stockOffset(int slot) {
+        return (slot & RECORD_CHUNK_MASK) * RECORD_BYTES;
+    }
+
+    private String readName(int slot) {
+        long ref = (long) LONG.getAcquire(records[slot >>> RECORD_CHUNK_SHIFT], stockOffset(slot) + NAME_REF);
+        if (ref == NULL_NAME) {
+            return null;
+        }
+        ByteBuffer chunk = names[(int) (ref >>> 32)];
+        int position = (int) ref;
+        byte[] bytes = new byte[chunk.getInt(position)];
+        chunk.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer recordChunk(int slot) {
+        int chunk = slot >>> RECORD_CHUNK_SHIFT;
+        ByteBuffer[] current = records;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, chunk + 1);
+            current[chunk] = ByteBuffer.allocateDirect(RECORD_BYTES << RECORD_CHUNK_SHIFT).order(ByteOrder.nativeOrder());
+            records = current;
+        }
+        return current[chunk];
+    }
+
+    /**
+     * Copies the name into the pool behind its length and returns its chunk
+     * number and position packed in a long.
+     */
+    private long appendName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+        ByteBuffer[] current = names;
+        if (nameChunk < 0 || current[nameChunk].remaining() < length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = ByteBuffer.allocateDirect(Math.max(NAME_CHUNK_BYTES, length));
+            nameChunk = current.length - 1;
+            names = current;
+        }
+        ByteBuffer chunk = current[nameChunk];
+        int position = chunk.position();
+        chunk.putInt(bytes.length).put(bytes);
+        return (long) nameChunk << 32 | position;
+    }
+
+    private Index grow(Index current) {
+        Index grown = new Index(current.keys.length << 1);
+        for (int bucket = 0; bucket < current.slots.length; bucket++) {
+            int slot = current.slots[bucket];
+            if (slot != 0) {
+                long id = current.keys[bucket];
+                int target = mix(id) & grown.mask;
+                while (grown.slots[target] != 0) {
+                    target = (target + 1) & grown.mask;
+                }
+                grown.keys[target] = id;
+                grown.slots[target] = slot;
+            }
+        }
+        index = grown;
+        return grown;
+    }
+
+    private void addToOrder(long id) {
+        if (ordered == order.length) {
+            order = Arrays.copyOf(order, order.length + (order.length >> 1));
+        }
+        if (ordered > 0 && order[ordered - 1] > id) {
+            sorted = false;
+        }
+        order[ordered++] = id;
+    }
+
+    private static int mix(long id) {
+        // Product IDs are mostly sequential; spread them before masking
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.inventory.service;
+
+import org.jboss.logging.Logger;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Outstanding reservation holds, indexed by hold ID, with a
+ * {@link TimingWheel} that hands each hold to {@code onExpiry} once its TTL
+ * has passed. Confirmed holds stay visible until their TTL runs out so a
+ * repeated confirm still succeeds; released and expired holds are dropped.
+ */
+public final class ReservationHolds implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ReservationHolds.class);
+
+    static final int HELD = 0;
+    static final int CONFIRMED = 1;
+    static final int RELEASED = 2;
+    static final int EXPIRED = 3;
+
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong active = new AtomicLong();
+    private final TimingWheel<Hold> wheel;
+    private final ScheduledExecutorService ticker;
+
+    ReservationHolds(Duration tick, Consumer<Hold> onExpiry) {
+        this.wheel = new TimingWheel<>(tick.toNanos(), System.nanoTime(), hold -> {
+            holds.remove(hold.id, hold);
+            if (hold.settle(EXPIRED)) {
+                onExpiry.accept(hold);
+            }
+        });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickNanos = tick.toNanos();
+        ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void advance() {
+        try {
+            wheel.advanceTo(System.nanoTime());
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; a failed expiry callback must not stop all later expiries
+            LOG.errorf(e, "❌ Failed to expire reservation holds");
+        }
+    }
+
+    Hold create(Long productId, int quantity, Duration ttl) {
+        long deadline = System.nanoTime() + ttl.toNanos();
+        Hold hold;
+        do {
+            hold = new Hold(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE), productId, quantity,
+                System.currentTimeMillis() + ttl.toMillis());
+        } while (holds.putIfAbsent(hold.id, hold) != null);
+        active.incrementAndGet();
+        wheel.schedule(hold, deadline);
+        return hold;
+    }
+
+    Hold get(long holdId) {
+        return holds.get(holdId);
+    }
+
+    void remove(Hold hold) {
+        holds.remove(hold.id, hold);
+    }
+
+    /** Holds that are neither confirmed, released nor expired. */
+    long active() {
+        return active.get();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Stock taken from one product for a limited time. Its state moves from
+     * HELD to exactly one of CONFIRMED, RELEASED or EXPIRED.
+     */
+    public final class Hold {
+        private final long id;
+        private final Long productId;
+        private final int quantity;
+        private final long expiresAtMillis;
+        private final AtomicInteger state = new AtomicInteger(HELD);
+
+        private Hold(long id, Long productId, int quantity, long expiresAtMillis) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public Long productId() {
+            return productId;
+        }
+
+        public int quantity() {
+            return quantity;
+        }
+
+        public long expiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public boolean isConfirmed() {
+            return state.get() == CONFIRMED;
+        }
+
+        /**
+         * Moves a HELD hold to {@code outcome}; false if it was already settled.
+         */
+        boolean settle(int outcome) {
+            if (state.compareAndSet(HELD, outcome)) {
+                active.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
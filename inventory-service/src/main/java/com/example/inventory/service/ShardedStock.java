@@ -0,0 +1,186 @@
+package com.example.inventory.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Stock of one hot product split over several counters, each on its own
+ * cache line, so reservations from different threads CAS different memory.
+ *
+ * A reservation takes from the calling thread's home shard. If that shard
+ * cannot cover it, it steals from the other shards, moving half of a
+ * victim's stock home so the next reservations hit the home shard again.
+ * Only when no single shard has enough does it take the drain lock, collect
+ * every shard, decide, and spread what is left evenly. Units are only ever
+ * moved between shards with atomic operations that never go below zero, so
+ * the total is exact and stock is never oversold.
+ *
+ * A reservation is only refused under the drain lock, after a recount. A
+ * steal moves its surplus in two steps (off the victim, onto the home shard),
+ * so steals hold the lock shared and a drain holds it exclusively: no units
+ * are between shards while a drain counts. Releases do not lock, so a drain
+ * keeps collecting until a pass finds nothing new. Reservations that miss
+ * while a drain holds units wait for the same lock and see them.
+ *
+ * The remaining quantity a reservation reports is a lower bound (the shard
+ * it was served from); callers that report stock use {@link #sum}, which is
+ * exact when nothing is in flight.
+ */
+final class ShardedStock {
+
+    /** Ints per 64-byte cache line. */
+    private static final int STRIDE = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int shards;
+    private final int mask;
+    private final StampedLock drainLock = new StampedLock();
+
+    ShardedStock(int shards, int quantity) {
+        if (shards < 1 || Integer.bitCount(shards) != 1) {
+            throw new IllegalArgumentException("Shard count must be a power of two: " + shards);
+        }
+        this.shards = shards;
+        this.mask = shards - 1;
+        // One spare line in front so shard 0 does not share a line with the array header
+        this.cells = new AtomicIntegerArray((shards + 1) * STRIDE);
+        spread(quantity);
+    }
+
+    /**
+     * Takes {@code quantity} units. Returns a lower bound of the remaining
+     * stock, or {@link StockStore#INSUFFICIENT}.
+     */
+    int reserve(int quantity) {
+        int home = home();
+        int remaining = take(home, quantity);
+        if (remaining >= 0) {
+            return remaining;
+        }
+        long stamp = drainLock.readLock();
+        try {
+            for (int i = 1; i < shards; i++) {
+                remaining = steal((home + i) & mask, home, quantity);
+                if (remaining >= 0) {
+                    return remaining;
+                }
+            }
+        } finally {
+            drainLock.unlockRead(stamp);
+        }
+        return drainAndReserve(quantity);
+    }
+
+    /** Returns units to the calling thread's shard and returns the new total. */
+    int release(int quantity) {
+        cells.addAndGet(cell(home()), quantity);
+        return sum();
+    }
+
+    int sum() {
+        int total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            total += cells.get(cell(shard));
+        }
+        return total;
+    }
+
+    /** Replaces the stock, for re-registration, and returns the stock it replaced. */
+    int set(int quantity) {
+        long stamp = drainLock.writeLock();
+        try {
+            int replaced = drain();
+            spread(quantity);
+            return replaced;
+        } finally {
+            drainLock.unlockWrite(stamp);
+        }
+    }
+
+    private int take(int shard, int quantity) {
+        int index = cell(shard);
+        for (;;) {
+            int current = cells.get(index);
+            if (current < quantity) {
+                return StockStore.INSUFFICIENT;
+            }
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return current - quantity;
+            }
+        }
+    }
+
+    /**
+     * Takes {@code quantity} plus half of what the victim has left over, and
+     * keeps the surplus at home. Called with the drain lock held shared.
+     */
+    private int steal(int victim, int home, int quantity) {
+        int index = cell(victim);
+        for (;;) {
+            int current = cells.get(index);
+            if (current < quantity) {
+                return StockStore.INSUFFICIENT;
+            }
+            int surplus = (current - quantity) / 2;
+            if (cells.compareAndSet(index, current, current - quantity - surplus)) {
+                return surplus == 0 ? current - quantity : cells.addAndGet(cell(home), surplus);
+            }
+        }
+    }
+
+    private int drainAndReserve(int quantity) {
+        long stamp = drainLock.writeLock();
+        try {
+            int total = drain();
+            int collected = total;
+            // Units released into shards already drained are picked up by the next pass
+            while (total < quantity && collected > 0) {
+                collected = drain();
+                total += collected;
+            }
+            if (total < quantity) {
+                spread(total);
+                return StockStore.INSUFFICIENT;
+            }
+            spread(total - quantity);
+            return total - quantity;
+        } finally {
+            drainLock.unlockWrite(stamp);
+        }
+    }
+
+    private int drain() {
+        int total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            int index = cell(shard);
+            // Skip empty shards so a sold-out product is drained by reads alone
+            if (cells.get(index) != 0) {
+                total += cells.getAndSet(index, 0);
+            }
+        }
+        return total;
+    }
+
+    private void spread(int quantity) {
+        if (quantity == 0) {
+            return;
+        }
+        int share = quantity / shards;
+        int extra = quantity % shards;
+        for (int shard = 0; shard < shards; shard++) {
+            int units = share + (shard < extra ? 1 : 0);
+            if (units > 0) {
+                cells.addAndGet(cell(shard), units);
+            }
+        }
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & mask;
+    }
+
+    private static int cell(int shard) {
+        return (shard + 1) * STRIDE;
+    }
+}
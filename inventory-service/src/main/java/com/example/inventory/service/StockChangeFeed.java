@@ -0,0 +1,192 @@
+package com.example.inventory.service;
+
+import com.example.inventory.model.StockChange;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sequence-numbered feed of stock changes held in a bounded ring of the last
+ * {@code capacity} changes. Publishing takes the next sequence number and
+ * writes the change into its preallocated slot without locking, so the
+ * reservation path pays two atomic updates and allocates nothing.
+ *
+ * Each slot works like a seqlock: a writer marks it with the negated sequence
+ * number while it fills the fields and stores the sequence number when done;
+ * a reader copies the fields and keeps the copy only if the slot still holds
+ * the sequence number it expected afterwards.
+ *
+ * Readers keep their own cursor and only ever copy out of the ring, so there
+ * is no per-subscriber buffer: a subscriber that reads slowly simply asks for
+ * less, and one that falls more than {@code capacity} changes behind is told
+ * its cursor was truncated and continues from the oldest change still held.
+ * Readers that are caught up can wait for the next publish; they are woken on
+ * the default worker pool, never on the publishing thread.
+ */
+public final class StockChangeFeed {
+
+    /** A read from the feed: the changes after the cursor and the cursor to continue from. */
+    public record Batch(List<StockChange> changes, long nextSeq, boolean truncated) {
+    }
+
+    private static final VarHandle SEQ;
+
+    static {
+        try {
+            SEQ = MethodHandles.lookup().findVarHandle(Slot.class, "seq", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** A ring entry; {@code seq} is negative while a writer is filling the other fields. */
+    private static final class Slot {
+        volatile long seq;
+        long productId;
+        StockChange.Type type;
+        int delta;
+        int quantity;
+        long timestamp;
+    }
+
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong lastSeq = new AtomicLong();
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+    private final LongAdder truncations = new LongAdder();
+
+    StockChangeFeed(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Change feed capacity must be a power of two: " + capacity);
+        }
+        this.ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    void publish(long productId, StockChange.Type type, int delta, int quantity) {
+        long seq = lastSeq.incrementAndGet();
+        Slot slot = ring[(int) (seq & mask)];
+        long current;
+        do {
+            current = slot.seq;
+            if (current < 0) {
+                // A writer a whole ring earlier is still filling this slot
+                Thread.onSpinWait();
+                continue;
+            }
+            if (current > seq) {
+                // Lapped by a writer a whole ring later; this change was overwritten before it was stored
+                return;
+            }
+        } while (current < 0 || !SEQ.compareAndSet(slot, current, -seq));
+        slot.productId = productId;
+        slot.type = type;
+        slot.delta = delta;
+        slot.quantity = quantity;
+        slot.timestamp = System.currentTimeMillis();
+        slot.seq = seq;
+        if (!waiters.isEmpty()) {
+            wakeWaiters();
+        }
+    }
+
+    /** Sequence number of the latest change, 0 before the first one. */
+    public long lastSeq() {
+        return lastSeq.get();
+    }
+
+    /**
+     * Returns up to {@code limit} changes with a sequence number above
+     * {@code after}. If the oldest of those has already been overwritten the
+     * batch is marked truncated and starts at the oldest change still held.
+     * The feed is not persisted, so after a restart sequence numbers start
+     * over and a cursor from before it is reported as truncated too.
+     */
+    public Batch read(long after, int limit) {
+        long last = lastSeq.get();
+        long from = Math.max(after, 0) + 1;
+        boolean truncated = false;
+        if (last - from >= ring.length || from > last + 1) {
+            // Behind the ring, or ahead of it because the feed restarted with the service
+            from = Math.max(1, last - ring.length + 1);
+            truncated = true;
+            truncations.increment();
+        }
+        List<StockChange> changes = new ArrayList<>((int) Math.min(limit, Math.max(0, last - from + 1)));
+        for (long seq = from; seq <= last && changes.size() < limit; seq++) {
+            Slot slot = ring[(int) (seq & mask)];
+            long stored = slot.seq;
+            if (Math.abs(stored) > seq) {
+                // Overwritten while we were reading: the reader is now behind the ring
+                return read(after, limit);
+            }
+            if (stored != seq) {
+                // Numbered but not stored yet; stop so changes are always handed out in order
+                break;
+            }
+            StockChange change = new StockChange(seq, slot.productId, slot.type, slot.delta, slot.quantity, slot.timestamp);
+            VarHandle.acquireFence();
+            if (slot.seq != seq) {
+                return read(after, limit);
+            }
+            changes.add(change);
+        }
+        long next = changes.isEmpty() ? from - 1 : changes.get(changes.size() - 1).seq();
+        return new Batch(changes, next, truncated);
+    }
+
+    /**
+     * Like {@link #read}, but when there is nothing after {@code after} yet,
+     * waits up to {@code maxWait} for the next change and then reads again.
+     * The batch is empty if nothing was published in time.
+     */
+    public Uni<Batch> await(long after, int limit, Duration maxWait) {
+        Batch batch = read(after, limit);
+        if (!batch.changes().isEmpty() || batch.truncated() || maxWait.isZero() || maxWait.isNegative()) {
+            return Uni.createFrom().item(batch);
+        }
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        waiters.add(published);
+        if (lastSeq.get() > after) {
+            // Published between the read and registering the waiter
+            published.complete(null);
+        }
+        return Uni.createFrom().completionStage(published)
+            .emitOn(Infrastructure.getDefaultWorkerPool())
+            .ifNoItem().after(maxWait).recoverWithItem((Void) null)
+            .onTermination().invoke(() -> waiters.remove(published))
+            .map(ignored -> read(after, limit));
+    }
+
+    /** Readers currently waiting for the next change. */
+    public int waiting() {
+        return waiters.size();
+    }
+
+    /** Reads that found their cursor already overwritten. */
+    public long truncations() {
+        return truncations.sum();
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    private void wakeWaiters() {
+        CompletableFuture<Void> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.complete(null);
+        }
+    }
+}
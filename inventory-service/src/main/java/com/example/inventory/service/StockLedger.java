@@ -0,0 +1,138 @@
+package com.example.inventory.service;
+
+import com.example.inventory.model.Product;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent stock ledger. Every product owns its own atomic counter, so
+ * reservations on different products never touch the same memory and
+ * reservations on one product are serialized by a CAS loop on its counter.
+ * The product index is a {@link ConcurrentHashMap}, which already stripes
+ * its locking per bin, so lookups are lock-free and inserts only contend
+ * with inserts that hash to the same bin.
+ */
+public class StockLedger implements StockStore {
+
+    private final ConcurrentHashMap<Long, StockEntry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+
+    @Override
+    public int register(Long productId, String name, long version, int quantity) {
+        StockEntry entry = entries.get(productId);
+        if (entry == null) {
+            entry = entries.putIfAbsent(productId, new StockEntry(productId, name, version, quantity));
+            if (entry == null) {
+                ids.add(productId);
+                return NOT_FOUND;
+            }
+        }
+        return entry.update(name, version, quantity);
+    }
+
+    @Override
+    public boolean contains(Long productId) {
+        return entries.containsKey(productId);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public int available(Long productId) {
+        StockEntry entry = entries.get(productId);
+        return entry == null ? NOT_FOUND : entry.available.get();
+    }
+
+    @Override
+    public String name(Long productId) {
+        StockEntry entry = entries.get(productId);
+        return entry == null ? null : entry.name;
+    }
+
+    @Override
+    public long version(Long productId) {
+        StockEntry entry = entries.get(productId);
+        return entry == null ? NOT_FOUND : entry.version;
+    }
+
+    @Override
+    public int reserve(Long productId, int quantity) {
+        StockEntry entry = entries.get(productId);
+        if (entry == null) {
+            return NOT_FOUND;
+        }
+        AtomicInteger stock = entry.available;
+        for (;;) {
+            int current = stock.get();
+            if (current < quantity) {
+                return INSUFFICIENT;
+            }
+            int remaining = current - quantity;
+            if (stock.compareAndSet(current, remaining)) {
+                return remaining;
+            }
+        }
+    }
+
+    @Override
+    public int release(Long productId, int quantity) {
+        StockEntry entry = entries.get(productId);
+        if (entry == null) {
+            return NOT_FOUND;
+        }
+        return entry.available.addAndGet(quantity);
+    }
+
+    @Override
+    public Product snapshot(Long productId) {
+        StockEntry entry = entries.get(productId);
+        return entry == null ? null : entry.toProduct();
+    }
+
+    @Override
+    public Iterator<Product> iterate(Long after) {
+        Iterator<Long> productIds = (after == null ? ids : ids.tailSet(after, false)).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return productIds.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                return entries.get(productIds.next()).toProduct();
+            }
+        };
+    }
+
+    private static final class StockEntry {
+        final Long id;
+        volatile String name;
+        volatile long version;
+        final AtomicInteger available;
+
+        StockEntry(Long id, String name, long version, int quantity) {
+            this.id = id;
+            this.name = name;
+            this.version = version;
+            this.available = new AtomicInteger(quantity);
+        }
+
+        /** Re-registration: the counter stays the one reservations already hold. */
+        int update(String name, long version, int quantity) {
+            this.name = name;
+            this.version = version;
+            return available.getAndSet(quantity);
+        }
+
+        Product toProduct() {
+            return new Product(id, name, available.get(), version);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.inventory.service;
+
+import com.example.inventory.model.Product;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Stock levels and product metadata behind {@link InventoryService}. Reserve
+ * and release must be atomic per product; registering may be serialized.
+ * See {@link StockLedger} (object per product) and {@link OffHeapStockLedger}
+ * (primitive index, stock and names outside the Java heap).
+ */
+public interface StockStore {
+
+    /** Returned by {@link #reserve} and {@link #release} when the product is unknown. */
+    int NOT_FOUND = -1;
+
+    /** Returned by {@link #reserve} when the product does not have enough stock. */
+    int INSUFFICIENT = -2;
+
+    /** Storage engines selectable with {@code inventory.storage.engine}. */
+    enum Engine {
+        HEAP,
+        OFF_HEAP;
+
+        public StockStore create(int expectedProducts) {
+            return this == OFF_HEAP ? new OffHeapStockLedger(expectedProducts) : new StockLedger();
+        }
+    }
+
+    default int register(Long productId, String name, int quantity) {
+        return register(productId, name, 1, quantity);
+    }
+
+    /**
+     * Adds a product, or replaces the name, version and stock of an existing
+     * one in place, so reservations racing with it take from the stock that
+     * replaced it rather than from a discarded counter. Returns the stock it
+     * replaced, or {@link #NOT_FOUND} for a new product.
+     */
+    int register(Long productId, String name, long version, int quantity);
+
+    boolean contains(Long productId);
+
+    int size();
+
+    /**
+     * Returns the available quantity, or {@link #NOT_FOUND}.
+     */
+    int available(Long productId);
+
+    String name(Long productId);
+
+    /**
+     * Returns the product's metadata version, which changes whenever its
+     * descriptive fields do, or {@link #NOT_FOUND}.
+     */
+    long version(Long productId);
+
+    /**
+     * Atomically takes {@code quantity} units. Returns the remaining stock on
+     * success, {@link #INSUFFICIENT} if there is not enough, or {@link #NOT_FOUND}.
+     */
+    int reserve(Long productId, int quantity);
+
+    /**
+     * Returns {@code quantity} units to stock. Returns the new stock level or {@link #NOT_FOUND}.
+     */
+    int release(Long productId, int quantity);
+
+    Product snapshot(Long productId);
+
+    default List<Product> snapshotAll() {
+        return page(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} products with an ID greater than {@code after}, in ID order.
+     */
+    default List<Product> page(Long after, int limit) {
+        List<Product> products = new ArrayList<>(Math.min(limit, size()));
+        Iterator<Product> iterator = iterate(after);
+        while (products.size() < limit && iterator.hasNext()) {
+            products.add(iterator.next());
+        }
+        return products;
+    }
+
+    /**
+     * Lazily walks products in ID order, starting after {@code after}, taking a
+     * snapshot of each one as it is reached.
+     */
+    Iterator<Product> iterate(Long after);
+}
@@ -0,0 +1,141 @@
+package com.example.inventory.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 256 slots, where a slot on level
+ * {@code n} spans 256^n ticks. An item is placed on the lowest level whose
+ * range covers its deadline, and a level's slot is cascaded into the levels
+ * below when the wheel reaches it, so scheduling and expiring an item are both
+ * O(1) however many items are pending. With a 50 ms tick the wheel covers
+ * more than six years before items have to be re-parked on the top level.
+ *
+ * {@link #schedule} may be called from any thread: items are handed over
+ * through a lock-free queue. {@link #advanceTo} must only be called by one
+ * thread at a time; it places the queued items, moves the wheel forward and
+ * runs the expiry callback for everything that is due, on the calling thread.
+ * There is no cancellation; callers mark settled items and ignore them when
+ * they expire.
+ */
+public final class TimingWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickNanos;
+    private final long originNanos;
+    private final Consumer<T> onExpiry;
+    private final Queue<Node<T>> incoming = new ConcurrentLinkedQueue<>();
+
+    @SuppressWarnings("unchecked")
+    private final Node<T>[][] slots = new Node[LEVELS][SLOTS];
+    private long currentTick;
+
+    private static final class Node<T> {
+        final T item;
+        final long deadlineTick;
+        Node<T> next;
+
+        Node(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    public TimingWheel(long tickNanos, long originNanos, Consumer<T> onExpiry) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickNanos);
+        }
+        this.tickNanos = tickNanos;
+        this.originNanos = originNanos;
+        this.onExpiry = onExpiry;
+    }
+
+    /**
+     * Schedules {@code item} to expire at {@code deadlineNanos} (on the
+     * {@link System#nanoTime()} scale), rounded up to the next tick.
+     */
+    public void schedule(T item, long deadlineNanos) {
+        long ticks = Math.max(0, deadlineNanos - originNanos);
+        incoming.add(new Node<>(item, (ticks + tickNanos - 1) / tickNanos));
+    }
+
+    /**
+     * Expires everything due at or before {@code nowNanos} and returns how many items expired.
+     */
+    public int advanceTo(long nowNanos) {
+        int expired = placeIncoming();
+        long targetTick = (nowNanos - originNanos) / tickNanos;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * BITS;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    expired += cascade(level, (int) ((currentTick >>> shift) & MASK));
+                }
+            }
+            int slot = (int) (currentTick & MASK);
+            Node<T> node = slots[0][slot];
+            slots[0][slot] = null;
+            while (node != null) {
+                Node<T> next = node.next;
+                onExpiry.accept(node.item);
+                expired++;
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    private int placeIncoming() {
+        int expired = 0;
+        Node<T> node;
+        while ((node = incoming.poll()) != null) {
+            expired += place(node);
+        }
+        return expired;
+    }
+
+    private int cascade(int level, int slot) {
+        int expired = 0;
+        Node<T> node = slots[level][slot];
+        slots[level][slot] = null;
+        while (node != null) {
+            Node<T> next = node.next;
+            expired += place(node);
+            node = next;
+        }
+        return expired;
+    }
+
+    /**
+     * Puts a node on the lowest level where its deadline is less than a full
+     * revolution ahead, or expires it right away if it is already due.
+     */
+    private int place(Node<T> node) {
+        if (node.deadlineTick <= currentTick) {
+            onExpiry.accept(node.item);
+            return 1;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS;
+            if ((node.deadlineTick >>> shift) - (currentTick >>> shift) < SLOTS) {
+                push(level, (int) ((node.deadlineTick >>> shift) & MASK), node);
+                return 0;
+            }
+        }
+        // Beyond the top level's range: park it in the last top-level slot and re-place it from there
+        int shift = (LEVELS - 1) * BITS;
+        push(LEVELS - 1, (int) (((currentTick >>> shift) + MASK) & MASK), node);
+        return 0;
+    }
+
+    private void push(int level, int slot, Node<T> node) {
+        node.next = slots[level][slot];
+        slots[level][slot] = node;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.inventory;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(InventoryImportTest.ImportProfile.class)
+@DisplayName("Inventory Bulk Import Tests")
+public class InventoryImportTest {
+
+    public static class ImportProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // Tiny batches so every import spans several of them; off-heap to run the REST contract on that engine.
+            // A 1K body limit for everything else shows that imports are only held to their own limit
+            return Map.of(
+                "inventory.import.batch-size", "2",
+                "inventory.storage.engine", "off-heap",
+                "inventory.import.max-body-size", "64K",
+                "quarkus.http.limits.max-body-size", "1K");
+        }
+    }
+
+    @Test
+    @DisplayName("Should add, update, rename and restock products from NDJSON")
+    public void testNdjsonImport() {
+        String body = """
+            {"id":101,"name":"Monitor","quantity":5}
+            {"id":102,"name":"Webcam","quantity":7}
+
+            {"id":101,"name":"Monitor","quantity":8}
+            {"id":102,"name":"HD Webcam","quantity":7}
+            {"id":101,"quantity":2}
+            {"id":999999,"quantity":2}
+            {"id":103,"name":"Headset","quantity":-1}
+            {"name":"No ID","quantity":1}
+            """;
+        given()
+            .contentType("application/x-ndjson")
+            .body(body.getBytes(StandardCharsets.UTF_8))
+            .when()
+                .post("/inventory/import")
+            .then()
+                .statusCode(200)
+                .body("success", is(true))
+                .body("rows", is(8))
+                .body("added", is(2))
+                .body("updated", is(1))
+                .body("renamed", is(1))
+                .body("restocked", is(1))
+                .body("notFound", is(1))
+                .body("rejected", is(2));
+
+        given().when().get("/inventory/101").then()
+            .body("quantity", is(10))
+            .body("version", is(1));
+        given().when().get("/inventory/102").then()
+            .body("name", is("HD Webcam"))
+            .body("version", is(2));
+        given().when().get("/inventory/103").then().statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should import CSV with a header and quoted names")
+    public void testCsvImport() {
+        String body = """
+            id,name,quantity
+            201,"Cable, USB-C",40
+            202,"17"" Sleeve",3
+            201,,10
+            """;
+        given()
+            .contentType("text/csv")
+            .body(body)
+            .when()
+                .post("/inventory/import")
+            .then()
+                .statusCode(200)
+                .body("rows", is(3))
+                .body("added", is(2))
+                .body("restocked", is(1));
+
+        given().when().get("/inventory/201").then()
+            .body("name", is("Cable, USB-C"))
+            .body("quantity", is(50));
+        given().when().get("/inventory/202").then().body("name", is("17\" Sleeve"));
+    }
+
+    @Test
+    @DisplayName("Should stop at a malformed row and keep the rows before it")
+    public void testMalformedRowStopsImport() {
+        given()
+            .contentType("text/csv")
+            .body("301,Tripod,4\n302,Lamp,x\n303,Desk,1\n")
+            .when()
+                .post("/inventory/import")
+            .then()
+                .statusCode(400)
+                .body("success", is(false))
+                .body("added", is(1))
+                .body("message", startsWith("Import stopped after 1 rows: Malformed CSV line 2"));
+        given().when().get("/inventory/301").then().statusCode(200);
+        given().when().get("/inventory/303").then().statusCode(404);
+
+        given()
+            .contentType("application/x-ndjson")
+            .body("{\"id\":401,\"name\":\"Chair\",\"quantity\":1}\n{\"id\":402,\"name\":".getBytes(StandardCharsets.UTF_8))
+            .when()
+                .post("/inventory/import")
+            .then()
+                .statusCode(400)
+                .body("added", is(1));
+    }
+
+    @Test
+    @DisplayName("Should stream imports past the global body limit and stop at the import limit")
+    public void testImportBodyLimit() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int id = 5001; id <= 5400; id++) {
+            csv.append(id).append(",Cable ").append(id).append(",1\n");
+        }
+        assertTrue(csv.length() > 1024 && csv.length() < 64 * 1024);
+        given()
+            .contentType("text/csv")
+            .body(csv.toString())
+            .when()
+                .post("/inventory/import")
+            .then()
+                .statusCode(200)
+                .body("added", is(400));
+
+        byte[] tooLarge = csv.toString().repeat(10).getBytes(StandardCharsets.UTF_8);
+        given()
+            .contentType("text/csv")
+            .body(tooLarge)
+            .when()
+                .post("/inventory/import")
+            .then()
+                .statusCode(413);
+
+        // Chunked, so the limit is only found while reading; the rows before it are kept
+        HttpRequest chunked = HttpRequest.newBuilder(URI.create("http://localhost:8081/inventory/import"))
+            .header("Content-Type", "text/csv")
+            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(tooLarge)))
+            .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(chunked, HttpResponse.BodyHandlers.ofString());
+        assertEquals(413, response.statusCode());
+        assertTrue(response.body().contains("larger than 65536 bytes"), response.body());
+
+        given().contentType("application/xml").body("<catalog/>").when().post("/inventory/import").then().statusCode(415);
+        // Other endpoints keep the small global limit
+        given().contentType("application/json").body(tooLarge).when().post("/inventory/reserve-batch").then().statusCode(413);
+    }
+
+    @Test
+    @DisplayName("Should refuse an import whose Content-Length is not a number")
+    public void testImportMalformedContentLength() throws Exception {
+        try (Socket socket = new Socket("localhost", 8081)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /inventory/import HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Type: text/csv\r\n"
+                + "Content-Length: 99999999999999999999\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String status = new String(in.readNBytes(12), StandardCharsets.US_ASCII);
+            assertEquals("HTTP/1.1 400", status);
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.example.inventory;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @DisplayName("Inventory Resource Integration Tests")
 public class InventoryResourceTest {
 
+    private static final String SMILE = "application/x-jackson-smile";
+
     @Test
     @DisplayName("Should return all products")
     public void testGetAllProducts() {
@@ -139,5 +157,379 @@ public class InventoryResourceTest {
                 .body("name", is("Laptop"))
                 .body("quantity", notNullValue());
     }
-}
 
+    @Test
+    @DisplayName("Should reserve every line of a batch")
+    public void testReserveBatch() {
+        String batchJson = """
+            {
+                "lines": [
+                    { "productId": 3, "quantity": 1 },
+                    { "productId": 2, "quantity": 2 }
+                ]
+            }
+            """;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(batchJson)
+            .when()
+                .post("/inventory/reserve-batch")
+            .then()
+                .statusCode(200)
+                .body("success", is(true))
+                .body("lines.size()", is(2))
+                .body("lines[0].productId", is(3))
+                .body("lines[0].success", is(true))
+                .body("lines[1].success", is(true));
+    }
+
+    @Test
+    @DisplayName("Should reserve nothing when one batch line fails")
+    public void testReserveBatchAllOrNothing() {
+        int before = given().when().get("/inventory/2").then().extract().path("quantity");
+
+        String batchJson = """
+            {
+                "lines": [
+                    { "productId": 2, "quantity": 1 },
+                    { "productId": 3, "quantity": 999999 }
+                ]
+            }
+            """;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(batchJson)
+            .when()
+                .post("/inventory/reserve-batch")
+            .then()
+                .statusCode(409)
+                .body("success", is(false))
+                .body("lines[0].success", is(false))
+                .body("lines[1].success", is(false));
+
+        given()
+            .when()
+                .get("/inventory/2")
+            .then()
+                .statusCode(200)
+                .body("quantity", is(before));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    public void testReserveEmptyBatch() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"lines\": [] }")
+            .when()
+                .post("/inventory/reserve-batch")
+            .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should page through products with a cursor")
+    public void testProductPagination() {
+        given()
+            .queryParam("limit", 2)
+            .when()
+                .get("/inventory")
+            .then()
+                .statusCode(200)
+                .header("X-Next-Cursor", is("2"))
+                .body("size()", is(2))
+                .body("[0].id", is(1))
+                .body("[1].id", is(2));
+
+        given()
+            .queryParam("limit", 2)
+            .queryParam("after", 2)
+            .when()
+                .get("/inventory")
+            .then()
+                .statusCode(200)
+                .header("X-Next-Cursor", nullValue())
+                .body("size()", is(1))
+                .body("[0].id", is(3));
+    }
+
+    @Test
+    @DisplayName("Should stream products as NDJSON")
+    public void testStreamProducts() {
+        String body = given()
+            .accept("application/x-ndjson")
+            .when()
+                .get("/inventory")
+            .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"id\":1"));
+    }
+
+    @Test
+    @DisplayName("Should add restocked units to available stock")
+    public void testRestockProduct() {
+        int before = given().when().get("/inventory/3").then().statusCode(200).extract().path("quantity");
+
+        given()
+            .queryParam("quantity", 5)
+            .when()
+                .post("/inventory/3/restock")
+            .then()
+                .statusCode(200)
+                .body("id", is(3))
+                .body("quantity", is(before + 5));
+    }
+
+    @Test
+    @DisplayName("Should reject restocking unknown products or non-positive quantities")
+    public void testRestockRejected() {
+        given().queryParam("quantity", 5).when().post("/inventory/999/restock").then().statusCode(404);
+        given().queryParam("quantity", 0).when().post("/inventory/3/restock").then().statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should apply a reservation once per idempotency key")
+    public void testIdempotentReserve() {
+        String key = "reserve-retry-" + System.nanoTime();
+        int before = given().when().get("/inventory/2").then().statusCode(200).extract().path("quantity");
+
+        int remaining = given()
+            .header("Idempotency-Key", key)
+            .queryParam("quantity", 2)
+            .when()
+                .post("/inventory/2/reserve")
+            .then()
+                .statusCode(200)
+                .header("Idempotent-Replayed", nullValue())
+                .extract()
+                .path("remainingQuantity");
+        assertEquals(before - 2, remaining);
+
+        given()
+            .header("Idempotency-Key", key)
+            .queryParam("quantity", 2)
+            .when()
+                .post("/inventory/2/reserve")
+            .then()
+                .statusCode(200)
+                .header("Idempotent-Replayed", "true")
+                .body("remainingQuantity", is(remaining));
+        given().when().get("/inventory/2").then().body("quantity", is(before - 2));
+
+        given()
+            .header("Idempotency-Key", key)
+            .queryParam("quantity", 3)
+            .when()
+                .post("/inventory/2/reserve")
+            .then()
+                .statusCode(422);
+    }
+
+    @Test
+    @DisplayName("Should hold stock until the hold is confirmed or released")
+    public void testHoldConfirmAndRelease() {
+        int before = given().when().get("/inventory/2").then().extract().path("quantity");
+
+        String confirmed = given()
+            .queryParam("quantity", 3)
+            .when()
+                .post("/inventory/2/holds")
+            .then()
+                .statusCode(201)
+                .body("success", is(true))
+                .body("quantity", is(3))
+                .body("remainingQuantity", is(before - 3))
+                .extract()
+                .path("holdId");
+        given().when().post("/inventory/holds/" + confirmed + "/confirm").then().statusCode(200);
+        // Confirming again is harmless, releasing a confirmed hold is not allowed
+        given().when().post("/inventory/holds/" + confirmed + "/confirm").then().statusCode(200);
+        given().when().delete("/inventory/holds/" + confirmed).then().statusCode(409);
+
+        String released = given()
+            .queryParam("quantity", 2)
+            .when()
+                .post("/inventory/2/holds")
+            .then()
+                .statusCode(201)
+                .extract()
+                .path("holdId");
+        given().when().get("/inventory/2").then().body("quantity", is(before - 5));
+        given()
+            .when()
+                .delete("/inventory/holds/" + released)
+            .then()
+                .statusCode(200)
+                .body("remainingQuantity", is(before - 3));
+        given().when().post("/inventory/holds/" + released + "/confirm").then().statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should return held stock when the hold expires")
+    public void testHoldExpiry() throws InterruptedException {
+        int before = given().when().get("/inventory/1").then().extract().path("quantity");
+        String holdId = given()
+            .queryParam("quantity", 1)
+            .queryParam("ttlMs", 100)
+            .when()
+                .post("/inventory/1/holds")
+            .then()
+                .statusCode(201)
+                .extract()
+                .path("holdId");
+        given().when().get("/inventory/1").then().body("quantity", is(before - 1));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        int quantity;
+        do {
+            Thread.sleep(50);
+            quantity = given().when().get("/inventory/1").then().extract().path("quantity");
+        } while (quantity != before && System.currentTimeMillis() < deadline);
+        assertEquals(before, quantity);
+        given().when().post("/inventory/holds/" + holdId + "/confirm").then().statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should reject holds on unknown products, without stock or with a bad TTL")
+    public void testHoldRejected() {
+        given().queryParam("quantity", 1).when().post("/inventory/999/holds").then().statusCode(404);
+        given().queryParam("quantity", 1_000_000).when().post("/inventory/3/holds").then().statusCode(400);
+        given().queryParam("quantity", 1).queryParam("ttlMs", 0).when().post("/inventory/3/holds").then().statusCode(400);
+        given().queryParam("quantity", 1).queryParam("ttlMs", 3_600_000).when().post("/inventory/3/holds").then().statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should serve stock changes by long poll and as Server-Sent Events")
+    public void testChangeFeed() throws Exception {
+        int since = 0;
+        int next;
+        while ((next = given().queryParam("since", since).when().get("/inventory/changes").then()
+                .statusCode(200).extract().<Integer>path("nextSeq")) != since) {
+            since = next;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:8081/inventory/changes?since=" + since))
+            .header("Accept", "text/event-stream")
+            .build();
+        HttpResponse<Stream<String>> stream = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, stream.statusCode());
+
+        given().queryParam("quantity", 1).when().post("/inventory/2/reserve").then().statusCode(200);
+
+        given()
+            .queryParam("since", since)
+            .queryParam("waitMs", 1000)
+            .when()
+                .get("/inventory/changes")
+            .then()
+                .statusCode(200)
+                .body("truncated", is(false))
+                .body("nextSeq", is(since + 1))
+                .body("changes[0].seq", is(since + 1))
+                .body("changes[0].productId", is(2))
+                .body("changes[0].type", is("RESERVE"))
+                .body("changes[0].delta", is(-1));
+
+        CompletableFuture<List<String>> event = CompletableFuture.supplyAsync(() -> stream.body()
+            .dropWhile(line -> !line.startsWith("id:"))
+            .limit(3)
+            .toList());
+        List<String> lines = event.get(10, TimeUnit.SECONDS);
+        stream.body().close();
+        assertEquals("id:" + (since + 1), lines.get(0));
+        assertEquals("event:stock", lines.get(1));
+        assertTrue(lines.get(2).contains("\"type\":\"RESERVE\""), lines.get(2));
+
+        given().queryParam("waitMs", 3_600_000).when().get("/inventory/changes").then().statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should publish only the lines of a partial batch that were reserved")
+    public void testChangeFeedAfterPartialBatch() {
+        int since = 0;
+        int next;
+        while ((next = given().queryParam("since", since).when().get("/inventory/changes").then()
+                .statusCode(200).extract().<Integer>path("nextSeq")) != since) {
+            since = next;
+        }
+
+        String batchJson = """
+            {
+                "lines": [
+                    { "productId": 3, "quantity": 1 },
+                    { "productId": 999, "quantity": 1 },
+                    { "productId": 2, "quantity": 999999 }
+                ]
+            }
+            """;
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("atomic", false)
+            .body(batchJson)
+            .when()
+                .post("/inventory/reserve-batch")
+            .then()
+                .statusCode(200)
+                .body("lines[0].success", is(true))
+                .body("lines[1].success", is(false))
+                .body("lines[2].success", is(false));
+
+        given()
+            .queryParam("since", since)
+            .when()
+                .get("/inventory/changes")
+            .then()
+                .statusCode(200)
+                .body("changes.findAll { it.type == 'RESERVE' }.size()", is(1))
+                .body("changes.find { it.type == 'RESERVE' }.productId", is(3))
+                .body("changes.find { it.type == 'RESERVE' }.delta", is(-1))
+                .body("changes.findAll { it.quantity < 0 }.size()", is(0));
+    }
+
+    @Test
+    @DisplayName("Should answer in Smile when asked and keep JSON as the default")
+    public void testSmileContentNegotiation() throws Exception {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+        byte[] check = given()
+            .accept(SMILE)
+            .queryParam("quantity", 1)
+            .when()
+                .get("/inventory/1/check")
+            .then()
+                .statusCode(200)
+                .contentType(SMILE)
+                .extract().asByteArray();
+        assertTrue(smile.readTree(check).get("available").asBoolean());
+
+        byte[] batch = smile.writeValueAsBytes(Map.of("lines", List.of(Map.of("productId", 3, "quantity", 1))));
+        byte[] reserved = given()
+            .contentType(SMILE)
+            .accept(SMILE)
+            .body(batch)
+            .when()
+                .post("/inventory/reserve-batch")
+            .then()
+                .statusCode(200)
+                .contentType(SMILE)
+                .extract().asByteArray();
+        JsonNode response = smile.readTree(reserved);
+        assertTrue(response.get("success").asBoolean());
+        assertEquals(3, response.get("lines").get(0).get("productId").asInt());
+
+        given()
+            .when()
+                .get("/inventory/1/check")
+            .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON);
+    }
+}
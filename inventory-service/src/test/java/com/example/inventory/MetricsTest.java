@@ -0,0 +1,30 @@
+package com.example.inventory;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+@QuarkusTest
+@DisplayName("Inventory Metrics Tests")
+public class MetricsTest {
+
+    @Test
+    @DisplayName("Should expose reservation timings and stock gauges on /q/metrics")
+    public void testReservationMetricsAreExposed() {
+        given().queryParam("quantity", 1).when().post("/inventory/2/reserve").then().statusCode(200);
+        given().queryParam("quantity", 1).when().post("/inventory/999/reserve").then().statusCode(404);
+
+        given()
+            .when()
+                .get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("inventory_reservations_seconds_count{outcome=\"reserved\""))
+                .body(containsString("inventory_reservations_seconds_count{outcome=\"not_found\""))
+                .body(containsString("inventory_stock_available{product=\"2\""))
+                .body(containsString("inventory_products "));
+    }
+}
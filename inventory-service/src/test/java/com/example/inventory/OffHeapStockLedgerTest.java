@@ -0,0 +1,74 @@
+package com.example.inventory;
+
+import com.example.inventory.model.Product;
+import com.example.inventory.service.OffHeapStockLedger;
+import com.example.inventory.service.StockStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Off-Heap Stock Ledger Tests")
+public class OffHeapStockLedgerTest {
+
+    @Test
+    @DisplayName("Should keep every product when growing well past the expected size")
+    public void testGrowsPastExpectedSize() {
+        OffHeapStockLedger ledger = new OffHeapStockLedger(16);
+        int products = 200_000;
+        for (long id = 1; id <= products; id++) {
+            ledger.register(id * 7919, "Product " + id, (int) (id % 100));
+        }
+
+        assertEquals(products, ledger.size());
+        for (long id = 1; id <= products; id++) {
+            assertEquals((int) (id % 100), ledger.available(id * 7919));
+            assertEquals("Product " + id, ledger.name(id * 7919));
+        }
+        assertFalse(ledger.contains(7918L));
+        assertEquals(StockStore.NOT_FOUND, ledger.available(7918L));
+        assertTrue(ledger.offHeapBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Should replace name, version and stock when a product is registered again")
+    public void testReRegisterReplacesProduct() {
+        OffHeapStockLedger ledger = new OffHeapStockLedger(16);
+        ledger.register(1L, "Laptop", 10);
+        ledger.reserve(1L, 4);
+        ledger.register(1L, "Ноутбук 💻", 2, 20);
+
+        assertEquals(1, ledger.size());
+        Product product = ledger.snapshot(1L);
+        assertEquals("Ноутбук 💻", product.getName());
+        assertEquals(2, product.getVersion());
+        assertEquals(20, product.getQuantity());
+
+        ledger.register(2L, null, 1);
+        assertNull(ledger.name(2L));
+        assertEquals(1, ledger.version(2L));
+    }
+
+    @Test
+    @DisplayName("Should page in ID order when products were registered out of order")
+    public void testPagesInIdOrder() {
+        OffHeapStockLedger ledger = new OffHeapStockLedger(16);
+        for (long id : new long[] {5, 1, 9, 3, 7}) {
+            ledger.register(id, "Product " + id, 1);
+        }
+
+        List<Product> first = ledger.page(null, 2);
+        assertEquals(List.of(1L, 3L), first.stream().map(Product::getId).toList());
+        List<Product> rest = ledger.page(4L, 10);
+        assertEquals(List.of(5L, 7L, 9L), rest.stream().map(Product::getId).toList());
+
+        ledger.register(4L, "Product 4", 1);
+        assertEquals(List.of(4L, 5L, 7L, 9L), ledger.page(3L, 10).stream().map(Product::getId).toList());
+        assertEquals(6, ledger.snapshotAll().size());
+    }
+}
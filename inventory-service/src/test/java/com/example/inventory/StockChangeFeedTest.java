@@ -0,0 +1,92 @@
+package com.example.inventory;
+
+import com.example.inventory.model.StockChange;
+import com.example.inventory.persistence.StockJournal;
+import com.example.inventory.service.InventoryService;
+import com.example.inventory.service.StockChangeFeed;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Stock Change Feed Tests")
+public class StockChangeFeedTest {
+
+    @Test
+    @DisplayName("Should number every stock change and page through them in order")
+    public void testChangesInOrder() {
+        InventoryService service = InventoryService.standalone(StockJournal.NONE);
+        StockChangeFeed feed = service.changes();
+        long start = feed.lastSeq();
+
+        service.reserve(1L, 2);
+        service.release(1L, 1);
+        service.restock(2L, 5);
+        service.reserve(3L, 1_000_000);
+
+        StockChangeFeed.Batch batch = feed.read(start, 2);
+        assertFalse(batch.truncated());
+        assertEquals(2, batch.changes().size());
+        assertEquals(StockChange.Type.RESERVE, batch.changes().get(0).type());
+        assertEquals(-2, batch.changes().get(0).delta());
+        assertEquals(8, batch.changes().get(0).quantity());
+        assertEquals(StockChange.Type.RELEASE, batch.changes().get(1).type());
+
+        StockChangeFeed.Batch rest = feed.read(batch.nextSeq(), 10);
+        assertEquals(1, rest.changes().size(), "a failed reservation changes nothing");
+        assertEquals(StockChange.Type.RESTOCK, rest.changes().get(0).type());
+        assertEquals(55, rest.changes().get(0).quantity());
+        assertEquals(feed.lastSeq(), rest.nextSeq());
+        assertTrue(feed.read(rest.nextSeq(), 10).changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report a cursor that fell out of the ring and resume from the oldest change")
+    public void testTruncatedCursor() {
+        InventoryService service = InventoryService.standalone(StockJournal.NONE);
+        StockChangeFeed feed = service.changes();
+        long start = feed.lastSeq();
+        int published = feed.capacity() + 10;
+        for (int i = 0; i < published; i++) {
+            service.restock(2L, 1);
+        }
+
+        StockChangeFeed.Batch batch = feed.read(start, 5);
+        assertTrue(batch.truncated());
+        assertEquals(feed.lastSeq() - feed.capacity() + 1, batch.changes().get(0).seq());
+        assertFalse(feed.read(batch.nextSeq(), 5).truncated());
+
+        // A cursor from before a restart is ahead of the feed and is truncated too
+        assertTrue(feed.read(feed.lastSeq() + 100, 5).truncated());
+    }
+
+    @Test
+    @DisplayName("Should hold a caught-up reader until the next change or the timeout")
+    public void testAwaitNextChange() throws Exception {
+        InventoryService service = InventoryService.standalone(StockJournal.NONE);
+        StockChangeFeed feed = service.changes();
+        long last = feed.lastSeq();
+
+        StockChangeFeed.Batch empty = feed.await(last, 10, Duration.ofMillis(50)).await().atMost(Duration.ofSeconds(5));
+        assertTrue(empty.changes().isEmpty());
+        assertEquals(last, empty.nextSeq());
+
+        CompletableFuture<StockChangeFeed.Batch> waiting = feed.await(last, 10, Duration.ofSeconds(10))
+            .subscribeAsCompletionStage().toCompletableFuture();
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+        assertEquals(1, feed.waiting());
+        service.reserve(1L, 1);
+
+        StockChangeFeed.Batch batch = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(1, batch.changes().size());
+        assertEquals(last + 1, batch.nextSeq());
+        assertEquals(0, feed.waiting());
+    }
+}
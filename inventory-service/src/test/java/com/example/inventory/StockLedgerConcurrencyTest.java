@@ -0,0 +1,251 @@
+package com.example.inventory;
+
+import com.example.inventory.service.HotProductStockStore;
+import com.example.inventory.service.StockStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Stock Ledger Concurrency Tests")
+public class StockLedgerConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int RESERVATIONS_PER_THREAD = 5_000;
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should never oversell a hot product under parallel reservations")
+    public void testNoOversellOnHotProduct(StockStore.Engine engine) throws Exception {
+        StockStore ledger = engine.create(16);
+        int initialStock = 10_000;
+        ledger.register(1L, "Hot", initialStock);
+
+        AtomicInteger reservedUnits = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                int quantity = 1 + ThreadLocalRandom.current().nextInt(3);
+                int remaining = ledger.reserve(1L, quantity);
+                if (remaining >= 0) {
+                    assertTrue(remaining < initialStock);
+                    reservedUnits.addAndGet(quantity);
+                }
+            }
+        });
+
+        int left = ledger.available(1L);
+        assertTrue(left >= 0, "stock went negative: " + left);
+        assertEquals(initialStock, reservedUnits.get() + left);
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should keep per-product totals exact across many products with releases")
+    public void testReserveAndReleaseAcrossProducts(StockStore.Engine engine) throws Exception {
+        StockStore ledger = engine.create(16);
+        int products = 32;
+        int initialStock = 2_000;
+        for (long id = 1; id <= products; id++) {
+            ledger.register(id, "Product " + id, initialStock);
+        }
+
+        AtomicInteger[] outstanding = new AtomicInteger[products + 1];
+        for (int i = 0; i <= products; i++) {
+            outstanding[i] = new AtomicInteger();
+        }
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                long id = 1 + random.nextInt(products);
+                int quantity = 1 + random.nextInt(5);
+                if (ledger.reserve(id, quantity) >= 0) {
+                    if (random.nextInt(4) == 0) {
+                        ledger.release(id, quantity);
+                    } else {
+                        outstanding[(int) id].addAndGet(quantity);
+                    }
+                }
+            }
+        });
+
+        for (long id = 1; id <= products; id++) {
+            int left = ledger.available(id);
+            assertTrue(left >= 0, "stock went negative for product " + id);
+            assertEquals(initialStock, left + outstanding[(int) id].get(), "ledger drift for product " + id);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should report unknown and insufficient products")
+    public void testResultCodes(StockStore.Engine engine) {
+        StockStore ledger = engine.create(16);
+        ledger.register(1L, "Laptop", 2);
+
+        assertEquals(StockStore.NOT_FOUND, ledger.reserve(99L, 1));
+        assertEquals(StockStore.INSUFFICIENT, ledger.reserve(1L, 3));
+        assertEquals(0, ledger.reserve(1L, 2));
+        assertEquals(StockStore.INSUFFICIENT, ledger.reserve(1L, 1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should sell a sharded hot product out exactly, with releases and large orders")
+    public void testShardedHotProductSellsOutExactly(StockStore.Engine engine) throws Exception {
+        HotProductStockStore ledger = new HotProductStockStore(engine.create(16), Set.of(1L), 8);
+        int initialStock = 20_000;
+        ledger.register(1L, "Flash Sale", initialStock);
+        ledger.register(2L, "Regular", 5);
+        assertTrue(ledger.isHot(1L));
+        assertEquals(8, ledger.shards());
+
+        AtomicInteger reservedUnits = new AtomicInteger();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                // Occasional orders bigger than a shard's share force steals and drains
+                int quantity = random.nextInt(50) == 0 ? 500 + random.nextInt(500) : 1 + random.nextInt(3);
+                if (ledger.reserve(1L, quantity) >= 0) {
+                    if (random.nextInt(8) == 0) {
+                        ledger.release(1L, quantity);
+                    } else {
+                        reservedUnits.addAndGet(quantity);
+                    }
+                }
+            }
+        });
+
+        int left = ledger.available(1L);
+        assertTrue(left >= 0, "stock went negative: " + left);
+        assertEquals(initialStock, reservedUnits.get() + left);
+        assertEquals(left, ledger.snapshot(1L).getQuantity());
+
+        // Whatever is left can be taken in one reservation spanning every shard, and not one unit more
+        if (left > 0) {
+            assertEquals(StockStore.INSUFFICIENT, ledger.reserve(1L, left + 1));
+            assertEquals(0, ledger.reserve(1L, left));
+        }
+        assertEquals(StockStore.INSUFFICIENT, ledger.reserve(1L, 1));
+        assertEquals(3, ledger.reserve(2L, 2));
+        assertEquals(StockStore.NOT_FOUND, ledger.reserve(3L, 1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should report the whole stock left of a sharded hot product, not one shard's")
+    public void testShardedHotProductReportsExactStock(StockStore.Engine engine) {
+        HotProductStockStore ledger = new HotProductStockStore(engine.create(16), Set.of(1L), 8);
+        ledger.register(1L, "Flash Sale", 100);
+
+        assertEquals(99, ledger.reserve(1L, 1));
+        assertEquals(59, ledger.reserve(1L, 40));
+        assertEquals(60, ledger.release(1L, 1));
+        assertEquals(StockStore.INSUFFICIENT, ledger.reserve(1L, 61));
+        assertEquals(0, ledger.reserve(1L, 60));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should never refuse a sharded hot product while its total stock covers the order")
+    public void testShardedHotProductNeverRefusesCoveredOrders(StockStore.Engine engine) throws Exception {
+        HotProductStockStore ledger = new HotProductStockStore(engine.create(16), Set.of(1L), 8);
+        int maxQuantity = 50;
+        // Every thread holds at most one order at a time, so at least maxQuantity units are always left
+        int initialStock = THREADS * maxQuantity + maxQuantity;
+        ledger.register(1L, "Flash Sale", initialStock);
+
+        AtomicInteger refused = new AtomicInteger();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                // Orders larger than a shard's share go through steals and drains
+                int quantity = 1 + random.nextInt(maxQuantity);
+                if (ledger.reserve(1L, quantity) >= 0) {
+                    ledger.release(1L, quantity);
+                } else {
+                    refused.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(0, refused.get(), "orders refused while stock covered them");
+        assertEquals(initialStock, ledger.available(1L));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockStore.Engine.class)
+    @DisplayName("Should keep reservations on the live stock while a product is re-registered")
+    public void testReserveDuringReRegister(StockStore.Engine engine) throws Exception {
+        for (StockStore ledger : List.of(engine.create(16),
+                                         new HotProductStockStore(engine.create(16), Set.of(1L), 8))) {
+            int initialStock = 1_000;
+            ledger.register(1L, "Laptop", initialStock);
+
+            // Every register changes the stock by what it set minus what it replaced
+            AtomicLong registeredDelta = new AtomicLong();
+            AtomicLong reservedUnits = new AtomicLong();
+            AtomicInteger threadIds = new AtomicInteger();
+            runConcurrently(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                boolean importer = threadIds.getAndIncrement() == 0;
+                for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    if (importer) {
+                        int quantity = 500 + random.nextInt(1_000);
+                        int replaced = ledger.register(1L, i % 2 == 0 ? "Laptop" : "Laptop Pro", 1 + i, quantity);
+                        assertTrue(replaced >= 0, "re-register reported a new product");
+                        registeredDelta.addAndGet(quantity - replaced);
+                    } else {
+                        int quantity = 1 + random.nextInt(3);
+                        if (ledger.reserve(1L, quantity) >= 0) {
+                            reservedUnits.addAndGet(quantity);
+                        }
+                    }
+                }
+            });
+
+            int left = ledger.available(1L);
+            assertTrue(left >= 0, "stock went negative: " + left);
+            assertEquals(initialStock + registeredDelta.get() - reservedUnits.get(), left,
+                         "a reservation missed the live stock");
+            assertEquals(RESERVATIONS_PER_THREAD, ledger.version(1L));
+            assertEquals("Laptop Pro", ledger.name(1L));
+            assertEquals(1, ledger.size());
+        }
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
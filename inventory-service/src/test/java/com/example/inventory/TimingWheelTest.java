@@ -0,0 +1,68 @@
+package com.example.inventory;
+
+import com.example.inventory.service.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Timing Wheel Tests")
+public class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+
+    @Test
+    @DisplayName("Should expire every item on its own tick across all wheel levels")
+    public void testExpiresOnTime() {
+        List<long[]> expired = new ArrayList<>();
+        long[] now = {0};
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 0, deadline -> expired.add(new long[] {deadline, now[0]}));
+
+        // Deadlines on every level, including exact level boundaries
+        List<Long> deadlines = new ArrayList<>(List.of(1L, 255L, 256L, 257L, 65_535L, 65_536L, 65_537L, 300_000L));
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            deadlines.add(1 + (long) random.nextInt(400_000));
+        }
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline * TICK);
+        }
+
+        for (now[0] = 1; now[0] <= 400_000; now[0]++) {
+            wheel.advanceTo(now[0] * TICK);
+        }
+        assertEquals(deadlines.size(), expired.size());
+        for (long[] item : expired) {
+            assertEquals(item[0], item[1], "item due at tick " + item[0] + " expired at tick " + item[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should expire items scheduled while the wheel is running, including overdue ones")
+    public void testScheduleWhileRunning() {
+        Map<String, Long> expiredAt = new HashMap<>();
+        long[] now = {0};
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0, name -> expiredAt.put(name, now[0]));
+
+        now[0] = 70_000;
+        wheel.advanceTo(now[0] * TICK);
+        wheel.schedule("overdue", 10 * TICK);
+        wheel.schedule("later", 70_500 * TICK);
+        wheel.schedule("much-later", 200_000 * TICK - TICK / 2);
+
+        // Catching up many ticks in one call must not skip or delay anything
+        now[0] = 70_001;
+        assertEquals(1, wheel.advanceTo(now[0] * TICK));
+        now[0] = 300_000;
+        assertEquals(2, wheel.advanceTo(now[0] * TICK));
+        assertEquals(70_001L, expiredAt.get("overdue"));
+        assertTrue(expiredAt.containsKey("later") && expiredAt.containsKey("much-later"));
+    }
+}
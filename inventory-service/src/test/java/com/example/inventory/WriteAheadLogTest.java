@@ -0,0 +1,177 @@
+package com.example.inventory;
+
+import com.example.inventory.model.ImportRecord;
+import com.example.inventory.model.ReservationLine;
+import com.example.inventory.persistence.FsyncMode;
+import com.example.inventory.persistence.StockState;
+import com.example.inventory.persistence.WriteAheadLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Write-Ahead Log Tests")
+public class WriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 128 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should recover registrations and deltas after a restart")
+    public void testRecoverAfterRestart() throws Exception {
+        try (WriteAheadLog log = open(FsyncMode.GROUP, 4)) {
+            assertEquals(0, log.takeRecoveredState().size());
+            log.register(1, "Laptop", 1, 10);
+            log.register(2, "Mouse", 3, 50);
+            log.reserve(1, 4);
+            log.release(1, 1);
+            log.restock(2, 25);
+            log.reserveAll(List.of(new ReservationLine(1L, 2), new ReservationLine(2L, 5)), new int[] {5, -2});
+        }
+
+        try (WriteAheadLog log = open(FsyncMode.GROUP, 4)) {
+            Map<Long, StockState.Entry> state = byId(log.takeRecoveredState());
+            assertEquals(5, state.get(1L).quantity());
+            assertEquals("Laptop", state.get(1L).name());
+            assertEquals(75, state.get(2L).quantity());
+            assertEquals(3, state.get(2L).version());
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay an import of a known product as a delta, in any order with reservations")
+    public void testImportCommutesWithReservations() throws Exception {
+        try (WriteAheadLog log = open(FsyncMode.GROUP, 4)) {
+            log.register(1, "Laptop", 1, 10);
+            // The ledger took 1 unit (10 -> 9), then the import set 20; the reservation is journaled last
+            log.importAll(List.of(new ImportRecord(1L, "Laptop Pro", 20), new ImportRecord(2L, "Mouse", 5)),
+                new long[] {2, 1}, new int[] {9, -1});
+            log.reserve(1, 1);
+        }
+
+        try (WriteAheadLog log = open(FsyncMode.GROUP, 4)) {
+            Map<Long, StockState.Entry> state = byId(log.takeRecoveredState());
+            assertEquals(20, state.get(1L).quantity());
+            assertEquals("Laptop Pro", state.get(1L).name());
+            assertEquals(2, state.get(1L).version());
+            assertEquals(5, state.get(2L).quantity());
+        }
+    }
+
+    @Test
+    @DisplayName("Should fold closed segments into a snapshot and delete them")
+    public void testSnapshotCompaction() throws Exception {
+        int products = 100;
+        int reservations = 50_000;
+        try (WriteAheadLog log = open(FsyncMode.NONE, 2)) {
+            for (long id = 1; id <= products; id++) {
+                log.register(id, "Product " + id, 1, 1_000_000);
+            }
+            for (int i = 0; i < reservations; i++) {
+                log.reserve(1 + i % products, 1);
+            }
+            log.awaitSnapshots();
+        }
+
+        assertTrue(count("snapshot-") >= 1, "no snapshot written");
+        assertTrue(count("wal-") < reservations * 21L / SEGMENT_SIZE, "closed segments were not deleted");
+
+        try (WriteAheadLog log = open(FsyncMode.NONE, 2)) {
+            StockState state = log.takeRecoveredState();
+            assertEquals(products, state.size());
+            for (StockState.Entry entry : state.entries()) {
+                assertEquals(1_000_000 - reservations / products, entry.quantity(), "product " + entry.id());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop replay at a torn record and keep everything before it")
+    public void testTornTail() throws Exception {
+        try (WriteAheadLog log = open(FsyncMode.PER_OP, 4)) {
+            log.register(1, "Laptop", 1, 10);
+            log.reserve(1, 1);
+            log.reserve(1, 1);
+            log.reserve(1, 1);
+        }
+
+        // Register frame is 8 + 37 bytes, each reserve frame 8 + 13; damage the last reserve's payload
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long lastRecord = (8 + 37) + 2 * (8 + 13);
+            file.seek(lastRecord + 12);
+            file.write(0x7F);
+        }
+
+        try (WriteAheadLog log = open(FsyncMode.PER_OP, 4)) {
+            assertEquals(8, byId(log.takeRecoveredState()).get(1L).quantity());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep totals exact with concurrent group-committed appends")
+    public void testConcurrentGroupCommit() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        try (WriteAheadLog log = open(FsyncMode.GROUP, 4)) {
+            log.register(1, "Hot", 1, threads * perThread);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            log.reserve(1, 1);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        try (WriteAheadLog log = open(FsyncMode.GROUP, 4)) {
+            assertEquals(0, byId(log.takeRecoveredState()).get(1L).quantity());
+        }
+    }
+
+    private WriteAheadLog open(FsyncMode fsync, int snapshotAfterSegments) throws IOException {
+        return WriteAheadLog.open(directory, fsync, SEGMENT_SIZE, snapshotAfterSegments);
+    }
+
+    private long count(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private static Map<Long, StockState.Entry> byId(StockState state) {
+        Map<Long, StockState.Entry> entries = new HashMap<>();
+        state.entries().forEach(entry -> entries.put(entry.id(), entry));
+        return entries;
+    }
+}
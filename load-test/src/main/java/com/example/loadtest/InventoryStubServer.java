@@ -0,0 +1,247 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process implementation of the /inventory API that order-service
+ * calls, served by the JDK HTTP server so the load test needs no external
+ * service. Every product starts with effectively unlimited stock and each
+ * call can be delayed to model inventory-service latency.
+ */
+final class InventoryStubServer implements AutoCloseable {
+
+    private static final Pattern PRODUCT_PATH = Pattern.compile("^/inventory/(\\d+)(/check|/reserve|/holds)?$");
+    private static final Pattern HOLD_PATH = Pattern.compile("^/inventory/holds/(\\d+)(/confirm)?$");
+    private static final Pattern BATCH_LINE = Pattern.compile(
+        "\"productId\"\\s*:\\s*(\\d+)\\s*,\\s*\"quantity\"\\s*:\\s*(\\d+)");
+    private static final Pattern QUANTITY_PARAM = Pattern.compile("(?:^|&)quantity=(\\d+)");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMicros;
+    private final ConcurrentHashMap<Long, AtomicInteger> stock = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, long[]> holds = new ConcurrentHashMap<>();
+    private final AtomicLong holdIds = new AtomicLong();
+
+    private InventoryStubServer(HttpServer server, ExecutorService executor, long latencyMicros) {
+        this.server = server;
+        this.executor = executor;
+        this.latencyMicros = latencyMicros;
+    }
+
+    static InventoryStubServer start(int port, int products, long latencyMicros) throws IOException {
+        // Without TCP_NODELAY small responses sit behind Nagle/delayed-ACK for ~40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        InventoryStubServer stub = new InventoryStubServer(server, executor, latencyMicros);
+        for (long id = 1; id <= products; id++) {
+            stub.stock.put(id, new AtomicInteger(Integer.MAX_VALUE));
+        }
+        server.createContext("/inventory", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        return stub;
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            simulateLatency();
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+
+            if ("POST".equals(method) && "/inventory/reserve-batch".equals(path)) {
+                reserveBatch(exchange);
+                return;
+            }
+
+            Matcher holdMatcher = HOLD_PATH.matcher(path);
+            if (holdMatcher.matches()) {
+                settleHold(exchange, Long.parseLong(holdMatcher.group(1)), holdMatcher.group(2) != null, method);
+                return;
+            }
+
+            Matcher matcher = PRODUCT_PATH.matcher(path);
+            if (!matcher.matches()) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+            long id = Long.parseLong(matcher.group(1));
+            AtomicInteger available = stock.get(id);
+            String operation = matcher.group(2);
+            int quantity = quantity(exchange.getRequestURI().getRawQuery());
+
+            if (operation == null && "GET".equals(method)) {
+                if (available == null) {
+                    respond(exchange, 404, "{}");
+                } else {
+                    respond(exchange, 200, String.format(
+                        "{\"id\":%d,\"name\":\"%s\",\"quantity\":%d,\"version\":1}", id, name(id), available.get()));
+                }
+            } else if ("/check".equals(operation) && "GET".equals(method)) {
+                respond(exchange, 200, "{\"available\":" + (available != null && available.get() >= quantity) + "}");
+            } else if ("/reserve".equals(operation) && "POST".equals(method)) {
+                reserve(exchange, id, available, quantity);
+            } else if ("/holds".equals(operation) && "POST".equals(method)) {
+                hold(exchange, id, available, quantity);
+            } else {
+                respond(exchange, 405, "{}");
+            }
+        }
+    }
+
+    private void reserve(HttpExchange exchange, long id, AtomicInteger available, int quantity) throws IOException {
+        if (available == null) {
+            respond(exchange, 404, "{\"success\":false,\"message\":\"Product not found\"}");
+            return;
+        }
+        int remaining = take(available, quantity);
+        if (remaining < 0) {
+            respond(exchange, 400, String.format(
+                "{\"success\":false,\"message\":\"Insufficient quantity\",\"productId\":%d,\"productName\":\"%s\"}",
+                id, name(id)));
+            return;
+        }
+        respond(exchange, 200, String.format(
+            "{\"success\":true,\"message\":\"Product reserved successfully\",\"productId\":%d,"
+                + "\"productName\":\"%s\",\"remainingQuantity\":%d,\"productVersion\":1}", id, name(id), remaining));
+    }
+
+    /**
+     * Holds never expire here; order-service confirms or releases every hold it takes.
+     */
+    private void hold(HttpExchange exchange, long id, AtomicInteger available, int quantity) throws IOException {
+        if (available == null) {
+            respond(exchange, 404, "{\"success\":false,\"message\":\"Product not found\"}");
+            return;
+        }
+        int remaining = take(available, quantity);
+        if (remaining < 0) {
+            respond(exchange, 400, String.format(
+                "{\"success\":false,\"message\":\"Insufficient quantity\",\"productId\":%d,\"productName\":\"%s\"}",
+                id, name(id)));
+            return;
+        }
+        long holdId = holdIds.incrementAndGet();
+        holds.put(holdId, new long[] {id, quantity});
+        respond(exchange, 201, String.format(
+            "{\"success\":true,\"message\":\"Product held\",\"productId\":%d,\"productName\":\"%s\","
+                + "\"remainingQuantity\":%d,\"productVersion\":1,\"holdId\":\"%d\",\"quantity\":%d}",
+            id, name(id), remaining, holdId, quantity));
+    }
+
+    private void settleHold(HttpExchange exchange, long holdId, boolean confirm, String method) throws IOException {
+        if (!(confirm ? "POST" : "DELETE").equals(method)) {
+            respond(exchange, 405, "{}");
+            return;
+        }
+        long[] hold = holds.remove(holdId);
+        if (hold == null) {
+            respond(exchange, 404, "{\"success\":false,\"message\":\"Hold not found or expired\"}");
+            return;
+        }
+        if (!confirm) {
+            stock.get(hold[0]).addAndGet((int) hold[1]);
+        }
+        respond(exchange, 200, String.format("{\"success\":true,\"productId\":%d,\"holdId\":\"%d\",\"quantity\":%d}",
+            hold[0], holdId, hold[1]));
+    }
+
+    private void reserveBatch(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder lines = new StringBuilder();
+        boolean allReserved = true;
+        Matcher line = BATCH_LINE.matcher(body);
+        while (line.find()) {
+            long id = Long.parseLong(line.group(1));
+            int quantity = Integer.parseInt(line.group(2));
+            AtomicInteger available = stock.get(id);
+            int remaining = available == null ? -1 : take(available, quantity);
+            allReserved &= remaining >= 0;
+            if (lines.length() > 0) {
+                lines.append(',');
+            }
+            lines.append(String.format(
+                "{\"productId\":%d,\"quantity\":%d,\"success\":%b,\"message\":\"%s\",\"productName\":\"%s\","
+                    + "\"remainingQuantity\":%s,\"productVersion\":1}",
+                id, quantity, remaining >= 0, remaining >= 0 ? "Reserved" : "Not reserved", name(id),
+                remaining >= 0 ? Integer.toString(remaining) : "null"));
+        }
+        respond(exchange, 200, "{\"success\":" + allReserved + ",\"message\":\"\",\"lines\":[" + lines + "]}");
+    }
+
+    private static int take(AtomicInteger available, int quantity) {
+        for (;;) {
+            int current = available.get();
+            if (current < quantity) {
+                return -1;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return current - quantity;
+            }
+        }
+    }
+
+    private static int quantity(String query) {
+        if (query == null) {
+            return 0;
+        }
+        Matcher matcher = QUANTITY_PARAM.matcher(query);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static String name(long id) {
+        return "Product " + id;
+    }
+
+    private void simulateLatency() {
+        if (latencyMicros > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(latencyMicros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test for POST /orders.
+ *
+ * <pre>
+ * java -jar load-test/target/load-test.jar [options]
+ *
+ *   --target URL                 drive an already running order-service instead of launching one
+ *   --order-service-jar PATH     order-service quarkus-run.jar to launch (default: order-service/target/quarkus-app/quarkus-run.jar)
+ *   --inventory-service-jar PATH launch the real inventory-service instead of the in-process stub
+ *   --stub-latency-ms N          latency added to every stubbed inventory call (default 1)
+ *   --products N                 number of product IDs orders are spread across (default 3)
+ *   --rate N                     offered load in requests per second (default 500)
+ *   --warmup S                   unmeasured warm-up seconds (default 10)
+ *   --duration S                 measured seconds (default 30)
+ *   --max-in-flight N            requests allowed outstanding before new ones are dropped (default 10000)
+ *   --transport http1|http2      order-service to inventory transport (http2 needs --inventory-service-jar)
+ *   --pool-size N                order-service connections to inventory (default: service config)
+ *   --per-connection N           requests in flight per connection: pipelining or multiplexing limit
+ *   --histogram-out FILE         also write the full response-time percentile distribution
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Path workDir = Files.createDirectories(Path.of("load-test", "target"));
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            URI orderService = options.target != null
+                ? URI.create(options.target)
+                : startServices(options, workDir, resources);
+
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+            resources.add(clientExecutor::shutdownNow);
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+
+            System.out.printf("🚀 Offering %.0f req/s to %s/orders for %ds (after %ds warm-up)%n",
+                options.rate, orderService, options.duration.toSeconds(), options.warmup.toSeconds());
+            OpenLoopGenerator.Result result = new OpenLoopGenerator(client, orderService.resolve("/orders"),
+                options.rate, options.warmup, options.duration, options.products, options.maxInFlight).run();
+            report(result, System.out);
+            if (options.target == null) {
+                reportTransport(client, orderService, System.out);
+            }
+
+            if (options.histogramOut != null) {
+                try (PrintStream out = new PrintStream(options.histogramOut.toFile())) {
+                    result.responseTime().outputPercentileDistribution(out, 1000.0);
+                }
+                System.out.println("📄 Response-time distribution written to " + options.histogramOut);
+            }
+        } finally {
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                resources.get(i).close();
+            }
+        }
+    }
+
+    private static URI startServices(Options options, Path workDir, List<AutoCloseable> resources)
+            throws IOException, InterruptedException {
+        URI inventory;
+        if (options.inventoryServiceJar != null) {
+            ServiceLauncher launcher = ServiceLauncher.launch("inventory-service", options.inventoryServiceJar,
+                List.of(), "/inventory/1", workDir);
+            resources.add(launcher);
+            inventory = launcher.baseUri();
+        } else {
+            InventoryStubServer stub = InventoryStubServer.start(0, options.products,
+                options.stubLatency.toNanos() / 1000);
+            resources.add(stub);
+            inventory = URI.create("http://localhost:" + stub.port());
+        }
+        System.out.println("📦 Inventory at " + inventory);
+
+        List<String> orderServiceProperties = new ArrayList<>();
+        orderServiceProperties.add("-Dquarkus.rest-client.\"inventory-api\".url=" + inventory);
+        if (options.transport != null) {
+            orderServiceProperties.add("-Dorder.inventory.transport.protocol=" + options.transport);
+        }
+        if (options.poolSize > 0) {
+            orderServiceProperties.add("-Dquarkus.rest-client.\"inventory-api\".connection-pool-size=" + options.poolSize);
+        }
+        if (options.perConnection > 0) {
+            orderServiceProperties.add("-Dorder.inventory.transport.max-in-flight-per-connection=" + options.perConnection);
+        }
+        ServiceLauncher orderService = ServiceLauncher.launch("order-service", options.orderServiceJar,
+            orderServiceProperties, "/orders?limit=1", workDir);
+        resources.add(orderService);
+        System.out.println("🛒 Order service at " + orderService.baseUri());
+        return orderService.baseUri();
+    }
+
+    static void report(OpenLoopGenerator.Result result, PrintStream out) {
+        out.println();
+        out.printf("Scheduled      %,d%n", result.scheduled());
+        out.printf("Completed      %,d (%.1f req/s achieved)%n", result.completed(), result.achievedRate());
+        out.printf("Created        %,d%n", result.created());
+        out.printf("Failed orders  %,d%n", result.failedOrders());
+        out.printf("Errors         %,d (non-201 or transport failure)%n", result.errors());
+        out.printf("Dropped        %,d (max in-flight reached, counted at the timeout)%n", result.dropped());
+        out.printf("Error rate     %.3f%%%n", result.errorRate() * 100);
+        out.println();
+        out.println("Latency (ms)   response-time  service-time");
+        printPercentile(out, "p50", 50.0, result);
+        printPercentile(out, "p90", 90.0, result);
+        printPercentile(out, "p99", 99.0, result);
+        printPercentile(out, "p99.9", 99.9, result);
+        out.printf("%-14s %13.2f  %12.2f%n", "max",
+            millis(result.responseTime().getMaxValue()), millis(result.serviceTime().getMaxValue()));
+    }
+
+    /**
+     * Prints how long order-service requests waited for a connection to
+     * inventory-service, from the Vert.x pool metrics on /q/metrics.
+     */
+    static void reportTransport(HttpClient client, URI orderService, PrintStream out)
+            throws IOException, InterruptedException {
+        String metrics = client.send(HttpRequest.newBuilder(orderService.resolve("/q/metrics")).GET().build(),
+            HttpResponse.BodyHandlers.ofString()).body();
+        double waitCount = metric(metrics, "http_client_queue_delay_seconds_count{clientName=\"inventory-api\"}");
+        double waitSum = metric(metrics, "http_client_queue_delay_seconds_sum{clientName=\"inventory-api\"}");
+        double waitMax = metric(metrics, "http_client_queue_delay_seconds_max{clientName=\"inventory-api\"}");
+        double connections = metric(metrics, "http_client_connections_seconds_active_count{clientName=\"inventory-api\"}");
+        out.println();
+        out.printf("Inventory pool %.0f connections open, wait for a connection mean %.3f ms, max %.3f ms%n",
+            connections, waitCount == 0 ? 0 : waitSum / waitCount * 1000, waitMax * 1000);
+    }
+
+    private static double metric(String metrics, String series) {
+        for (String line : metrics.split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Double.parseDouble(line.substring(series.length() + 1).trim());
+            }
+        }
+        return 0;
+    }
+
+    private static void printPercentile(PrintStream out, String label, double percentile,
+                                        OpenLoopGenerator.Result result) {
+        out.printf("%-14s %13.2f  %12.2f%n", label,
+            millis(valueAt(result.responseTime(), percentile)), millis(valueAt(result.serviceTime(), percentile)));
+    }
+
+    private static long valueAt(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Options {
+        String target;
+        Path orderServiceJar = Path.of("order-service", "target", "quarkus-app", "quarkus-run.jar");
+        Path inventoryServiceJar;
+        Duration stubLatency = Duration.ofMillis(1);
+        int products = 3;
+        double rate = 500;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        int maxInFlight = 10_000;
+        Path histogramOut;
+        String transport;
+        int poolSize;
+        int perConnection;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + flag);
+                }
+                String value = args[++i];
+                switch (flag) {
+                    case "--target" -> options.target = value;
+                    case "--order-service-jar" -> options.orderServiceJar = Path.of(value);
+                    case "--inventory-service-jar" -> options.inventoryServiceJar = Path.of(value);
+                    case "--stub-latency-ms" -> options.stubLatency = Duration.ofMillis(Long.parseLong(value));
+                    case "--products" -> options.products = Integer.parseInt(value);
+                    case "--rate" -> options.rate = Double.parseDouble(value);
+                    case "--warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                    case "--duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                    case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                    case "--histogram-out" -> options.histogramOut = Path.of(value);
+                    case "--transport" -> options.transport = value;
+                    case "--pool-size" -> options.poolSize = Integer.parseInt(value);
+                    case "--per-connection" -> options.perConnection = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + flag);
+                }
+            }
+            if (options.rate <= 0 || options.products <= 0 || options.maxInFlight <= 0) {
+                throw new IllegalArgumentException("--rate, --products and --max-in-flight must be positive");
+            }
+            if ("http2".equalsIgnoreCase(options.transport) && options.inventoryServiceJar == null) {
+                // The in-process stub is built on the JDK HttpServer, which only speaks HTTP/1.1
+                throw new IllegalArgumentException("--transport http2 needs --inventory-service-jar");
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop request generator: request {@code i} is scheduled for
+ * {@code start + i / rate} regardless of whether earlier requests have
+ * completed, so a slow server cannot throttle the offered load.
+ *
+ * Two latencies are recorded for every request. Response time is measured
+ * from the intended send time, which corrects for coordinated omission when
+ * the generator falls behind schedule; service time is measured from the
+ * moment the request was actually handed to the client.
+ *
+ * A request dropped because {@code maxInFlight} requests are outstanding is
+ * recorded in the response-time histogram at the request timeout, as if it
+ * had been sent and timed out. Leaving it out would hide exactly the slowest
+ * requests when the server is saturated. It has no service time.
+ */
+final class OpenLoopGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI ordersUri;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int products;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failedOrders = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    OpenLoopGenerator(HttpClient client, URI ordersUri, double rate, Duration warmup, Duration duration,
+                      int products, int maxInFlight) {
+        this.client = client;
+        this.ordersUri = ordersUri;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.products = products;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    Result run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long scheduled = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (measured) {
+                scheduled++;
+            }
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    dropped.increment();
+                    responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(REQUEST_TIMEOUT.toNanos()));
+                }
+                continue;
+            }
+            send(i, intended, measured);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!allReturned() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        double elapsedSeconds = (end - measureFrom) / 1e9;
+        return new Result(scheduled, created.sum(), failedOrders.sum(), errors.sum(), dropped.sum(),
+            elapsedSeconds, responseTime.copy(), serviceTime.copy());
+    }
+
+    private boolean allReturned() {
+        return inFlight.availablePermits() == maxInFlight;
+    }
+
+    private void send(long sequence, long intended, boolean measured) {
+        long productId = 1 + sequence % products;
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"productId\":" + productId + ",\"quantity\":1}"))
+            .build();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, failure) -> {
+                long done = System.nanoTime();
+                inFlight.release();
+                if (!measured) {
+                    return;
+                }
+                responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - intended));
+                serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - sent));
+                if (failure != null || response.statusCode() != 201) {
+                    errors.increment();
+                } else if (response.body().contains("\"FAILED")) {
+                    failedOrders.increment();
+                } else {
+                    created.increment();
+                }
+            });
+    }
+
+    record Result(long scheduled, long created, long failedOrders, long errors, long dropped,
+                  double elapsedSeconds, Histogram responseTime, Histogram serviceTime) {
+
+        long completed() {
+            return created + failedOrders + errors;
+        }
+
+        double achievedRate() {
+            return completed() / elapsedSeconds;
+        }
+
+        double errorRate() {
+            long attempted = completed() + dropped;
+            return attempted == 0 ? 0 : (double) (errors + dropped) / attempted;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts a packaged Quarkus service (quarkus-run.jar) as a child process on a
+ * free local port and waits until it answers HTTP. Output goes to a log file
+ * next to the load-test results so it does not interleave with the report.
+ */
+final class ServiceLauncher implements AutoCloseable {
+
+    private final Process process;
+    private final int port;
+
+    private ServiceLauncher(Process process, int port) {
+        this.process = process;
+        this.port = port;
+    }
+
+    static ServiceLauncher launch(String name, Path jar, List<String> systemProperties, String readinessPath,
+                                  Path logDir) throws IOException, InterruptedException {
+        if (!jar.toFile().isFile()) {
+            throw new IllegalArgumentException(jar + " not found - build the service first (mvn package)");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dquarkus.http.port=" + port);
+        command.add("-Dquarkus.log.file.enable=false");
+        command.add("-Dquarkus.http.access-log.enabled=false");
+        command.addAll(systemProperties);
+        command.add("-jar");
+        command.add(jar.toString());
+
+        File log = logDir.resolve(name + ".log").toFile();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+        ServiceLauncher launcher = new ServiceLauncher(process, port);
+        launcher.awaitReady(readinessPath, Duration.ofSeconds(60), name, log);
+        return launcher;
+    }
+
+    URI baseUri() {
+        return URI.create("http://localhost:" + port);
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+    }
+
+    private void awaitReady(String readinessPath, Duration timeout, String name, File log)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest probe = HttpRequest.newBuilder(baseUri().resolve(readinessPath)).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + log);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() < 500) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(200);
+        }
+        close();
+        throw new IllegalStateException(name + " did not become ready within " + timeout + ", see " + log);
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
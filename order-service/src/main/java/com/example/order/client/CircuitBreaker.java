@@ -0,0 +1,147 @@
+package com.example.order.client;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. While CLOSED it tracks the outcome of the last
+ * {@code windowSize} calls and opens once at least {@code minimumCalls} have
+ * been recorded and the failed share reaches {@code failureRatio}. While OPEN
+ * every call is refused without touching the network. After
+ * {@code openDuration} it lets {@code halfOpenCalls} probe calls through: if
+ * all of them succeed it closes again, and the first failure re-opens it.
+ *
+ * The CLOSED fast path of {@link #tryAcquire} is a single volatile read;
+ * recording outcomes and state changes are serialized on the breaker.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRatio;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] window;
+    private int windowPosition;
+    private int recorded;
+    private int failures;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRatio, Duration openDuration,
+                          int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Need 1 <= minimum calls <= window size, got "
+                + minimumCalls + " and " + windowSize);
+        }
+        if (failureRatio <= 0 || failureRatio > 1) {
+            throw new IllegalArgumentException("Failure ratio must be in (0, 1]: " + failureRatio);
+        }
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Half-open calls must be positive: " + halfOpenCalls);
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRatio = failureRatio;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Returns true if a call may go ahead. Every permitted call must be
+     * followed by exactly one of {@link #onSuccess}, {@link #onFailure} or
+     * {@link #onCancel}.
+     */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesIssued = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesIssued >= halfOpenCalls) {
+                    return false;
+                }
+                probesIssued++;
+            }
+            return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures >= failureRatio * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * A permitted call was abandoned before it completed; it frees its probe
+     * slot without counting either way.
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+            probesIssued--;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[windowPosition]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[windowPosition] = failed;
+        if (failed) {
+            failures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        recorded = 0;
+        failures = 0;
+        windowPosition = 0;
+        state = State.CLOSED;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.order.client;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.Cancellable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent calls: if the first call has not answered
+ * after the configured percentile of recently observed latencies, a second
+ * identical call is sent and whichever answers first wins; the other one is
+ * cancelled. Failures of the hedge are ignored, failures of the first call
+ * are returned as usual.
+ *
+ * Hedges are paid for from a token bucket that every call fills by
+ * {@code budget} of a hedge, so over time at most that share of extra calls
+ * is sent (plus a burst of {@value #MAX_BURST}). The delay is recomputed every
+ * {@value #RECOMPUTE_EVERY} calls from the last {@value #WINDOW} latencies;
+ * nothing is hedged until {@value #WARMUP} latencies have been seen. Only
+ * calls that answered are observed: fast failures (an open circuit) and
+ * cancelled calls would pull the percentile down and cause more hedging
+ * exactly when inventory-service is partly failing.
+ */
+public final class Hedger {
+
+    static final int WINDOW = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+    static final int WARMUP = 2 * RECOMPUTE_EVERY;
+    static final int MAX_BURST = 10;
+    private static final long TOKEN = 1000;
+
+    private final double percentile;
+    private final long tokensPerCall;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long delayNanos = -1;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+
+    public Hedger(double percentile, double budget, Duration minDelay, Duration maxDelay) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1): " + percentile);
+        }
+        if (budget < 0 || budget > 1) {
+            throw new IllegalArgumentException("Budget must be in [0, 1]: " + budget);
+        }
+        this.percentile = percentile;
+        this.tokensPerCall = Math.round(budget * TOKEN);
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = Math.max(minDelayNanos, maxDelay.toNanos());
+    }
+
+    public <T> Uni<T> execute(Supplier<Uni<T>> call) {
+        return Uni.createFrom().emitter(emitter -> {
+            calls.increment();
+            tokens.accumulateAndGet(tokensPerCall, (current, earned) -> Math.min(MAX_BURST * TOKEN, current + earned));
+            AtomicBoolean answered = new AtomicBoolean();
+            long start = System.nanoTime();
+            Cancellable first = call.get()
+                .onItem().invoke(() -> observe(System.nanoTime() - start))
+                .subscribe().with(
+                    item -> {
+                        if (answered.compareAndSet(false, true)) {
+                            emitter.complete(item);
+                        }
+                    },
+                    failure -> {
+                        if (answered.compareAndSet(false, true)) {
+                            emitter.fail(failure);
+                        }
+                    });
+            long delay = delayNanos;
+            if (delay < 0) {
+                emitter.onTermination(first::cancel);
+                return;
+            }
+            AtomicReference<Cancellable> hedge = new AtomicReference<>();
+            ScheduledFuture<?> timer = Infrastructure.getDefaultWorkerPool().schedule(() -> {
+                if (answered.get()) {
+                    return;
+                }
+                if (!takeToken()) {
+                    overBudget.increment();
+                    return;
+                }
+                hedges.increment();
+                long hedgeStart = System.nanoTime();
+                hedge.set(call.get()
+                    .onItem().invoke(() -> observe(System.nanoTime() - hedgeStart))
+                    .subscribe().with(
+                    item -> {
+                        if (answered.compareAndSet(false, true)) {
+                            wins.increment();
+                            emitter.complete(item);
+                        }
+                    },
+                    failure -> {
+                        // The first call is still pending and decides the outcome
+                    }));
+                if (answered.get()) {
+                    // The first call answered while the hedge was being sent
+                    hedge.get().cancel();
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+            // Runs once either call answered (or the caller gave up) and cancels whatever is still in flight
+            emitter.onTermination(() -> {
+                timer.cancel(false);
+                first.cancel();
+                Cancellable pending = hedge.get();
+                if (pending != null) {
+                    pending.cancel();
+                }
+            });
+        });
+    }
+
+    /** Current hedge delay, or -1 while warming up. */
+    public long delayNanos() {
+        return delayNanos;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    /** Hedges that answered before the first call. */
+    public long wins() {
+        return wins.sum();
+    }
+
+    /** Calls that were due a hedge but found the budget used up. */
+    public long overBudget() {
+        return overBudget.sum();
+    }
+
+    private boolean takeToken() {
+        for (;;) {
+            long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private void observe(long latencyNanos) {
+        long sample = samples.getAndIncrement();
+        latencies.set((int) (sample % WINDOW), latencyNanos);
+        if (sample + 1 >= WARMUP && (sample + 1) % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(sample + 1, WINDOW));
+        }
+    }
+
+    private void recompute(int count) {
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        long value = sorted[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)];
+        delayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, value));
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.order.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Fault tolerance for calls to inventory-service. Each call is checked in
+ * this order:
+ * <ol>
+ *   <li>deadline: the order's remaining time budget must not be used up, and
+ *       the call times out when it runs out (or after {@code call-timeout},
+ *       whichever comes first);</li>
+ *   <li>bulkhead: at most {@code max-concurrent} calls are in flight; a call
+ *       beyond that is refused rather than queued;</li>
+ *   <li>circuit breaker: refuses calls outright while inventory-service has
+ *       been failing, see {@link CircuitBreaker}.</li>
+ * </ol>
+ * Refused and timed-out calls fail with {@link InventoryUnavailableException}.
+ * 4xx answers are business outcomes and count as successes for the breaker.
+ */
+@ApplicationScoped
+public class InventoryCallGuard {
+
+    private static final Logger LOG = Logger.getLogger(InventoryCallGuard.class);
+
+    @Inject
+    InventoryCallMetrics callMetrics;
+
+    @Inject
+    MeterRegistry registry;
+
+    /** Time budget for all inventory calls made for one order. */
+    @ConfigProperty(name = "order.inventory.deadline", defaultValue = "2s")
+    Duration deadline;
+
+    @ConfigProperty(name = "order.inventory.call-timeout", defaultValue = "1s")
+    Duration callTimeout;
+
+    @ConfigProperty(name = "order.inventory.bulkhead.max-concurrent", defaultValue = "128")
+    int maxConcurrent;
+
+    @ConfigProperty(name = "order.inventory.circuit-breaker.window-size", defaultValue = "20")
+    int windowSize;
+
+    @ConfigProperty(name = "order.inventory.circuit-breaker.minimum-calls", defaultValue = "10")
+    int minimumCalls;
+
+    @ConfigProperty(name = "order.inventory.circuit-breaker.failure-ratio", defaultValue = "0.5")
+    double failureRatio;
+
+    @ConfigProperty(name = "order.inventory.circuit-breaker.open-duration", defaultValue = "5s")
+    Duration openDuration;
+
+    @ConfigProperty(name = "order.inventory.circuit-breaker.half-open-calls", defaultValue = "3")
+    int halfOpenCalls;
+
+    private Semaphore bulkhead;
+    private CircuitBreaker breaker;
+    private final Map<InventoryUnavailableException.Reason, Counter> rejections =
+        new EnumMap<>(InventoryUnavailableException.Reason.class);
+
+    @PostConstruct
+    void init() {
+        bulkhead = new Semaphore(maxConcurrent);
+        breaker = new CircuitBreaker(windowSize, minimumCalls, failureRatio, openDuration, halfOpenCalls);
+
+        for (InventoryUnavailableException.Reason reason : InventoryUnavailableException.Reason.values()) {
+            rejections.put(reason, Counter.builder("inventory.client.rejections")
+                .description("Calls to inventory-service refused or cut short by the fault-tolerance guard")
+                .tag("reason", reason.tag)
+                .register(registry));
+        }
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("inventory.client.circuit.state", breaker, b -> b.state() == state ? 1 : 0)
+                .description("1 for the circuit breaker's current state, 0 otherwise")
+                .tag("state", state.name().toLowerCase())
+                .register(registry);
+        }
+        Gauge.builder("inventory.client.bulkhead.in.flight", this, InventoryCallGuard::inFlight)
+            .description("Calls to inventory-service currently in flight")
+            .register(registry);
+    }
+
+    /**
+     * Starts the time budget for one order's inventory calls.
+     */
+    public Deadline newDeadline() {
+        return new Deadline(System.nanoTime() + deadline.toNanos());
+    }
+
+    public int inFlight() {
+        return maxConcurrent - bulkhead.availablePermits();
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    /**
+     * Makes a call that does not belong to an order; only {@code call-timeout} bounds it.
+     */
+    public <T> Uni<T> call(InventoryCallMetrics.Operation operation, Supplier<Uni<T>> call) {
+        return call(operation, null, call);
+    }
+
+    /**
+     * Makes {@code call} within what is left of {@code deadline} (only
+     * {@code call-timeout} applies when null). The call is timed by {@link InventoryCallMetrics},
+     * including refusals and timeouts.
+     */
+    public <T> Uni<T> call(InventoryCallMetrics.Operation operation, Deadline deadline, Supplier<Uni<T>> call) {
+        return callMetrics.time(operation, Uni.createFrom().deferred(() -> {
+            long remaining = deadline == null ? Long.MAX_VALUE : deadline.remainingNanos();
+            if (remaining <= 0) {
+                return reject(InventoryUnavailableException.Reason.DEADLINE_EXCEEDED);
+            }
+            if (!bulkhead.tryAcquire()) {
+                return reject(InventoryUnavailableException.Reason.BULKHEAD_FULL);
+            }
+            if (!breaker.tryAcquire()) {
+                bulkhead.release();
+                return reject(InventoryUnavailableException.Reason.CIRCUIT_OPEN);
+            }
+            Uni<T> downstream;
+            try {
+                downstream = call.get();
+            } catch (RuntimeException e) {
+                bulkhead.release();
+                breaker.onFailure();
+                return Uni.createFrom().failure(e);
+            }
+            return downstream
+                .ifNoItem().after(Duration.ofNanos(Math.min(remaining, callTimeout.toNanos())))
+                .failWith(() -> {
+                    rejections.get(InventoryUnavailableException.Reason.TIMEOUT).increment();
+                    return new InventoryUnavailableException(InventoryUnavailableException.Reason.TIMEOUT);
+                })
+                .onTermination().invoke((item, failure, cancelled) -> {
+                    bulkhead.release();
+                    if (cancelled) {
+                        breaker.onCancel();
+                    } else {
+                        record(failure);
+                    }
+                });
+        }));
+    }
+
+    private <T> Uni<T> reject(InventoryUnavailableException.Reason reason) {
+        rejections.get(reason).increment();
+        return Uni.createFrom().failure(new InventoryUnavailableException(reason));
+    }
+
+    private void record(Throwable failure) {
+        CircuitBreaker.State before = breaker.state();
+        if (failure == null
+                || failure instanceof WebApplicationException e && e.getResponse().getStatus() < 500) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+        CircuitBreaker.State after = breaker.state();
+        if (before != after) {
+            if (after == CircuitBreaker.State.OPEN) {
+                LOG.warnf("🔌 Circuit to inventory-service opened, failing fast for %d ms (last failure: %s)",
+                    openDuration.toMillis(), failure);
+            } else if (after == CircuitBreaker.State.CLOSED) {
+                LOG.info("🔌 Circuit to inventory-service closed");
+            }
+        }
+    }
+
+    /**
+     * Point on the {@link System#nanoTime()} scale by which an order's
+     * inventory calls must have completed.
+     */
+    public record Deadline(long expiresAtNanos) {
+        public long remainingNanos() {
+            return expiresAtNanos - System.nanoTime();
+        }
+    }
+}
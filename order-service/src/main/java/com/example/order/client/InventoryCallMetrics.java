@@ -0,0 +1,107 @@
+package com.example.order.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times every call to inventory-service by operation and outcome. A call is
+ * REJECTED when inventory-service answered with a 4xx (a business outcome such
+ * as insufficient stock) and ERROR for 5xx responses, timeouts and connection
+ * failures, so the downstream error rate is the ERROR share of each operation.
+ * All timers are created up front; recording does no registry lookups.
+ */
+@ApplicationScoped
+public class InventoryCallMetrics {
+
+    public enum Operation {
+        GET_PRODUCT("get"),
+        CHECK_AVAILABILITY("check"),
+        RESERVE("reserve"),
+        RESERVE_BATCH("reserve_batch"),
+        HOLD("hold"),
+        CONFIRM_HOLD("confirm_hold"),
+        RELEASE_HOLD("release_hold");
+
+        final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    enum Outcome {
+        SUCCESS,
+        REJECTED,
+        ERROR
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Operation, Timer[]> timers = new EnumMap<>(Operation.class);
+
+    @PostConstruct
+    void init() {
+        for (Operation operation : Operation.values()) {
+            Timer[] byOutcome = new Timer[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome[outcome.ordinal()] = Timer.builder("inventory.client.requests")
+                    .description("Calls to inventory-service by operation and outcome")
+                    .tag("operation", operation.tag)
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+            }
+            timers.put(operation, byOutcome);
+        }
+    }
+
+    /**
+     * Times a blocking call.
+     */
+    public <T> T time(Operation operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(operation, Outcome.SUCCESS, start);
+            return result;
+        } catch (RuntimeException e) {
+            record(operation, outcome(e), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Times a reactive call from subscription to item or failure.
+     */
+    public <T> Uni<T> time(Operation operation, Uni<T> call) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return call.onItemOrFailure().invoke((item, failure) ->
+                record(operation, failure == null ? Outcome.SUCCESS : outcome(failure), start));
+        });
+    }
+
+    private void record(Operation operation, Outcome outcome, long startNanos) {
+        timers.get(operation)[outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Outcome outcome(Throwable failure) {
+        if (failure instanceof WebApplicationException e && e.getResponse().getStatus() < 500) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.ERROR;
+    }
+}
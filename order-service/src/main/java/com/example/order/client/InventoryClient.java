@@ -1,12 +1,18 @@
 package com.example.order.client;
 
 import com.example.order.model.Product;
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @Path("/inventory")
 @RegisterRestClient(configKey = "inventory-api")
+@RegisterProvider(InventoryTransport.class)
+@RegisterProvider(InventoryWireFormat.class)
+@RegisterProvider(SmileProvider.class)
 public interface InventoryClient {
 
     @GET
@@ -19,10 +25,72 @@ public interface InventoryClient {
     @Produces(MediaType.APPLICATION_JSON)
     AvailabilityResponse checkAvailability(@PathParam("id") Long id, @QueryParam("quantity") int quantity);
 
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<Product> getProductAsync(@PathParam("id") Long id);
+
+    @GET
+    @Path("/{id}/check")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<AvailabilityResponse> checkAvailabilityAsync(@PathParam("id") Long id, @QueryParam("quantity") int quantity);
+
     @POST
     @Path("/{id}/reserve")
     @Produces(MediaType.APPLICATION_JSON)
-    ReservationResponse reserveProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity);
+    ReservationResponse reserveProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                       @HeaderParam("Idempotency-Key") String idempotencyKey);
+
+    @POST
+    @Path("/{id}/reserve")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<ReservationResponse> reserveProductAsync(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                                 @HeaderParam("Idempotency-Key") String idempotencyKey);
+
+    @POST
+    @Path("/{id}/holds")
+    @Produces(MediaType.APPLICATION_JSON)
+    HoldResponse holdProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                             @QueryParam("ttlMs") Long ttlMs, @HeaderParam("Idempotency-Key") String idempotencyKey);
+
+    @POST
+    @Path("/{id}/holds")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<HoldResponse> holdProductAsync(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                       @QueryParam("ttlMs") Long ttlMs,
+                                       @HeaderParam("Idempotency-Key") String idempotencyKey);
+
+    @POST
+    @Path("/holds/{holdId}/confirm")
+    @Produces(MediaType.APPLICATION_JSON)
+    HoldResponse confirmHold(@PathParam("holdId") String holdId);
+
+    @POST
+    @Path("/holds/{holdId}/confirm")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<HoldResponse> confirmHoldAsync(@PathParam("holdId") String holdId);
+
+    @DELETE
+    @Path("/holds/{holdId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    HoldResponse releaseHold(@PathParam("holdId") String holdId);
+
+    @DELETE
+    @Path("/holds/{holdId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<HoldResponse> releaseHoldAsync(@PathParam("holdId") String holdId);
+
+    @POST
+    @Path("/reserve-batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    BatchReservationResponse reserveBatch(BatchReservationRequest request, @QueryParam("atomic") boolean atomic);
+
+    @POST
+    @Path("/reserve-batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<BatchReservationResponse> reserveBatchAsync(BatchReservationRequest request, @QueryParam("atomic") boolean atomic);
 
     class AvailabilityResponse {
         public boolean available;
@@ -38,6 +106,10 @@ public interface InventoryClient {
     class ReservationResponse {
         public boolean success;
         public String message;
+        public Long productId;
+        public String productName;
+        public Integer remainingQuantity;
+        public Long productVersion;
 
         public ReservationResponse() {
         }
@@ -46,6 +118,68 @@ public interface InventoryClient {
             this.success = success;
             this.message = message;
         }
+
+        public ReservationResponse(boolean success, String message, Long productId, String productName,
+                                   Integer remainingQuantity) {
+            this(success, message);
+            this.productId = productId;
+            this.productName = productName;
+            this.remainingQuantity = remainingQuantity;
+        }
     }
-}
 
+    class HoldResponse extends ReservationResponse {
+        public String holdId;
+        public int quantity;
+        public long expiresAt;
+
+        public HoldResponse() {
+        }
+    }
+
+    class ReservationLine {
+        public Long productId;
+        public int quantity;
+
+        public ReservationLine() {
+        }
+
+        public ReservationLine(Long productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    class BatchReservationRequest {
+        public List<ReservationLine> lines;
+
+        public BatchReservationRequest() {
+        }
+
+        public BatchReservationRequest(List<ReservationLine> lines) {
+            this.lines = lines;
+        }
+    }
+
+    class BatchReservationResponse {
+        public boolean success;
+        public String message;
+        public List<LineResult> lines;
+
+        public BatchReservationResponse() {
+        }
+    }
+
+    class LineResult {
+        public Long productId;
+        public int quantity;
+        public boolean success;
+        public String message;
+        public String productName;
+        public Integer remainingQuantity;
+        public Long productVersion;
+
+        public LineResult() {
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.order.client;
+
+import com.example.order.model.Product;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Front door for read calls to inventory-service. Concurrent identical reads
+ * (same product, same requested quantity) share one downstream request, which
+ * goes through the {@link InventoryCallGuard}. With hedging enabled, a read
+ * that is slower than the recent latency percentile is sent a second time
+ * (see {@link Hedger}).
+ */
+@ApplicationScoped
+public class InventoryGateway {
+
+    private static final Logger LOG = Logger.getLogger(InventoryGateway.class);
+
+    @Inject
+    @RestClient
+    InventoryClient inventoryClient;
+
+    @Inject
+    InventoryCallGuard guard;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "order.inventory.hedging.enabled", defaultValue = "false")
+    boolean hedgingEnabled;
+
+    @ConfigProperty(name = "order.inventory.hedging.percentile", defaultValue = "0.95")
+    double hedgingPercentile;
+
+    /** Largest share of extra read calls that hedges may add. */
+    @ConfigProperty(name = "order.inventory.hedging.budget", defaultValue = "0.05")
+    double hedgingBudget;
+
+    @ConfigProperty(name = "order.inventory.hedging.min-delay", defaultValue = "5ms")
+    Duration hedgingMinDelay;
+
+    @ConfigProperty(name = "order.inventory.hedging.max-delay", defaultValue = "500ms")
+    Duration hedgingMaxDelay;
+
+    private final SingleFlight<Long, Product> productReads = new SingleFlight<>();
+    private final SingleFlight<AvailabilityKey, InventoryClient.AvailabilityResponse> availabilityReads =
+        new SingleFlight<>();
+    private Hedger productHedge;
+    private Hedger availabilityHedge;
+
+    @PostConstruct
+    void init() {
+        bindCoalescingMetrics("get", productReads);
+        bindCoalescingMetrics("check", availabilityReads);
+        if (hedgingEnabled) {
+            productHedge = new Hedger(hedgingPercentile, hedgingBudget, hedgingMinDelay, hedgingMaxDelay);
+            availabilityHedge = new Hedger(hedgingPercentile, hedgingBudget, hedgingMinDelay, hedgingMaxDelay);
+            bindHedgingMetrics("get", productHedge);
+            bindHedgingMetrics("check", availabilityHedge);
+            LOG.infof("🏗️ Hedged inventory reads enabled (p%.0f delay, budget: %.0f%% extra calls)",
+                hedgingPercentile * 100, hedgingBudget * 100);
+        }
+    }
+
+    public Uni<Product> getProduct(Long id) {
+        return Uni.createFrom().completionStage(() ->
+            productReads.execute(id, () -> hedged(productHedge,
+                () -> guard.call(InventoryCallMetrics.Operation.GET_PRODUCT, () -> inventoryClient.getProductAsync(id)))
+                .subscribeAsCompletionStage()));
+    }
+
+    public Uni<InventoryClient.AvailabilityResponse> checkAvailability(Long id, int quantity) {
+        return Uni.createFrom().completionStage(() ->
+            availabilityReads.execute(new AvailabilityKey(id, quantity),
+                () -> hedged(availabilityHedge, () -> guard.call(InventoryCallMetrics.Operation.CHECK_AVAILABILITY,
+                    () -> inventoryClient.checkAvailabilityAsync(id, quantity))).subscribeAsCompletionStage()));
+    }
+
+    private static <T> Uni<T> hedged(Hedger hedger, Supplier<Uni<T>> call) {
+        return hedger == null ? call.get() : hedger.execute(call);
+    }
+
+    public SingleFlight<Long, Product> productReads() {
+        return productReads;
+    }
+
+    public SingleFlight<AvailabilityKey, InventoryClient.AvailabilityResponse> availabilityReads() {
+        return availabilityReads;
+    }
+
+    private void bindCoalescingMetrics(String operation, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("inventory.coalescing.calls", flight, SingleFlight::calls)
+            .description("Read calls made through the gateway")
+            .tag("operation", operation)
+            .register(registry);
+        FunctionCounter.builder("inventory.coalescing.deduplicated", flight, SingleFlight::deduplicated)
+            .description("Read calls that joined an identical in-flight request")
+            .tag("operation", operation)
+            .register(registry);
+        Gauge.builder("inventory.coalescing.in.flight", flight, SingleFlight::inFlight)
+            .description("Distinct read requests currently in flight")
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    private void bindHedgingMetrics(String operation, Hedger hedger) {
+        FunctionCounter.builder("inventory.client.hedges", hedger, Hedger::hedges)
+            .description("Read hedges: sent, won (answered before the first call) or over_budget (not sent)")
+            .tag("operation", operation)
+            .tag("outcome", "sent")
+            .register(registry);
+        FunctionCounter.builder("inventory.client.hedges", hedger, Hedger::wins)
+            .description("Read hedges: sent, won (answered before the first call) or over_budget (not sent)")
+            .tag("operation", operation)
+            .tag("outcome", "won")
+            .register(registry);
+        FunctionCounter.builder("inventory.client.hedges", hedger, Hedger::overBudget)
+            .description("Read hedges: sent, won (answered before the first call) or over_budget (not sent)")
+            .tag("operation", operation)
+            .tag("outcome", "over_budget")
+            .register(registry);
+        TimeGauge.builder("inventory.client.hedge.delay", hedger, TimeUnit.NANOSECONDS,
+                h -> Math.max(0, h.delayNanos()))
+            .description("Time a read waits before it is hedged (0 while warming up)")
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    public record AvailabilityKey(Long productId, int quantity) {
+    }
+}
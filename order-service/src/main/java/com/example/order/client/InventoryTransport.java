@@ -0,0 +1,127 @@
+package com.example.order.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.ContextResolver;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport profile of the inventory-api REST client: HTTP/1.1 with an
+ * optionally pipelined connection pool, or HTTP/2 with prior knowledge
+ * (no upgrade round trip) multiplexing many requests over few connections.
+ *
+ * The pool size itself is {@code quarkus.rest-client."inventory-api".connection-pool-size},
+ * which the REST client applies after these options for both protocols.
+ * Vert.x reports the pool's wait queue as {@code http.client.queue.delay}
+ * and {@code http.client.queue.size} for {@code clientName=inventory-api};
+ * this class adds the capacity and utilization of the pool.
+ */
+@ApplicationScoped
+public class InventoryTransport implements ContextResolver<HttpClientOptions> {
+
+    private static final Logger LOG = Logger.getLogger(InventoryTransport.class);
+
+    static final String CLIENT_NAME = "inventory-api";
+
+    public enum Protocol {
+        HTTP1,
+        HTTP2
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    InventoryCallGuard guard;
+
+    @ConfigProperty(name = "order.inventory.transport.protocol", defaultValue = "http1")
+    Protocol protocol;
+
+    @ConfigProperty(name = "quarkus.rest-client.\"inventory-api\".connection-pool-size", defaultValue = "20")
+    int poolSize;
+
+    /**
+     * Requests in flight on one connection: the pipelining limit for HTTP/1.1
+     * (1 disables pipelining) or the multiplexing limit for HTTP/2. 0 picks
+     * the protocol's default of 1 or 100.
+     */
+    @ConfigProperty(name = "order.inventory.transport.max-in-flight-per-connection", defaultValue = "0")
+    int maxInFlightPerConnection;
+
+    /** Connections idle for this long are closed; 0 keeps them open. */
+    @ConfigProperty(name = "order.inventory.transport.idle-timeout", defaultValue = "60s")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "order.inventory.transport.pool-cleaner-period", defaultValue = "1s")
+    Duration poolCleanerPeriod;
+
+    /** Requests that may wait for a connection; -1 is unbounded. */
+    @ConfigProperty(name = "order.inventory.transport.max-wait-queue", defaultValue = "-1")
+    int maxWaitQueue;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("inventory.client.pool.capacity", this, InventoryTransport::capacity)
+            .description("Requests the inventory-api connection pool can have in flight at once")
+            .register(registry);
+        Gauge.builder("inventory.client.pool.utilization", this, InventoryTransport::utilization)
+            .description("Share of the inventory-api connection pool capacity in use")
+            .register(registry);
+        LOG.infof("🏗️ Inventory client transport: %s, %d connections x %d requests, idle timeout %s",
+            protocol, poolSize, inFlightPerConnection(), idleTimeout);
+    }
+
+    @Override
+    public HttpClientOptions getContext(Class<?> type) {
+        HttpClientOptions options = new HttpClientOptions()
+            .setName(CLIENT_NAME)
+            // "<type>|<name>" is what makes the Quarkus Vert.x binder create the http.client.* pool meters
+            .setMetricsName("http-client|" + CLIENT_NAME)
+            .setMaxWaitQueueSize(maxWaitQueue)
+            .setIdleTimeout((int) idleTimeout.toMillis())
+            .setIdleTimeoutUnit(TimeUnit.MILLISECONDS)
+            .setPoolCleanerPeriod((int) poolCleanerPeriod.toMillis());
+        if (protocol == Protocol.HTTP2) {
+            options.setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(false)
+                .setHttp2MultiplexingLimit(inFlightPerConnection());
+        } else {
+            options.setProtocolVersion(HttpVersion.HTTP_1_1)
+                .setPipelining(inFlightPerConnection() > 1)
+                .setPipeliningLimit(inFlightPerConnection());
+        }
+        return options;
+    }
+
+    public Protocol protocol() {
+        return protocol;
+    }
+
+    int inFlightPerConnection() {
+        if (maxInFlightPerConnection > 0) {
+            return maxInFlightPerConnection;
+        }
+        return protocol == Protocol.HTTP2 ? 100 : 1;
+    }
+
+    double capacity() {
+        return (double) poolSize * inFlightPerConnection();
+    }
+
+    /**
+     * Calls in flight over {@link #capacity()}. Every inventory call goes
+     * through the {@link InventoryCallGuard}, so its in-flight count is the
+     * number of requests holding or waiting for a connection.
+     */
+    double utilization() {
+        return guard.inFlight() / capacity();
+    }
+}
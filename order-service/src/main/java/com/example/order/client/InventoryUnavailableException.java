@@ -0,0 +1,35 @@
+package com.example.order.client;
+
+/**
+ * A call to inventory-service that {@link InventoryCallGuard} refused to make
+ * or gave up on, so the caller can fail fast instead of waiting.
+ */
+public class InventoryUnavailableException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN("circuit_open", "circuit open"),
+        BULKHEAD_FULL("bulkhead_full", "too many concurrent calls"),
+        DEADLINE_EXCEEDED("deadline_exceeded", "request deadline exceeded"),
+        TIMEOUT("timeout", "call timed out");
+
+        public final String tag;
+        final String description;
+
+        Reason(String tag, String description) {
+            this.tag = tag;
+            this.description = description;
+        }
+    }
+
+    private final Reason reason;
+
+    public InventoryUnavailableException(Reason reason) {
+        // Thrown on the fast path while inventory-service is down; the stack trace carries nothing useful
+        super("Inventory service unavailable (" + reason.description + ")", null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason reason() {
+        return reason;
+    }
+}
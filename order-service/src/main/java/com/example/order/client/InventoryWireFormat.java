@@ -0,0 +1,48 @@
+package com.example.order.client;
+
+import com.example.common.SmileMessageBodyHandler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Body encoding of inventory-api calls: JSON, or Smile for less parsing and
+ * fewer bytes per call. With Smile, responses are requested as Smile with
+ * JSON as the fallback, so an inventory service without Smile support still
+ * answers; request bodies (batch reservations) are sent as Smile, which that
+ * inventory service would refuse.
+ */
+@ApplicationScoped
+public class InventoryWireFormat implements ClientRequestFilter {
+
+    private static final String SMILE_ACCEPT = SmileMessageBodyHandler.APPLICATION_SMILE + ", "
+        + MediaType.APPLICATION_JSON + ";q=0.5";
+
+    public enum Format {
+        JSON,
+        SMILE
+    }
+
+    @ConfigProperty(name = "order.inventory.wire-format", defaultValue = "json")
+    Format format;
+
+    @Override
+    public void filter(ClientRequestContext request) {
+        if (format != Format.SMILE) {
+            return;
+        }
+        request.getHeaders().putSingle(HttpHeaders.ACCEPT, SMILE_ACCEPT);
+        if (request.hasEntity()) {
+            request.setEntity(request.getEntity(), request.getEntityAnnotations(), SmileMessageBodyHandler.APPLICATION_SMILE_TYPE);
+            // setEntity picks the body writer but leaves the header as the method declared it
+            request.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, SmileMessageBodyHandler.APPLICATION_SMILE_TYPE);
+        }
+    }
+
+    public Format format() {
+        return format;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.order.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queues single-product reservations and sends them to inventory-service as
+ * non-atomic batches. A batch is flushed as soon as it holds
+ * {@code max-size} lines or {@code linger-ms} after its first line arrived,
+ * whichever comes first; each caller's future completes with its own line's
+ * result. This bounds the added latency to the linger time while turning many
+ * small HTTP calls into few larger ones under high load.
+ *
+ * Each line keeps its order's deadline: lines whose deadline has passed by the
+ * flush fail without being sent, and the batch call gets what is left of the
+ * earliest deadline among the others. Lines carry no Idempotency-Key, so
+ * reservations that need one must not be batched.
+ */
+@ApplicationScoped
+public class ReservationBatcher {
+
+    private static final Logger LOG = Logger.getLogger(ReservationBatcher.class);
+
+    @Inject
+    @RestClient
+    InventoryClient inventoryClient;
+
+    @Inject
+    InventoryCallGuard guard;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "order.reservation.batch.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.reservation.batch.max-size", defaultValue = "64")
+    int maxSize;
+
+    @ConfigProperty(name = "order.reservation.batch.linger-ms", defaultValue = "5")
+    long lingerMillis;
+
+    private final Object lock = new Object();
+    private List<PendingLine> current = new ArrayList<>();
+    private ScheduledExecutorService timer;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        FunctionCounter.builder("order.reservation.batches", this, ReservationBatcher::batchesSent)
+            .description("Reservation batches sent to inventory-service")
+            .register(registry);
+        FunctionCounter.builder("order.reservation.batch.lines", this, ReservationBatcher::linesSent)
+            .description("Reservation lines sent in batches")
+            .register(registry);
+        if (enabled) {
+            LOG.infof("🏗️ Reservation batching enabled (max size: %d, linger: %d ms)", maxSize, lingerMillis);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a reservation. {@code deadline} is the order's budget, or null
+     * when only {@code call-timeout} applies.
+     */
+    public CompletableFuture<InventoryClient.LineResult> submit(Long productId, int quantity,
+                                                                InventoryCallGuard.Deadline deadline) {
+        PendingLine line = new PendingLine(new InventoryClient.ReservationLine(productId, quantity), deadline);
+        List<PendingLine> full = null;
+        synchronized (lock) {
+            List<PendingLine> batch = current;
+            batch.add(line);
+            if (batch.size() >= maxSize) {
+                full = batch;
+                current = new ArrayList<>(maxSize);
+            } else if (batch.size() == 1) {
+                timer.schedule(() -> flushIfCurrent(batch), lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return line.result;
+    }
+
+    public long batchesSent() {
+        return batches.sum();
+    }
+
+    public long linesSent() {
+        return lines.sum();
+    }
+
+    private void flushIfCurrent(List<PendingLine> batch) {
+        synchronized (lock) {
+            // Already flushed because it filled up before the linger time elapsed
+            if (current != batch) {
+                return;
+            }
+            current = new ArrayList<>(maxSize);
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(List<PendingLine> queued) {
+        List<PendingLine> batch = new ArrayList<>(queued.size());
+        InventoryCallGuard.Deadline earliest = null;
+        for (PendingLine line : queued) {
+            if (line.deadline == null) {
+                batch.add(line);
+            } else if (line.deadline.remainingNanos() <= 0) {
+                line.result.completeExceptionally(
+                    new InventoryUnavailableException(InventoryUnavailableException.Reason.DEADLINE_EXCEEDED));
+            } else {
+                batch.add(line);
+                if (earliest == null || line.deadline.expiresAtNanos() - earliest.expiresAtNanos() < 0) {
+                    earliest = line.deadline;
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        lines.add(batch.size());
+        LOG.debugf("Flushing reservation batch of %d lines", batch.size());
+
+        List<InventoryClient.ReservationLine> requestLines = new ArrayList<>(batch.size());
+        for (PendingLine pending : batch) {
+            requestLines.add(pending.line);
+        }
+
+        guard.call(InventoryCallMetrics.Operation.RESERVE_BATCH, earliest,
+                () -> inventoryClient.reserveBatchAsync(new InventoryClient.BatchReservationRequest(requestLines), false))
+            .subscribe().with(
+                response -> {
+                    if (response.lines == null || response.lines.size() != batch.size()) {
+                        failAll(batch, new IllegalStateException("Batch response does not match request"));
+                        return;
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).result.complete(response.lines.get(i));
+                    }
+                },
+                failure -> failAll(batch, failure));
+    }
+
+    private static void failAll(List<PendingLine> batch, Throwable failure) {
+        if (failure instanceof InventoryUnavailableException) {
+            LOG.warnf("⚠️ Reservation batch of %d lines failed: %s", batch.size(), failure.getMessage());
+        } else {
+            LOG.errorf(failure, "❌ Reservation batch of %d lines failed", batch.size());
+        }
+        for (PendingLine pending : batch) {
+            pending.result.completeExceptionally(failure);
+        }
+    }
+
+    private static final class PendingLine {
+        final InventoryClient.ReservationLine line;
+        final InventoryCallGuard.Deadline deadline;
+        final CompletableFuture<InventoryClient.LineResult> result = new CompletableFuture<>();
+
+        PendingLine(InventoryClient.ReservationLine line, InventoryCallGuard.Deadline deadline) {
+            this.line = line;
+            this.deadline = deadline;
+        }
+    }
+}
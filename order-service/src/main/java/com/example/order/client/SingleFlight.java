@@ -0,0 +1,59 @@
+package com.example.order.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight,
+ * further callers for the same key attach to it instead of issuing their own.
+ * The entry is removed before the shared result is published, so a caller
+ * arriving after completion always starts a fresh call and never sees a
+ * stale result.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public CompletableFuture<V> execute(K key, Supplier<? extends CompletionStage<V>> call) {
+        calls.increment();
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            deduplicated.increment();
+            // Each caller gets its own copy so one caller cancelling cannot cancel the others
+            return existing.copy();
+        }
+
+        try {
+            call.get().whenComplete((value, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long deduplicated() {
+        return deduplicated.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
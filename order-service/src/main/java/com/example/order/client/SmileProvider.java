@@ -0,0 +1,24 @@
+package com.example.order.client;
+
+import com.example.common.SmileMessageBodyHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+
+/**
+ * Smile bodies for the inventory-api client, used when
+ * {@link InventoryWireFormat} asks for them. Registered on the client only,
+ * so the order service's own endpoints keep speaking JSON.
+ */
+@Singleton
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileProvider extends SmileMessageBodyHandler {
+
+    @Inject
+    public SmileProvider(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+}
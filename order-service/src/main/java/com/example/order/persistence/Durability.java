@@ -0,0 +1,17 @@
+package com.example.order.persistence;
+
+/**
+ * When an appended order counts as written.
+ */
+public enum Durability {
+    /**
+     * The order is queued for the journal writer and the request continues
+     * immediately. A crash can lose the orders written in the last moments.
+     */
+    ASYNC,
+    /**
+     * The request waits until the writer has written and fsynced the batch
+     * containing the order. Concurrent orders share one fsync.
+     */
+    STRICT
+}
@@ -0,0 +1,14 @@
+package com.example.order.persistence;
+
+/**
+ * The order journal's write queue is full: the disk is not keeping up with
+ * incoming orders. Thrown instead of waiting for room, so that a slow disk
+ * cannot stall the thread appending the order.
+ */
+public class JournalFullException extends RuntimeException {
+
+    public JournalFullException(int capacity) {
+        // Thrown on every order while the disk is behind; the stack trace carries nothing useful
+        super("Order journal is full (" + capacity + " orders waiting for the disk)", null, false, false);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.order.persistence;
+
+import com.example.order.model.Order;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Binary order record: id, product ID and quantity, then the status and the
+ * product name. The common CONFIRMED status is stored as a single flag byte
+ * instead of a string. Strings are length-prefixed UTF-8; a length of -1 is null.
+ */
+final class OrderCodec {
+
+    static final String CONFIRMED = "CONFIRMED";
+
+    private static final byte STATUS_CONFIRMED = 0;
+    private static final byte STATUS_TEXT = 1;
+
+    private OrderCodec() {
+    }
+
+    static int maxEncodedSize(Order order) {
+        return Long.BYTES * 2 + Integer.BYTES + 1
+            + Integer.BYTES + maxBytes(order.getStatus())
+            + Integer.BYTES + maxBytes(order.getProductName());
+    }
+
+    static void encode(ByteBuffer out, Order order) {
+        out.putLong(order.getId());
+        out.putLong(order.getProductId());
+        out.putInt(order.getQuantity());
+        if (CONFIRMED.equals(order.getStatus())) {
+            out.put(STATUS_CONFIRMED);
+        } else {
+            out.put(STATUS_TEXT);
+            putString(out, order.getStatus());
+        }
+        putString(out, order.getProductName());
+    }
+
+    /**
+     * Decodes one order. Repeated strings (product names, failure reasons) are
+     * canonicalized through {@code strings} so a recovered store holds one copy of each.
+     */
+    static Order decode(ByteBuffer in, Map<String, String> strings) {
+        long id = in.getLong();
+        long productId = in.getLong();
+        int quantity = in.getInt();
+        String status = in.get() == STATUS_CONFIRMED ? CONFIRMED : getString(in, strings);
+        String productName = getString(in, strings);
+        return new Order(id, productId, productName, quantity, status);
+    }
+
+    private static int maxBytes(String value) {
+        return value == null ? 0 : value.length() * 3;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in, Map<String, String> strings) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        String canonical = strings.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+}
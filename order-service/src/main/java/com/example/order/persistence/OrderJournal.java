@@ -0,0 +1,47 @@
+package com.example.order.persistence;
+
+import com.example.order.model.Order;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Durable record of created orders. {@link #append} never blocks on disk
+ * I/O; the returned future completes once the order is as durable as the
+ * journal promises, which may already be the case when it returns. If the
+ * journal cannot take the order without waiting, the future fails with
+ * {@link JournalFullException}.
+ *
+ * An order that has side effects before it can be journaled (stock reserved
+ * in inventory-service) takes its room with {@link #reserve} first, so a
+ * full journal refuses it before anything has happened.
+ */
+public interface OrderJournal extends AutoCloseable {
+
+    /** Journal that records nothing, for purely in-memory order stores. */
+    OrderJournal NONE = order -> OrderLog.DONE;
+
+    CompletableFuture<Void> append(Order order);
+
+    /**
+     * Takes room for one order, or throws {@link JournalFullException} if
+     * there is none. The room is used by {@link Slot#append} or handed back
+     * with {@link Slot#cancel}.
+     */
+    default Slot reserve() {
+        return this::append;
+    }
+
+    /** Room for one order in the journal, see {@link #reserve}. */
+    interface Slot {
+
+        /** Like {@link OrderJournal#append}, but never refused for lack of room. */
+        CompletableFuture<Void> append(Order order);
+
+        /** Hands the room back if the order will not be appended after all. */
+        default void cancel() {
+        }
+    }
+
+    @Override
+    default void close() {
+    }
+}
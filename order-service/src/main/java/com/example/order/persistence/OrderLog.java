@@ -0,0 +1,485 @@
+package com.example.order.persistence;
+
+import com.example.order.model.Order;
+import org.jboss.logging.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * File-backed order journal: a binary append log split into segment files,
+ * each framed as {@code [length][crc32][order]} records, with a small
+ * {@link SegmentIndex} written next to every closed segment.
+ *
+ * Request threads only enqueue the order, or fail it with
+ * {@link JournalFullException} when the queue is full. Room in the queue is
+ * counted by a semaphore, so it can also be taken before the order exists
+ * ({@link #reserve}); the writer hands it back as it takes orders off the
+ * queue. A single writer
+ * thread drains the queue in batches, encodes them into one buffer and
+ * writes it with a single system call; with {@link Durability#STRICT} it
+ * also fsyncs the batch before completing the callers' futures, so
+ * concurrent orders share one fsync.
+ *
+ * Opening a journal first repairs a torn tail segment left by a crash, then
+ * replays every segment in parallel into the order store and reports the
+ * highest order ID seen. New orders always go to a fresh segment.
+ */
+public final class OrderLog implements OrderJournal {
+
+    private static final Logger LOG = Logger.getLogger(OrderLog.class);
+
+    static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    static final int FRAME_HEADER = Integer.BYTES * 2;
+    private static final int MAX_BATCH = 4096;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String PREFIX = "orders-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private final Durability durability;
+    private final int segmentSize;
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore room;
+    private final int queueCapacity;
+    private final Thread writer;
+    private final CRC32 crc = new CRC32();
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private long segmentIndex;
+    private SegmentIndex written = SegmentIndex.empty();
+    // Records sitting in the buffer; folded into written once they reach the file
+    private SegmentIndex pendingIndex = SegmentIndex.empty();
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private long recoveredOrders;
+    private long maxRecoveredId;
+
+    private record Pending(Order order, CompletableFuture<Void> done) {
+    }
+
+    private OrderLog(Path directory, Durability durability, int segmentSize, int queueCapacity) {
+        this.directory = directory;
+        this.durability = durability;
+        this.segmentSize = segmentSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.room = new Semaphore(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.writer = new Thread(this::writeLoop, "order-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Recovers the journal in {@code directory} (creating it if needed),
+     * passing every recovered order to {@code sink}, and opens it for
+     * appending. {@code sink} is called from several threads at once.
+     */
+    public static OrderLog open(Path directory, Durability durability, int segmentSize, int queueCapacity,
+                                Consumer<Order> sink) throws IOException {
+        if (segmentSize < BUFFER_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + BUFFER_SIZE + " bytes");
+        }
+        Files.createDirectories(directory);
+        OrderLog log = new OrderLog(directory, durability, segmentSize, queueCapacity);
+        log.segmentIndex = log.recover(sink);
+        log.channel = FileChannel.open(segmentPath(directory, log.segmentIndex),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        log.writer.start();
+        return log;
+    }
+
+    /** Number of orders replayed when the journal was opened. */
+    public long recoveredOrders() {
+        return recoveredOrders;
+    }
+
+    /** Highest order ID found when the journal was opened, or 0 if it was empty. */
+    public long maxRecoveredId() {
+        return maxRecoveredId;
+    }
+
+    @Override
+    public CompletableFuture<Void> append(Order order) {
+        // A full queue means the disk cannot keep up; callers may be on the event loop, so fail rather than wait
+        if (!room.tryAcquire()) {
+            return CompletableFuture.failedFuture(new JournalFullException(queueCapacity));
+        }
+        return enqueue(order);
+    }
+
+    @Override
+    public Slot reserve() {
+        if (!room.tryAcquire()) {
+            throw new JournalFullException(queueCapacity);
+        }
+        return new Reservation();
+    }
+
+    /** Room taken by {@link #reserve}, returned to the semaphore by whichever of append and cancel comes first. */
+    private final class Reservation implements Slot {
+
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        @Override
+        public CompletableFuture<Void> append(Order order) {
+            if (!used.compareAndSet(false, true)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Journal slot already used"));
+            }
+            return enqueue(order);
+        }
+
+        @Override
+        public void cancel() {
+            if (used.compareAndSet(false, true)) {
+                room.release();
+            }
+        }
+    }
+
+    /** Queues an order for which room has been taken. */
+    private CompletableFuture<Void> enqueue(Order order) {
+        IOException error = failure;
+        if (error != null) {
+            room.release();
+            return CompletableFuture.failedFuture(error);
+        }
+        if (closed) {
+            room.release();
+            return CompletableFuture.failedFuture(new IllegalStateException("Order journal is closed"));
+        }
+        CompletableFuture<Void> done = durability == Durability.STRICT ? new CompletableFuture<>() : null;
+        // Cannot fail: the semaphore never hands out more room than the queue has
+        queue.add(new Pending(order, done));
+        return done != null ? done : DONE;
+    }
+
+    // ---- recovery ----
+
+    private long recover(Consumer<Order> sink) throws IOException {
+        long start = System.nanoTime();
+        deleteTemporaryFiles();
+
+        List<Long> segments = new ArrayList<>();
+        List<SegmentIndex> indexes = new ArrayList<>();
+        long next = 0;
+        for (long index : segmentIndexes()) {
+            next = index + 1;
+            Path file = segmentPath(directory, index);
+            SegmentIndex summary = SegmentIndex.read(indexPath(directory, index));
+            if (summary == null || summary.length() > Files.size(file)) {
+                summary = repair(file);
+                if (summary.records() > 0) {
+                    summary.write(indexPath(directory, index));
+                }
+            }
+            if (summary.records() == 0) {
+                Files.deleteIfExists(indexPath(directory, index));
+                Files.delete(file);
+                continue;
+            }
+            segments.add(index);
+            indexes.add(summary);
+        }
+
+        SegmentIndex total = replay(directory, segments, indexes, sink);
+        recoveredOrders = total.records();
+        maxRecoveredId = total.maxId();
+        LOG.infof("✅ Recovered %d orders from %d journal segments in %d ms (highest order ID: %d)",
+            (Object) recoveredOrders, (Object) segments.size(),
+            (Object) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), (Object) maxRecoveredId);
+        return next;
+    }
+
+    /**
+     * Scans a segment that has no usable index, which after a crash is the
+     * one that was being written, truncates it after the last intact record
+     * and returns its summary.
+     */
+    private SegmentIndex repair(Path file) throws IOException {
+        SegmentIndex summary = SegmentIndex.empty();
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 checksum = new CRC32();
+            while (data.remaining() >= FRAME_HEADER) {
+                int position = data.position();
+                int length = data.getInt();
+                int expected = data.getInt();
+                if (length < Long.BYTES || length > data.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = data.slice(position + FRAME_HEADER, length);
+                checksum.reset();
+                checksum.update(payload.duplicate());
+                if ((int) checksum.getValue() != expected) {
+                    break;
+                }
+                summary = summary.plus(payload.getLong(0), FRAME_HEADER + length);
+                data.position(position + FRAME_HEADER + length);
+            }
+            if (summary.length() < size) {
+                LOG.warnf("⚠️ Truncating order journal segment %s from %d to %d bytes after a torn write",
+                    file.getFileName(), (Object) size, (Object) summary.length());
+                in.truncate(summary.length());
+                in.force(true);
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Replays the segments in parallel. Orders are only ever inserted, so the
+     * order in which segments reach the sink does not matter.
+     */
+    private static SegmentIndex replay(Path directory, List<Long> segments, List<SegmentIndex> indexes, Consumer<Order> sink)
+            throws IOException {
+        Map<String, String> strings = new ConcurrentHashMap<>();
+        int threads = Math.max(1, Math.min(segments.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-journal-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < segments.size(); i++) {
+                Path file = segmentPath(directory, segments.get(i));
+                long length = indexes.get(i).length();
+                tasks.add(() -> {
+                    replaySegment(file, length, sink, strings);
+                    return null;
+                });
+            }
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while recovering the order journal", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to recover the order journal", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return indexes.stream().reduce(SegmentIndex.empty(), SegmentIndex::merge);
+    }
+
+    private static void replaySegment(Path file, long length, Consumer<Order> sink, Map<String, String> strings)
+            throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            CRC32 checksum = new CRC32();
+            while (data.hasRemaining()) {
+                int position = data.position();
+                int recordLength = data.getInt();
+                int expected = data.getInt();
+                ByteBuffer payload = data.slice(position + FRAME_HEADER, recordLength);
+                checksum.reset();
+                checksum.update(payload.duplicate());
+                if ((int) checksum.getValue() != expected) {
+                    throw new IOException("Corrupt record at offset " + position + " of " + file);
+                }
+                sink.accept(OrderCodec.decode(payload, strings));
+                data.position(position + FRAME_HEADER + recordLength);
+            }
+        }
+    }
+
+    // ---- writing ----
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+                closed = true;
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH - 1);
+            room.release(batch.size());
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        IOException error = failure;
+        if (error == null) {
+            try {
+                for (Pending pending : batch) {
+                    encode(pending.order());
+                }
+                flushBuffer();
+                if (durability == Durability.STRICT) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                LOG.errorf(e, "❌ Order journal write failed; new orders will no longer be journaled");
+                failure = error = e;
+            }
+        }
+        for (Pending pending : batch) {
+            if (pending.done() == null) {
+                continue;
+            }
+            if (error == null) {
+                pending.done().complete(null);
+            } else {
+                pending.done().completeExceptionally(error);
+            }
+        }
+    }
+
+    private void encode(Order order) throws IOException {
+        int maxRecord = FRAME_HEADER + OrderCodec.maxEncodedSize(order);
+        if (written.length() + buffer.position() > 0
+                && written.length() + buffer.position() + maxRecord > segmentSize) {
+            flushBuffer();
+            roll();
+        }
+        if (buffer.remaining() < maxRecord) {
+            flushBuffer();
+            if (buffer.capacity() < maxRecord) {
+                buffer = ByteBuffer.allocateDirect(maxRecord);
+            }
+        }
+        int start = buffer.position();
+        buffer.position(start + FRAME_HEADER);
+        OrderCodec.encode(buffer, order);
+        int length = buffer.position() - start - FRAME_HEADER;
+        crc.reset();
+        crc.update(buffer.slice(start + FRAME_HEADER, length));
+        buffer.putInt(start, length).putInt(start + Integer.BYTES, (int) crc.getValue());
+        pendingIndex = pendingIndex.plus(order.getId(), FRAME_HEADER + length);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        written = written.merge(pendingIndex);
+        pendingIndex = SegmentIndex.empty();
+    }
+
+    private void roll() throws IOException {
+        closeSegment();
+        segmentIndex++;
+        channel = FileChannel.open(segmentPath(directory, segmentIndex),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        written = SegmentIndex.empty();
+        LOG.debugf("Rolled order journal to segment %d", segmentIndex);
+    }
+
+    private void closeSegment() throws IOException {
+        channel.force(true);
+        channel.close();
+        if (written.records() == 0) {
+            Files.delete(segmentPath(directory, segmentIndex));
+        } else {
+            written.write(indexPath(directory, segmentIndex));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> late = new ArrayList<>();
+        queue.drainTo(late);
+        if (!late.isEmpty()) {
+            writeBatch(late);
+        }
+        if (failure == null) {
+            try {
+                closeSegment();
+            } catch (IOException e) {
+                LOG.errorf(e, "❌ Failed to close order journal segment %d", segmentIndex);
+            }
+        }
+    }
+
+    // ---- files ----
+
+    static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, index, LOG_SUFFIX));
+    }
+
+    static Path indexPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, index, INDEX_SUFFIX));
+    }
+
+    private List<Long> segmentIndexes() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(LOG_SUFFIX)) {
+                    try {
+                        indexes.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - LOG_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // not one of ours
+                    }
+                }
+            }
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
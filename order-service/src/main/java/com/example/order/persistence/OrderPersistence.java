@@ -0,0 +1,53 @@
+package com.example.order.persistence;
+
+import com.example.order.model.Order;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Configuration for the order journal.
+ */
+@ApplicationScoped
+public class OrderPersistence {
+
+    private static final Logger LOG = Logger.getLogger(OrderPersistence.class);
+
+    @ConfigProperty(name = "order.journal.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.journal.directory", defaultValue = "data/order-journal")
+    String directory;
+
+    @ConfigProperty(name = "order.journal.durability", defaultValue = "async")
+    Durability durability;
+
+    @ConfigProperty(name = "order.journal.segment-size", defaultValue = "64M")
+    MemorySize segmentSize;
+
+    @ConfigProperty(name = "order.journal.queue-capacity", defaultValue = "65536")
+    int queueCapacity;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recovers the journal into {@code sink} and opens it; the caller owns and closes it.
+     */
+    public OrderLog open(Consumer<Order> sink) {
+        Path path = Path.of(directory);
+        LOG.infof("🏗️ Opening order journal in %s (durability: %s, segment size: %d bytes)",
+            path.toAbsolutePath(), durability, segmentSize.asLongValue());
+        try {
+            return OrderLog.open(path, durability, Math.toIntExact(segmentSize.asLongValue()), queueCapacity, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order journal in " + path, e);
+        }
+    }
+}
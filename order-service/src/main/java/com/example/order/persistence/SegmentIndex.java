@@ -0,0 +1,67 @@
+package com.example.order.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Summary of a closed log segment, stored next to it as {@code orders-N.idx}:
+ * how many valid bytes and records it holds and the range of order IDs in it.
+ * Recovery uses it to restore the ID counter and to replay closed segments
+ * in parallel without scanning for their end.
+ */
+record SegmentIndex(long records, long length, long minId, long maxId) {
+
+    private static final int MAGIC = 0x4F524458; // "ORDX"
+    private static final int SIZE = Integer.BYTES + 4 * Long.BYTES + Integer.BYTES;
+
+    static SegmentIndex empty() {
+        return new SegmentIndex(0, 0, Long.MAX_VALUE, 0);
+    }
+
+    SegmentIndex plus(long id, int recordLength) {
+        return new SegmentIndex(records + 1, length + recordLength, Math.min(minId, id), Math.max(maxId, id));
+    }
+
+    SegmentIndex merge(SegmentIndex other) {
+        return new SegmentIndex(records + other.records, length + other.length,
+            Math.min(minId, other.minId), Math.max(maxId, other.maxId));
+    }
+
+    void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.putInt(MAGIC).putLong(records).putLong(length).putLong(minId).putLong(maxId);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns the index stored in {@code file}, or null if it is missing or damaged.
+     */
+    static SegmentIndex read(Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+        if (bytes.length != SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, SIZE - Integer.BYTES);
+        if (buffer.getInt() != MAGIC || buffer.getInt(SIZE - Integer.BYTES) != (int) crc.getValue()) {
+            return null;
+        }
+        return new SegmentIndex(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.order.resource;
+
+import com.example.order.service.ProductCatalog;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+@Path("/cache/product-metadata")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheResource {
+
+    private static final Logger LOG = Logger.getLogger(CacheResource.class);
+
+    @Inject
+    ProductCatalog productCatalog;
+
+    @GET
+    public CacheStatsResponse getStats() {
+        CacheStats stats = productCatalog.stats();
+        return new CacheStatsResponse(productCatalog.size(), stats.hitCount(), stats.missCount(),
+            stats.hitRate(), stats.evictionCount());
+    }
+
+    @DELETE
+    public Response invalidateAll() {
+        LOG.info("🧹 Invalidating all cached product metadata");
+        productCatalog.invalidateAll();
+        return Response.noContent().build();
+    }
+
+    @DELETE
+    @Path("/{productId}")
+    public Response invalidate(@PathParam("productId") Long productId) {
+        LOG.infof("🧹 Invalidating cached metadata for product %d", productId);
+        productCatalog.invalidate(productId);
+        return Response.noContent().build();
+    }
+
+    public static class CacheStatsResponse {
+        public long size;
+        public long hits;
+        public long misses;
+        public double hitRate;
+        public long evictions;
+
+        public CacheStatsResponse() {
+        }
+
+        public CacheStatsResponse(long size, long hits, long misses, double hitRate, long evictions) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.hitRate = hitRate;
+            this.evictions = evictions;
+        }
+    }
+}
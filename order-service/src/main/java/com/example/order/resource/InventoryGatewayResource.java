@@ -0,0 +1,43 @@
+package com.example.order.resource;
+
+import com.example.order.client.InventoryGateway;
+import com.example.order.client.SingleFlight;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Map;
+
+@Path("/inventory-gateway")
+@Produces(MediaType.APPLICATION_JSON)
+public class InventoryGatewayResource {
+
+    @Inject
+    InventoryGateway inventoryGateway;
+
+    @GET
+    @Path("/coalescing")
+    public Map<String, CoalescingStats> getCoalescingStats() {
+        return Map.of(
+            "getProduct", CoalescingStats.of(inventoryGateway.productReads()),
+            "checkAvailability", CoalescingStats.of(inventoryGateway.availabilityReads()));
+    }
+
+    public static class CoalescingStats {
+        public long calls;
+        public long deduplicated;
+        public int inFlight;
+
+        public CoalescingStats() {
+        }
+
+        static CoalescingStats of(SingleFlight<?, ?> flight) {
+            CoalescingStats stats = new CoalescingStats();
+            stats.calls = flight.calls();
+            stats.deduplicated = flight.deduplicated();
+            stats.inFlight = flight.inFlight();
+            return stats;
+        }
+    }
+}
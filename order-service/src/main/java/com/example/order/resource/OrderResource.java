@@ -1,12 +1,24 @@
 package com.example.order.resource;
 
+import com.example.common.IdempotencyCache;
+import com.example.common.RequestLogSampler;
 import com.example.order.model.Order;
+import com.example.order.persistence.JournalFullException;
 import com.example.order.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
 
 @Path("/orders")
@@ -16,52 +28,177 @@ public class OrderResource {
 
     private static final Logger LOG = Logger.getLogger(OrderResource.class);
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Inject
     OrderService orderService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RequestLogSampler requestLog;
+
+    /**
+     * BLOCKING runs the order path on a worker thread with the synchronous
+     * client; REACTIVE runs it on the event loop with the Uni client, so
+     * in-flight orders hold no thread while waiting on inventory-service.
+     */
+    @ConfigProperty(name = "order.pipeline.mode", defaultValue = "reactive")
+    PipelineMode pipelineMode;
+
+    private IdempotencyCache<Order> createdOrders;
+
+    @Inject
+    void initIdempotency(MeterRegistry registry,
+                         @ConfigProperty(name = "order.idempotency.maximum-size", defaultValue = "100000")
+                         long maximumSize,
+                         @ConfigProperty(name = "order.idempotency.expire-after-write", defaultValue = "10m")
+                         Duration expireAfterWrite) {
+        createdOrders = new IdempotencyCache<>("idempotent-orders", maximumSize, expireAfterWrite, registry);
+    }
+
+    public enum PipelineMode {
+        BLOCKING,
+        REACTIVE
+    }
+
     @POST
-    public Response createOrder(OrderRequest request) {
-        LOG.infof("📝 Create order request - Product ID: %d, Quantity: %d",
-                 request.productId, request.quantity);
+    public Uni<Response> createOrder(OrderRequest request,
+                                     @HeaderParam(IdempotencyCache.HEADER) String idempotencyKey) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📝 Create order request - Product ID: %d, Quantity: %d",
+                     request.productId, request.quantity);
+        }
 
         if (request.productId == null || request.quantity <= 0) {
             LOG.warnf("⚠️ Invalid order request - Product ID: %s, Quantity: %d",
                      request.productId, request.quantity);
-            return Response.status(Response.Status.BAD_REQUEST)
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
                 .entity(new ErrorResponse("Invalid product ID or quantity"))
-                .build();
+                .build());
         }
 
-        try {
-            Order order = orderService.createOrder(request.productId, request.quantity);
-            LOG.infof("✅ Order created successfully - Order ID: %d, Product: %d, Quantity: %d",
-                     order.getId(), order.getProductId(), order.getQuantity());
-            return Response.status(Response.Status.CREATED).entity(order).build();
-        } catch (Exception e) {
-            LOG.errorf(e, "❌ Failed to create order - Product: %d, Quantity: %d",
-                      request.productId, request.quantity);
-            return Response.serverError()
-                .entity(new ErrorResponse("Failed to create order: " + e.getMessage()))
+        Uni<IdempotencyCache.Outcome<Order>> order;
+        if (idempotencyKey == null) {
+            order = placeOrder(request, null).map(created -> new IdempotencyCache.Outcome<>(created, false));
+        } else {
+            // Retries with the same key get the first order instead of placing another one
+            order = Uni.createFrom().completionStage(() -> createdOrders.execute(idempotencyKey,
+                request.productId + ":" + request.quantity,
+                () -> placeOrder(request, idempotencyKey).subscribeAsCompletionStage()));
+        }
+
+        return order
+            .map(outcome -> {
+                Order created = outcome.value();
+                if (requestLog.sampled(LOG)) {
+                    LOG.infof("✅ Order %s - Order ID: %d, Product: %d, Quantity: %d",
+                             outcome.replayed() ? "replayed" : "created successfully",
+                             created.getId(), created.getProductId(), created.getQuantity());
+                }
+                Response.ResponseBuilder response = Response.status(Response.Status.CREATED).entity(created);
+                if (outcome.replayed()) {
+                    response.header(IdempotencyCache.REPLAYED_HEADER, true);
+                }
+                return response.build();
+            })
+            .onFailure(IdempotencyCache.KeyReusedException.class).recoverWithItem(e -> {
+                LOG.warnf("⚠️ %s", e.getMessage());
+                return Response.status(422).entity(new ErrorResponse(e.getMessage())).build();
+            })
+            .onFailure(JournalFullException.class).recoverWithItem(e -> {
+                LOG.warnf("⚠️ %s", e.getMessage());
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+            })
+            .onFailure().recoverWithItem(e -> {
+                LOG.errorf(e, "❌ Failed to create order - Product: %d, Quantity: %d",
+                          request.productId, request.quantity);
+                return Response.serverError()
+                    .entity(new ErrorResponse("Failed to create order: " + e.getMessage()))
+                    .build();
+            });
+    }
+
+    private Uni<Order> placeOrder(OrderRequest request, String idempotencyKey) {
+        return switch (pipelineMode) {
+            case REACTIVE -> orderService.createOrderAsync(request.productId, request.quantity, idempotencyKey);
+            case BLOCKING -> Uni.createFrom()
+                .item(() -> orderService.createOrder(request.productId, request.quantity, idempotencyKey))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+        };
+    }
+
+    @GET
+    public Response getAllOrders(@QueryParam("productId") Long productId,
+                                 @QueryParam("status") String status,
+                                 @QueryParam("after") Long after,
+                                 @QueryParam("limit") Integer limit) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📋 Fetching orders - Product: %s, Status: %s, After: %s, Limit: %s", productId, status, after, limit);
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(new ErrorResponse("limit must be between 1 and " + MAX_PAGE_SIZE))
                 .build();
         }
+
+        int pageSize = limit == null ? Integer.MAX_VALUE : limit;
+        List<Order> orders = orderService.findOrders(productId, status, after, pageSize);
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("✅ Retrieved %d orders", orders.size());
+        }
+
+        Response.ResponseBuilder response = Response.ok(orders);
+        if (limit != null && orders.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, orders.get(orders.size() - 1).getId());
+        }
+        return response.build();
     }
 
     @GET
-    public List<Order> getAllOrders() {
-        LOG.info("📋 Fetching all orders");
-        List<Order> orders = orderService.getAllOrders();
-        LOG.infof("✅ Retrieved %d orders", orders.size());
-        return orders;
+    @Produces(APPLICATION_NDJSON)
+    public Response streamOrders(@QueryParam("productId") Long productId,
+                                 @QueryParam("status") String status,
+                                 @QueryParam("after") Long after) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("📋 Streaming orders - Product: %s, Status: %s, After: %s", productId, status, after);
+        }
+        Iterator<Order> orders = orderService.streamOrders(productId, status, after);
+        StreamingOutput body = output -> {
+            try (SequenceWriter writer = objectMapper.writerFor(Order.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(output)) {
+                boolean written = false;
+                while (orders.hasNext()) {
+                    writer.write(orders.next());
+                    written = true;
+                }
+                writer.flush();
+                if (written) {
+                    output.write('\n');
+                }
+            }
+        };
+        return Response.ok(body, APPLICATION_NDJSON).build();
     }
 
     @GET
     @Path("/{id}")
     public Response getOrder(@PathParam("id") Long id) {
-        LOG.infof("🔍 Fetching order with ID: %d", id);
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("🔍 Fetching order with ID: %d", id);
+        }
         Order order = orderService.getOrder(id);
         if (order != null) {
-            LOG.debugf("Found order: ID=%d, Product=%d, Quantity=%d, Status=%s",
-                      order.getId(), order.getProductId(), order.getQuantity(), order.getStatus());
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf("Found order: ID=%d, Product=%d, Quantity=%d, Status=%s",
+                          order.getId(), order.getProductId(), order.getQuantity(), order.getStatus());
+            }
             return Response.ok(order).build();
         }
         LOG.warnf("⚠️ Order not found with ID: %d", id);
@@ -1,14 +1,37 @@
 package com.example.order.service;
 
+import com.example.common.RequestLogSampler;
+import com.example.order.client.InventoryCallGuard;
+import com.example.order.client.InventoryCallMetrics;
 import com.example.order.client.InventoryClient;
+import com.example.order.client.InventoryUnavailableException;
+import com.example.order.client.ReservationBatcher;
 import com.example.order.model.Order;
-import com.example.order.model.Product;
+import com.example.order.persistence.JournalFullException;
+import com.example.order.persistence.OrderJournal;
+import com.example.order.persistence.OrderLog;
+import com.example.order.persistence.OrderPersistence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 import jakarta.inject.Inject;
-import java.util.ArrayList;
+import java.util.Iterator;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 @ApplicationScoped
@@ -20,60 +43,350 @@ public class OrderService {
     @RestClient
     InventoryClient inventoryClient;
 
-    private final List<Order> orders = new ArrayList<>();
+    @Inject
+    ProductCatalog productCatalog;
+
+    @Inject
+    ReservationBatcher reservationBatcher;
+
+    @Inject
+    InventoryCallGuard guard;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RequestLogSampler requestLog;
+
+    @Inject
+    OrderPersistence persistence;
+
+    /**
+     * Reserve through a hold that is confirmed once the reservation succeeded,
+     * so stock taken for an order that never completes comes back when the
+     * hold expires. That costs a second round trip per order, so it is opt-in;
+     * disabled, a single call reserves stock permanently.
+     */
+    @ConfigProperty(name = "order.reservation.holds.enabled", defaultValue = "false")
+    boolean holdsEnabled;
+
+    @ConfigProperty(name = "order.reservation.hold-ttl", defaultValue = "30s")
+    Duration holdTtl;
+
+    private Timer blockingCreateTimer;
+    private Timer reactiveCreateTimer;
+    private Counter confirmedOrders;
+    private Counter unavailableOrders;
+    private Counter inventoryErrorOrders;
+    private final Map<InventoryUnavailableException.Reason, Counter> inventoryUnavailableOrders =
+        new EnumMap<>(InventoryUnavailableException.Reason.class);
+
+    private final OrderStore orders = new OrderStore();
     private final AtomicLong orderIdCounter = new AtomicLong(1);
+    private OrderJournal journal = OrderJournal.NONE;
 
     public OrderService() {
         LOG.info("🏗️ OrderService initialized");
     }
 
-    public Order createOrder(Long productId, int quantity) {
-        LOG.infof("🔄 Creating order - Product: %d, Quantity: %d", productId, quantity);
+    @PostConstruct
+    void init() {
+        blockingCreateTimer = createTimer("blocking");
+        reactiveCreateTimer = createTimer("reactive");
+        confirmedOrders = orderCounter("confirmed", "none");
+        unavailableOrders = orderCounter("failed", "unavailable");
+        inventoryErrorOrders = orderCounter("failed", "inventory_error");
+        for (InventoryUnavailableException.Reason reason : InventoryUnavailableException.Reason.values()) {
+            inventoryUnavailableOrders.put(reason, orderCounter("failed", reason.tag));
+        }
+
+        if (persistence.isEnabled()) {
+            OrderLog log = persistence.open(orders::save);
+            orderIdCounter.set(log.maxRecoveredId() + 1);
+            journal = log;
+            LOG.infof("✅ Restored %d orders, next order ID: %d", log.recoveredOrders(), orderIdCounter.get());
+        }
+    }
 
+    @PreDestroy
+    void shutdown() {
+        journal.close();
+    }
+
+    private Timer createTimer(String pipeline) {
+        return Timer.builder("orders.create")
+            .description("End-to-end order creation time, including the inventory reservation")
+            .tag("pipeline", pipeline)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(registry);
+    }
+
+    private Counter orderCounter(String outcome, String reason) {
+        return Counter.builder("orders")
+            .description("Orders created, by outcome and failure reason")
+            .tag("outcome", outcome)
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    /**
+     * Creates an order. A non-null {@code idempotencyKey} is forwarded with the
+     * reservation so that inventory-service applies a retried reservation once.
+     * The inventory calls share one deadline budget and go through the
+     * {@link InventoryCallGuard}, so a slow or failing inventory-service yields
+     * a FAILED order within the budget instead of holding the thread. Batch
+     * lines carry no key, so orders with one are never micro-batched.
+     *
+     * Room in the journal is taken before inventory is called: when the
+     * journal is full, {@link JournalFullException} is thrown before any stock
+     * is reserved or any order is stored, so the caller can simply retry.
+     */
+    public Order createOrder(Long productId, int quantity, String idempotencyKey) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("🔄 Creating order - Product: %d, Quantity: %d", productId, quantity);
+        }
+        OrderJournal.Slot slot = journal.reserve();
+        long start = System.nanoTime();
+        InventoryCallGuard.Deadline deadline = guard.newDeadline();
         try {
-            // Check product availability from inventory service
-            LOG.debugf("Checking availability for product %d", productId);
-            InventoryClient.AvailabilityResponse availability =
-                inventoryClient.checkAvailability(productId, quantity);
-
-            if (!availability.available) {
-                LOG.warnf("⚠️ Product %d not available for quantity %d", productId, quantity);
-                return createFailedOrder(productId, "Unknown", quantity, "Product not available");
+            // Reserve the product; the response also carries its name and remaining stock
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf("Reserving %d units of product %d", quantity, productId);
+            }
+            Order order;
+            try {
+                InventoryClient.ReservationResponse reservation;
+                if (batched(idempotencyKey)) {
+                    reservation = batchedReservation(productId, quantity, deadline).await().indefinitely();
+                } else if (holdsEnabled) {
+                    reservation = heldReservation(productId, quantity, idempotencyKey, deadline);
+                } else {
+                    reservation = directReservation(productId, quantity, idempotencyKey, deadline).await().indefinitely();
+                }
+                order = completeOrder(productId, quantity, reservation);
+            } catch (Exception e) {
+                order = communicationFailure(productId, quantity, e);
+            }
+            try {
+                slot.append(order).join();
+            } catch (CompletionException e) {
+                // Surface the journal's own exception, as the reactive path does
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
             }
+            return order;
+        } finally {
+            slot.cancel();
+            blockingCreateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            LOG.debugf("✅ Product %d is available", productId);
-
-            // Get product details
-            LOG.debugf("Fetching product details for %d", productId);
-            Product product = inventoryClient.getProduct(productId);
-            LOG.debugf("Product details: Name=%s", product.getName());
-
-            // Reserve the product
-            LOG.debugf("Reserving %d units of product %d", quantity, productId);
-            InventoryClient.ReservationResponse reservation =
-                inventoryClient.reserveProduct(productId, quantity);
-
-            if (reservation.success) {
-                Order order = new Order(
-                    orderIdCounter.getAndIncrement(),
-                    productId,
-                    product.getName(),
-                    quantity,
-                    "CONFIRMED"
-                );
-                orders.add(order);
-                LOG.infof("✅ Order created successfully - ID: %d, Product: %s, Quantity: %d",
-                         order.getId(), product.getName(), quantity);
-                return order;
-            } else {
-                LOG.warnf("⚠️ Failed to reserve product %d - %s", productId, reservation.message);
-                return createFailedOrder(productId, product.getName(), quantity, "Failed to reserve product");
+    /**
+     * Non-blocking variant of {@link #createOrder}: the reservation call is
+     * issued through the reactive client and nothing on this path blocks the
+     * calling (event loop) thread. A full journal fails the returned Uni with
+     * {@link JournalFullException} before inventory is called.
+     */
+    public Uni<Order> createOrderAsync(Long productId, int quantity, String idempotencyKey) {
+        if (requestLog.sampled(LOG)) {
+            LOG.infof("🔄 Creating order (async) - Product: %d, Quantity: %d", productId, quantity);
+        }
+        OrderJournal.Slot slot;
+        try {
+            slot = journal.reserve();
+        } catch (JournalFullException e) {
+            return Uni.createFrom().failure(e);
+        }
+        long start = System.nanoTime();
+        InventoryCallGuard.Deadline deadline = guard.newDeadline();
+        Uni<InventoryClient.ReservationResponse> reservation;
+        if (batched(idempotencyKey)) {
+            reservation = batchedReservation(productId, quantity, deadline);
+        } else if (holdsEnabled) {
+            reservation = heldReservationAsync(productId, quantity, idempotencyKey, deadline);
+        } else {
+            reservation = directReservation(productId, quantity, idempotencyKey, deadline);
+        }
+        return reservation
+            .map(response -> completeOrder(productId, quantity, response))
+            .onFailure().recoverWithItem(e -> communicationFailure(productId, quantity, e))
+            .call(order -> Uni.createFrom().completionStage(slot.append(order)))
+            .onTermination().invoke(slot::cancel)
+            .invoke(() -> reactiveCreateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Reserves with a single call. A reservation is not undone when its call
+     * times out, so one that timed out may still have taken the stock. Every
+     * call therefore carries an idempotency key (a fresh one when the client
+     * sent none), and after a timeout the same call is sent once more within
+     * what is left of the deadline: inventory-service answers it from its
+     * idempotency cache if the first one went through, and applies it
+     * otherwise, so the order learns the real outcome instead of failing with
+     * the stock gone. If that call fails too, the stock may stay reserved for
+     * a FAILED order; holds avoid that, at the cost of a second round trip.
+     * Leave room for the second call by keeping {@code call-timeout} well
+     * below the deadline.
+     */
+    private Uni<InventoryClient.ReservationResponse> directReservation(Long productId, int quantity,
+                                                                       String idempotencyKey,
+                                                                       InventoryCallGuard.Deadline deadline) {
+        String key = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+        return guard.call(InventoryCallMetrics.Operation.RESERVE, deadline,
+                () -> inventoryClient.reserveProductAsync(productId, quantity, key))
+            .onFailure(OrderService::timedOut).recoverWithUni(e -> {
+                LOG.warnf("⚠️ Reservation of product %d timed out, asking again with key %s", productId, key);
+                return guard.call(InventoryCallMetrics.Operation.RESERVE, deadline,
+                    () -> inventoryClient.reserveProductAsync(productId, quantity, key));
+            })
+            .onFailure(WebApplicationException.class).recoverWithItem(e -> rejectedReservation((WebApplicationException) e));
+    }
+
+    private static boolean timedOut(Throwable e) {
+        return e instanceof InventoryUnavailableException unavailable
+            && unavailable.reason() == InventoryUnavailableException.Reason.TIMEOUT;
+    }
+
+    /**
+     * Holds the stock, then confirms the hold. If the confirm fails the hold is
+     * settled by {@link #confirmFailed} before the order is decided.
+     */
+    private InventoryClient.ReservationResponse heldReservation(Long productId, int quantity, String idempotencyKey,
+                                                                InventoryCallGuard.Deadline deadline) {
+        InventoryClient.HoldResponse hold;
+        try {
+            hold = guard.call(InventoryCallMetrics.Operation.HOLD, deadline,
+                    () -> inventoryClient.holdProductAsync(productId, quantity, holdTtl.toMillis(), idempotencyKey))
+                .await().indefinitely();
+        } catch (WebApplicationException e) {
+            return rejectedReservation(e);
+        }
+        try {
+            guard.call(InventoryCallMetrics.Operation.CONFIRM_HOLD, deadline,
+                    () -> inventoryClient.confirmHoldAsync(hold.holdId))
+                .await().indefinitely();
+            return hold;
+        } catch (RuntimeException e) {
+            return confirmFailed(hold, e).await().indefinitely();
+        }
+    }
+
+    private Uni<InventoryClient.ReservationResponse> heldReservationAsync(Long productId, int quantity,
+                                                                         String idempotencyKey,
+                                                                         InventoryCallGuard.Deadline deadline) {
+        return guard.call(InventoryCallMetrics.Operation.HOLD, deadline,
+                () -> inventoryClient.holdProductAsync(productId, quantity, holdTtl.toMillis(), idempotencyKey))
+            .onItem().transformToUni(hold -> guard.call(InventoryCallMetrics.Operation.CONFIRM_HOLD, deadline,
+                    () -> inventoryClient.confirmHoldAsync(hold.holdId))
+                .map(confirmed -> (InventoryClient.ReservationResponse) hold)
+                .onFailure().recoverWithUni(e -> confirmFailed(hold, e)))
+            .onFailure(WebApplicationException.class).recoverWithItem(e -> rejectedReservation((WebApplicationException) e));
+    }
+
+    /**
+     * A hold that expired before it was confirmed is an unavailable product.
+     * After any other confirm failure (a timeout, a 5xx) the confirm may still
+     * have gone through, so the hold is released to find out: a 409 means it
+     * was confirmed and the order goes ahead with it. Otherwise the stock is
+     * back, or comes back when the hold expires, and the failure propagates.
+     */
+    private Uni<InventoryClient.ReservationResponse> confirmFailed(InventoryClient.HoldResponse hold, Throwable e) {
+        if (hasStatus(e, Response.Status.NOT_FOUND)) {
+            LOG.warnf("⚠️ Hold %s on product %d expired before it was confirmed", hold.holdId, hold.productId);
+            InventoryClient.ReservationResponse expired = new InventoryClient.ReservationResponse(false,
+                "Hold expired before it was confirmed", hold.productId, hold.productName, null);
+            expired.productVersion = hold.productVersion;
+            return Uni.createFrom().item(expired);
+        }
+        return guard.call(InventoryCallMetrics.Operation.RELEASE_HOLD, () -> inventoryClient.releaseHoldAsync(hold.holdId))
+            .onItemOrFailure().transformToUni((released, failure) -> {
+                if (hasStatus(failure, Response.Status.CONFLICT)) {
+                    LOG.warnf("⚠️ Hold %s was confirmed although the confirm call failed: %s", hold.holdId, e.getMessage());
+                    return Uni.createFrom().item(hold);
+                }
+                if (failure == null) {
+                    LOG.infof("↩️ Released hold %s after a failed confirm", hold.holdId);
+                } else {
+                    LOG.warnf("⚠️ Could not release hold %s, it will expire: %s", hold.holdId, failure.getMessage());
+                }
+                return Uni.createFrom().failure(e);
+            });
+    }
+
+    private static boolean hasStatus(Throwable e, Response.Status status) {
+        return e instanceof WebApplicationException web && web.getResponse().getStatus() == status.getStatusCode();
+    }
+
+    private boolean batched(String idempotencyKey) {
+        return reservationBatcher.isEnabled() && idempotencyKey == null;
+    }
+
+    private Uni<InventoryClient.ReservationResponse> batchedReservation(Long productId, int quantity,
+                                                                       InventoryCallGuard.Deadline deadline) {
+        return Uni.createFrom().completionStage(() -> reservationBatcher.submit(productId, quantity, deadline))
+            .map(line -> {
+                InventoryClient.ReservationResponse response = new InventoryClient.ReservationResponse(
+                    line.success, line.message, line.productId, line.productName, line.remainingQuantity);
+                response.productVersion = line.productVersion;
+                return response;
+            });
+    }
+
+    private Order completeOrder(Long productId, int quantity, InventoryClient.ReservationResponse reservation) {
+        productCatalog.observe(productId, reservation.productName, reservation.productVersion);
+        String productName = reservation.productName != null ? reservation.productName : knownName(productId);
+
+        if (reservation.success) {
+            Order order = new Order(
+                orderIdCounter.getAndIncrement(),
+                productId,
+                productName,
+                quantity,
+                "CONFIRMED"
+            );
+            orders.save(order);
+            confirmedOrders.increment();
+            if (requestLog.sampled(LOG)) {
+                LOG.infof("✅ Order created successfully - ID: %d, Product: %s, Quantity: %d (Remaining: %d)",
+                         order.getId(), productName, quantity, reservation.remainingQuantity);
             }
-        } catch (Exception e) {
-            LOG.errorf(e, "❌ Error creating order for product %d", productId);
-            return createFailedOrder(productId, "Unknown", quantity,
-                "Error communicating with inventory service: " + e.getMessage());
+            return order;
+        }
+        LOG.warnf("⚠️ Product %d not available for quantity %d - %s", productId, quantity, reservation.message);
+        unavailableOrders.increment();
+        return createFailedOrder(productId, productName, quantity, "Product not available");
+    }
+
+    private Order communicationFailure(Long productId, int quantity, Throwable e) {
+        if (e instanceof InventoryUnavailableException unavailable) {
+            // Refused or timed out by the guard: no stack trace, the reason is all there is to know
+            inventoryUnavailableOrders.get(unavailable.reason()).increment();
+            return createFailedOrder(productId, knownName(productId), quantity, unavailable.getMessage());
+        }
+        LOG.errorf(e, "❌ Error creating order for product %d", productId);
+        inventoryErrorOrders.increment();
+        return createFailedOrder(productId, knownName(productId), quantity,
+            "Error communicating with inventory service: " + e.getMessage());
+    }
+
+    private String knownName(Long productId) {
+        String name = productCatalog.cachedName(productId);
+        return name != null ? name : "Unknown";
+    }
+
+    /**
+     * 400 and 404 are business rejections and still carry a ReservationResponse
+     * body; any other status is rethrown as a communication failure.
+     */
+    private static InventoryClient.ReservationResponse rejectedReservation(WebApplicationException e) {
+        Response response = e.getResponse();
+        int status = response.getStatus();
+        if (status == Response.Status.BAD_REQUEST.getStatusCode()
+                || status == Response.Status.NOT_FOUND.getStatusCode()) {
+            return response.readEntity(InventoryClient.ReservationResponse.class);
         }
+        throw e;
     }
 
     private Order createFailedOrder(Long productId, String productName, int quantity, String reason) {
@@ -85,21 +398,32 @@ public class OrderService {
             quantity,
             "FAILED: " + reason
         );
-        orders.add(order);
+        orders.save(order);
         return order;
     }
 
     public List<Order> getAllOrders() {
-        LOG.debugf("Fetching all orders (total: %d)", orders.size());
-        return new ArrayList<>(orders);
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Fetching all orders (total: %d)", orders.size());
+        }
+        return orders.findAll();
+    }
+
+    public List<Order> findOrders(Long productId, String status, Long after, int limit) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Querying orders - Product: %s, Status: %s, After: %s, Limit: %d", productId, status, after, limit);
+        }
+        return orders.page(productId, status, after, limit);
+    }
+
+    public Iterator<Order> streamOrders(Long productId, String status, Long after) {
+        LOG.debugf("Streaming orders - Product: %s, Status: %s, After: %s", productId, status, after);
+        return orders.iterate(productId, status, after);
     }
 
     public Order getOrder(Long orderId) {
         LOG.debugf("Looking up order with ID: %d", orderId);
-        Order order = orders.stream()
-            .filter(o -> o.getId().equals(orderId))
-            .findFirst()
-            .orElse(null);
+        Order order = orders.get(orderId);
 
         if (order == null) {
             LOG.debugf("Order with ID %d not found", orderId);
@@ -108,4 +432,3 @@ public class OrderService {
         return order;
     }
 }
-
@@ -0,0 +1,148 @@
+package com.example.order.service;
+
+import com.example.order.model.Order;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Concurrent in-memory order store. Orders are keyed by ID in a
+ * {@link ConcurrentHashMap} for O(1) lookup, with ordered secondary indexes
+ * of order IDs per product and per status. Index maintenance runs inside the
+ * primary map's per-key {@code compute}, so an order and its index entries
+ * always change together.
+ */
+public class OrderStore {
+
+    private final ConcurrentHashMap<Long, Order> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<Long, NavigableSet<Long>> byProduct = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, NavigableSet<Long>> byStatus = new ConcurrentHashMap<>();
+
+    public void save(Order order) {
+        Long id = order.getId();
+        byId.compute(id, (key, previous) -> {
+            if (previous != null) {
+                index(byProduct, previous.getProductId()).remove(id);
+                index(byStatus, statusKey(previous.getStatus())).remove(id);
+            }
+            index(byProduct, order.getProductId()).add(id);
+            index(byStatus, statusKey(order.getStatus())).add(id);
+            ids.add(id);
+            return order;
+        });
+    }
+
+    public Order get(Long id) {
+        return byId.get(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public List<Order> findAll() {
+        return page(null, null, null, Integer.MAX_VALUE);
+    }
+
+    public List<Order> findByProduct(Long productId) {
+        return page(productId, null, null, Integer.MAX_VALUE);
+    }
+
+    public List<Order> findByStatus(String status) {
+        return page(null, status, null, Integer.MAX_VALUE);
+    }
+
+    public List<Order> findByProductAndStatus(Long productId, String status) {
+        return page(productId, status, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} orders with an ID greater than {@code after},
+     * in ID order. Any of the filters and the cursor may be null.
+     */
+    public List<Order> page(Long productId, String status, Long after, int limit) {
+        List<Order> result = new ArrayList<>(Math.min(limit, 256));
+        Iterator<Order> iterator = iterate(productId, status, after);
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    /**
+     * Lazily walks matching orders in ID order, starting after {@code after}.
+     * Nothing is copied up front, so callers can stream any number of orders
+     * with bounded memory. The walk is weakly consistent with concurrent writes.
+     */
+    public Iterator<Order> iterate(Long productId, String status, Long after) {
+        NavigableSet<Long> index;
+        String statusFilter = null;
+        if (productId != null) {
+            index = byProduct.getOrDefault(productId, emptyIndex());
+            statusFilter = status == null ? null : statusKey(status);
+        } else if (status != null) {
+            index = byStatus.getOrDefault(statusKey(status), emptyIndex());
+        } else {
+            index = ids;
+        }
+        Iterator<Long> orderIds = (after == null ? index : index.tailSet(after, false)).iterator();
+        return new OrderIterator(orderIds, statusFilter);
+    }
+
+    /**
+     * Index key for a status: failed orders carry a reason ("FAILED: ..."),
+     * which is dropped so they all share the FAILED index.
+     */
+    public static String statusKey(String status) {
+        if (status == null) {
+            return "";
+        }
+        int separator = status.indexOf(':');
+        return (separator < 0 ? status : status.substring(0, separator)).trim().toUpperCase();
+    }
+
+    private final class OrderIterator implements Iterator<Order> {
+        private final Iterator<Long> orderIds;
+        private final String statusFilter;
+        private Order next;
+
+        OrderIterator(Iterator<Long> orderIds, String statusFilter) {
+            this.orderIds = orderIds;
+            this.statusFilter = statusFilter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && orderIds.hasNext()) {
+                Order order = byId.get(orderIds.next());
+                if (order != null && (statusFilter == null || statusFilter.equals(statusKey(order.getStatus())))) {
+                    next = order;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Order next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Order order = next;
+            next = null;
+            return order;
+        }
+    }
+
+    private static <K> NavigableSet<Long> index(ConcurrentHashMap<K, NavigableSet<Long>> indexes, K key) {
+        return indexes.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>());
+    }
+
+    private static NavigableSet<Long> emptyIndex() {
+        return new ConcurrentSkipListSet<>();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.order.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import java.time.Duration;
+
+/**
+ * Near-cache of product metadata (currently just the name) held in
+ * order-service. Entries are written through from every reservation
+ * response, so the cache fills without any extra inventory calls, and a miss
+ * never calls inventory-service either.
+ * Each entry carries the product's metadata version; a response stamped
+ * with a newer version replaces the cached entry, which is how renames made
+ * in inventory-service invalidate it. Size and TTL bound staleness and memory.
+ */
+@ApplicationScoped
+public class ProductCatalog {
+
+    private static final Logger LOG = Logger.getLogger(ProductCatalog.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "order.product-cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    @ConfigProperty(name = "order.product-cache.expire-after-write", defaultValue = "10m")
+    Duration expireAfterWrite;
+
+    private Cache<Long, CachedProduct> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "product-metadata");
+        LOG.infof("🏗️ Product metadata cache initialized (max size: %d, ttl: %s)", maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * Returns the cached name, or null without calling inventory-service.
+     */
+    public String cachedName(Long productId) {
+        CachedProduct cached = cache.getIfPresent(productId);
+        return cached == null ? null : cached.name();
+    }
+
+    /**
+     * Records metadata seen in an inventory response. Older or equal versions
+     * leave the cached entry alone; a newer version replaces it.
+     */
+    public void observe(Long productId, String name, Long version) {
+        if (productId == null || name == null) {
+            return;
+        }
+        long observedVersion = version == null ? 0 : version;
+        cache.asMap().merge(productId, new CachedProduct(name, observedVersion),
+            (current, observed) -> observed.version() > current.version() ? observed : current);
+    }
+
+    public void invalidate(Long productId) {
+        LOG.debugf("Invalidating cached metadata for product %d", productId);
+        cache.invalidate(productId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    record CachedProduct(String name, long version) {
+    }
+}
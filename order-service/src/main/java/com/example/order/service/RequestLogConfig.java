@@ -0,0 +1,18 @@
+package com.example.order.service;
+
+import com.example.common.RequestLogSampler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+@ApplicationScoped
+public class RequestLogConfig {
+
+    @Produces
+    @Singleton
+    RequestLogSampler requestLogSampler(
+            @ConfigProperty(name = "order.log.request-sample-rate", defaultValue = "1") int sampleRate) {
+        return new RequestLogSampler(sampleRate);
+    }
+}
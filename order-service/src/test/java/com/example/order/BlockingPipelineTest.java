@@ -0,0 +1,53 @@
+package com.example.order;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+@QuarkusTest
+@TestProfile(BlockingPipelineTest.BlockingProfile.class)
+@DisplayName("Blocking Order Pipeline Tests")
+public class BlockingPipelineTest {
+
+    public static class BlockingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("order.pipeline.mode", "blocking");
+        }
+    }
+
+    @Test
+    @DisplayName("Should confirm orders on the blocking pipeline")
+    public void testCreateOrderBlocking() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"productId\": 1, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("CONFIRMED"))
+                .body("productName", is("Laptop"));
+    }
+
+    @Test
+    @DisplayName("Should fail orders for unknown products on the blocking pipeline")
+    public void testCreateOrderUnknownProductBlocking() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"productId\": 999, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("FAILED: Product not available"));
+    }
+}
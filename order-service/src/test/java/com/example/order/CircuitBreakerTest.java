@@ -0,0 +1,70 @@
+package com.example.order;
+
+import com.example.order.client.CircuitBreaker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Circuit Breaker Tests")
+public class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("Should open once the failure ratio is reached and refuse calls while open")
+    public void testOpensOnFailureRatio() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        // Below the minimum number of calls nothing happens, however many fail
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "3 of 6 failed is below the ratio check");
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should let probes through after the open duration and close when they succeed")
+    public void testHalfOpenProbes() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 1.0, Duration.ofMillis(50), 2);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        Thread.sleep(100);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "Only two probes may be in flight");
+
+        // A failed probe re-opens the circuit
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        breaker.onSuccess();
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(100);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.order;
+
+import com.example.order.client.Hedger;
+import com.example.order.client.InventoryClient;
+import com.example.order.client.InventoryGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(HedgedReadTest.HedgingProfile.class)
+@DisplayName("Hedged Read Tests")
+public class HedgedReadTest {
+
+    public static class HedgingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "order.inventory.hedging.enabled", "true",
+                "order.inventory.hedging.percentile", "0.9",
+                "order.inventory.hedging.min-delay", "10ms",
+                "order.inventory.hedging.max-delay", "100ms");
+        }
+    }
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+    private static final long SPIKE_MILLIS = 200;
+
+    @Inject
+    @RestClient
+    InventoryClient inventoryClient;
+
+    @Inject
+    InventoryGateway inventoryGateway;
+
+    @Inject
+    MeterRegistry registry;
+
+    @AfterEach
+    public void resetStub() {
+        InventoryStubResource.latencyMillis = 0;
+        InventoryStubResource.spikeEvery = 0;
+        InventoryStubResource.spikeMillis = 0;
+    }
+
+    @Test
+    @DisplayName("Hedging should cut p99 read latency under latency spikes within its budget")
+    public void testHedgingCutsTailLatency() {
+        // One call in 50 stalls for 200 ms, the rest answer in about a millisecond
+        InventoryStubResource.latencyMillis = 1;
+        InventoryStubResource.spikeMillis = SPIKE_MILLIS;
+        InventoryStubResource.spikeEvery = 50;
+
+        long[] plain = measure(() -> inventoryClient.getProductAsync(2L).await().indefinitely().getName());
+
+        Hedger hedger = new Hedger(0.9, 0.05, Duration.ofMillis(10), Duration.ofMillis(100));
+        long[] hedged = measure(() -> hedger.execute(() -> inventoryClient.getProductAsync(2L))
+            .await().indefinitely().getName());
+
+        long plainP99 = p99(plain);
+        long hedgedP99 = p99(hedged);
+        assertTrue(plainP99 >= Duration.ofMillis(SPIKE_MILLIS).toNanos());
+        assertTrue(hedgedP99 < plainP99 / 2, "expected hedging to at least halve p99");
+        assertTrue(hedger.wins() > 0);
+        assertTrue(hedger.hedges() <= 0.05 * hedger.calls() + 10, "hedges exceeded the 5% budget");
+    }
+
+    @Test
+    @DisplayName("Hedging should not send extra calls when latency is steady")
+    public void testNoHedgesWithoutSpikes() {
+        InventoryStubResource.latencyMillis = 1;
+        Hedger hedger = new Hedger(0.9, 0.05, Duration.ofMillis(100), Duration.ofMillis(200));
+
+        measure(() -> hedger.execute(() -> inventoryClient.getProductAsync(2L)).await().indefinitely().getName());
+
+        assertEquals(0, hedger.hedges());
+        assertTrue(hedger.delayNanos() >= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    @DisplayName("Product reads through the gateway should be hedged when enabled")
+    public void testGatewayReadsAreHedged() {
+        InventoryStubResource.latencyMillis = 1;
+        InventoryStubResource.spikeMillis = SPIKE_MILLIS;
+        InventoryStubResource.spikeEvery = 50;
+
+        measure(() -> inventoryGateway.getProduct(2L).await().indefinitely().getName());
+
+        assertTrue(hedges("sent") > 0);
+        assertTrue(hedges("won") > 0);
+    }
+
+    private double hedges(String outcome) {
+        return registry.get("inventory.client.hedges")
+            .tag("operation", "get")
+            .tag("outcome", outcome)
+            .functionCounter()
+            .count();
+    }
+
+    private static long[] measure(Supplier<String> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            assertNotNull(read.get());
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.order;
+
+import com.example.order.client.Hedger;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Hedger Tests")
+public class HedgerTest {
+
+    @Test
+    @DisplayName("Should keep its hedge delay when calls start failing fast")
+    public void testFastFailuresDoNotLowerTheDelay() {
+        Hedger hedger = new Hedger(0.9, 0.0, Duration.ofMillis(1), Duration.ofSeconds(1));
+        for (int i = 0; i < 256; i++) {
+            hedger.execute(() -> Uni.createFrom().item(() -> {
+                sleep(5);
+                return "answered";
+            })).await().indefinitely();
+        }
+        long warmDelay = hedger.delayNanos();
+        assertTrue(warmDelay >= TimeUnit.MILLISECONDS.toNanos(5), "delay after warm-up: " + warmDelay);
+
+        // An open circuit rejects without a round trip
+        for (int i = 0; i < 2048; i++) {
+            assertThrows(IllegalStateException.class, () -> hedger.execute(
+                () -> Uni.createFrom().<String>failure(new IllegalStateException("circuit open")))
+                .await().indefinitely());
+        }
+        assertTrue(hedger.delayNanos() >= TimeUnit.MILLISECONDS.toNanos(5),
+            "delay after failures: " + hedger.delayNanos());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.order;
+
+import com.example.order.client.InventoryGateway;
+import com.example.order.model.Product;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@DisplayName("Inventory Gateway Coalescing Tests")
+public class InventoryGatewayTest {
+
+    @Inject
+    InventoryGateway inventoryGateway;
+
+    @AfterEach
+    public void resetStub() {
+        InventoryStubResource.latencyMillis = 0;
+    }
+
+    @Test
+    @DisplayName("Should deduplicate concurrent reads of a hot product")
+    public void testConcurrentReadsAreCoalesced() {
+        InventoryStubResource.latencyMillis = 200;
+        long dedupedBefore = inventoryGateway.productReads().deduplicated();
+
+        List<Uni<Product>> reads = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            reads.add(inventoryGateway.getProduct(1L));
+        }
+        List<?> products = Uni.join().all(reads).andFailFast().await().atMost(Duration.ofSeconds(10));
+
+        assertEquals(50, products.size());
+        products.forEach(product -> assertEquals("Laptop", ((Product) product).getName()));
+        assertTrue(inventoryGateway.productReads().deduplicated() - dedupedBefore >= 49);
+
+        given()
+            .when()
+                .get("/inventory-gateway/coalescing")
+            .then()
+                .statusCode(200)
+                .body("getProduct.deduplicated", greaterThan(0));
+    }
+
+    @Test
+    @DisplayName("Should keep reads for different quantities separate")
+    public void testDistinctKeysAreNotCoalesced() {
+        InventoryStubResource.latencyMillis = 100;
+        Uni<Boolean> small = inventoryGateway.checkAvailability(2L, 1).map(r -> r.available);
+        Uni<Boolean> huge = inventoryGateway.checkAvailability(2L, Integer.MAX_VALUE).map(r -> r.available);
+
+        List<Boolean> results = Uni.join().all(small, huge).andFailFast().await().atMost(Duration.ofSeconds(10));
+        assertEquals(List.of(true, false), results);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.order;
+
+import com.example.order.model.Order;
+import com.example.order.service.OrderService;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Orders pay one network hop to inventory-service per call, so the round
+ * trips of an order are counted on the in-process stub rather than timed.
+ * Before the reserve-and-describe call an order made three.
+ */
+@QuarkusTest
+@DisplayName("Inventory Round Trips per Order")
+public class InventoryRoundTripCountTest {
+
+    private static final int ORDERS = 20;
+
+    @Inject
+    OrderService orderService;
+
+    @Test
+    @DisplayName("Blocking order path should make one inventory call per order")
+    public void testBlockingOrderMakesOneInventoryCall() {
+        int before = InventoryStubResource.REQUESTS.get();
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = orderService.createOrder(2L, 1, null);
+            assertEquals("CONFIRMED", order.getStatus());
+            assertEquals("Mouse", order.getProductName());
+        }
+
+        assertEquals(ORDERS, InventoryStubResource.REQUESTS.get() - before);
+    }
+
+    @Test
+    @DisplayName("Reactive order path should make one inventory call per order")
+    public void testReactiveOrderMakesOneInventoryCall() {
+        int before = InventoryStubResource.REQUESTS.get();
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = orderService.createOrderAsync(2L, 1, null).await().indefinitely();
+            assertEquals("CONFIRMED", order.getStatus());
+            assertEquals("Mouse", order.getProductName());
+        }
+
+        assertEquals(ORDERS, InventoryStubResource.REQUESTS.get() - before);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.order;
+
+import com.example.order.client.InventoryClient;
+import com.example.order.model.Product;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for inventory-service, served by the order-service test
+ * application so tests can exercise the real REST client without a second JVM.
+ * Every call sleeps for {@link #latencyMillis} to simulate a network hop, and
+ * every {@link #spikeEvery}-th call sleeps {@link #spikeMillis} instead.
+ * Holds are never expired by the stub; tests simulate expiry with {@link #CONFIRM_FAILURES}.
+ * As in the real service, releasing a confirmed hold answers 409.
+ * Like the real service it answers in Smile when asked, see {@link SmileStubProvider}.
+ */
+@Path("/inventory")
+@Produces({MediaType.APPLICATION_JSON, SmileStubProvider.APPLICATION_SMILE})
+@Consumes(MediaType.WILDCARD)
+public class InventoryStubResource {
+
+    public static volatile long latencyMillis = 0;
+    public static volatile int spikeEvery = 0;
+    public static volatile long spikeMillis = 0;
+    /** Time a reserve call waits after taking the stock, as if its response were slow to arrive. */
+    public static volatile long responseDelayMillis = 0;
+    private static final AtomicLong CALLS = new AtomicLong();
+    /** Calls received on any endpoint; a hold counts once. */
+    public static final AtomicInteger REQUESTS = new AtomicInteger();
+    public static final AtomicInteger BATCH_CALLS = new AtomicInteger();
+    /** Idempotency-Key headers received on reserve calls, with how often each was seen. */
+    public static final Map<String, AtomicInteger> IDEMPOTENCY_KEYS = new ConcurrentHashMap<>();
+
+    private static final Map<Long, String> NAMES = new ConcurrentHashMap<>();
+    private static final Map<Long, Long> VERSIONS = new ConcurrentHashMap<>();
+    private static final Map<Long, AtomicInteger> STOCK = new ConcurrentHashMap<>();
+    /** Reserve outcomes by Idempotency-Key; a repeated key is answered from here, as inventory-service does. */
+    private static final Map<String, StoredReservation> RESERVATIONS = new ConcurrentHashMap<>();
+    private static final Map<String, InventoryClient.HoldResponse> HOLDS = new ConcurrentHashMap<>();
+    private static final Map<String, InventoryClient.HoldResponse> CONFIRMED_HOLDS = new ConcurrentHashMap<>();
+    private static final AtomicLong HOLD_IDS = new AtomicLong();
+    /** Number of upcoming confirm calls that answer 404, as if their hold had expired. */
+    public static final AtomicInteger CONFIRM_FAILURES = new AtomicInteger();
+    /** Number of upcoming confirm calls that answer 503 without confirming. */
+    public static final AtomicInteger CONFIRM_ERRORS = new AtomicInteger();
+    /** Number of upcoming confirm calls that confirm, then answer 503 as if the response was lost. */
+    public static final AtomicInteger LOST_CONFIRMS = new AtomicInteger();
+
+    static {
+        NAMES.putAll(Map.of(1L, "Laptop", 2L, "Mouse", 3L, "Keyboard"));
+        NAMES.keySet().forEach(id -> VERSIONS.put(id, 1L));
+        reset(1_000_000);
+    }
+
+    public static void reset(int quantity) {
+        NAMES.keySet().forEach(id -> STOCK.put(id, new AtomicInteger(quantity)));
+    }
+
+    @GET
+    @Path("/{id}")
+    public Response getProduct(@PathParam("id") Long id) {
+        simulateLatency();
+        AtomicInteger stock = STOCK.get(id);
+        if (stock == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(new Product(id, NAMES.get(id), stock.get(), VERSIONS.get(id))).build();
+    }
+
+    @GET
+    @Path("/{id}/check")
+    public InventoryClient.AvailabilityResponse checkAvailability(@PathParam("id") Long id,
+                                                                  @QueryParam("quantity") int quantity) {
+        simulateLatency();
+        AtomicInteger stock = STOCK.get(id);
+        return new InventoryClient.AvailabilityResponse(stock != null && stock.get() >= quantity);
+    }
+
+    @POST
+    @Path("/{id}/reserve")
+    public Response reserveProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                   @HeaderParam("Idempotency-Key") String idempotencyKey) {
+        StoredReservation replayed = idempotencyKey == null ? null : RESERVATIONS.get(idempotencyKey);
+        if (replayed != null) {
+            REQUESTS.incrementAndGet();
+            IDEMPOTENCY_KEYS.get(idempotencyKey).incrementAndGet();
+            return Response.status(replayed.status()).entity(replayed.body()).build();
+        }
+        Response response = reserve(id, quantity, idempotencyKey);
+        if (idempotencyKey != null) {
+            RESERVATIONS.put(idempotencyKey,
+                new StoredReservation(response.getStatus(), (InventoryClient.ReservationResponse) response.getEntity()));
+        }
+        sleep(responseDelayMillis);
+        return response;
+    }
+
+    private record StoredReservation(int status, InventoryClient.ReservationResponse body) {
+    }
+
+    private static Response reserve(Long id, int quantity, String idempotencyKey) {
+        simulateLatency();
+        if (idempotencyKey != null) {
+            IDEMPOTENCY_KEYS.computeIfAbsent(idempotencyKey, key -> new AtomicInteger()).incrementAndGet();
+        }
+        AtomicInteger stock = STOCK.get(id);
+        if (stock == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(new InventoryClient.ReservationResponse(false, "Product not found"))
+                    .build();
+        }
+        int remaining = take(stock, quantity);
+        if (remaining < 0) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new InventoryClient.ReservationResponse(false, "Insufficient quantity",
+                            id, NAMES.get(id), stock.get()))
+                    .build();
+        }
+        InventoryClient.ReservationResponse response = new InventoryClient.ReservationResponse(true,
+                "Product reserved successfully", id, NAMES.get(id), remaining);
+        response.productVersion = VERSIONS.get(id);
+        return Response.ok(response).build();
+    }
+
+    @POST
+    @Path("/{id}/holds")
+    public Response holdProduct(@PathParam("id") Long id, @QueryParam("quantity") int quantity,
+                                @QueryParam("ttlMs") Long ttlMs,
+                                @HeaderParam("Idempotency-Key") String idempotencyKey) {
+        Response reservation = reserve(id, quantity, idempotencyKey);
+        if (reservation.getStatus() != 200) {
+            return reservation;
+        }
+        InventoryClient.ReservationResponse reserved = (InventoryClient.ReservationResponse) reservation.getEntity();
+        InventoryClient.HoldResponse hold = new InventoryClient.HoldResponse();
+        hold.success = true;
+        hold.message = "Product held";
+        hold.productId = id;
+        hold.productName = reserved.productName;
+        hold.remainingQuantity = reserved.remainingQuantity;
+        hold.productVersion = reserved.productVersion;
+        hold.holdId = Long.toString(HOLD_IDS.incrementAndGet());
+        hold.quantity = quantity;
+        hold.expiresAt = System.currentTimeMillis() + (ttlMs == null ? 30_000 : ttlMs);
+        HOLDS.put(hold.holdId, hold);
+        return Response.status(Response.Status.CREATED).entity(hold).build();
+    }
+
+    @POST
+    @Path("/holds/{holdId}/confirm")
+    public Response confirmHold(@PathParam("holdId") String holdId) {
+        simulateLatency();
+        if (CONFIRM_FAILURES.get() > 0 && CONFIRM_FAILURES.getAndDecrement() > 0) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (CONFIRM_ERRORS.get() > 0 && CONFIRM_ERRORS.getAndDecrement() > 0) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+        InventoryClient.HoldResponse hold = HOLDS.remove(holdId);
+        if (hold != null) {
+            CONFIRMED_HOLDS.put(holdId, hold);
+        } else {
+            hold = CONFIRMED_HOLDS.get(holdId);
+        }
+        if (hold == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (LOST_CONFIRMS.get() > 0 && LOST_CONFIRMS.getAndDecrement() > 0) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+        return Response.ok(hold).build();
+    }
+
+    @DELETE
+    @Path("/holds/{holdId}")
+    public Response releaseHold(@PathParam("holdId") String holdId) {
+        simulateLatency();
+        InventoryClient.HoldResponse hold = HOLDS.remove(holdId);
+        if (hold == null) {
+            return Response.status(CONFIRMED_HOLDS.containsKey(holdId)
+                ? Response.Status.CONFLICT : Response.Status.NOT_FOUND).build();
+        }
+        STOCK.get(hold.productId).addAndGet(hold.quantity);
+        return Response.ok(hold).build();
+    }
+
+    @POST
+    @Path("/reserve-batch")
+    @Consumes({MediaType.APPLICATION_JSON, SmileStubProvider.APPLICATION_SMILE})
+    public Response reserveBatch(InventoryClient.BatchReservationRequest request,
+                                 @QueryParam("atomic") @DefaultValue("true") boolean atomic) {
+        simulateLatency();
+        BATCH_CALLS.incrementAndGet();
+        InventoryClient.BatchReservationResponse response = new InventoryClient.BatchReservationResponse();
+        response.lines = new ArrayList<>();
+        response.success = true;
+        for (InventoryClient.ReservationLine line : request.lines) {
+            AtomicInteger stock = STOCK.get(line.productId);
+            InventoryClient.LineResult result = new InventoryClient.LineResult();
+            result.productId = line.productId;
+            result.quantity = line.quantity;
+            int remaining = stock == null ? -1 : take(stock, line.quantity);
+            result.success = remaining >= 0;
+            result.message = result.success ? "Reserved" : stock == null ? "Product not found" : "Insufficient quantity";
+            result.productName = NAMES.get(line.productId);
+            result.productVersion = VERSIONS.get(line.productId);
+            result.remainingQuantity = result.success ? remaining : null;
+            response.success &= result.success;
+            response.lines.add(result);
+        }
+        return Response.ok(response).build();
+    }
+
+    private static int take(AtomicInteger stock, int quantity) {
+        for (;;) {
+            int current = stock.get();
+            if (current < quantity) {
+                return -1;
+            }
+            if (stock.compareAndSet(current, current - quantity)) {
+                return current - quantity;
+            }
+        }
+    }
+
+    private static void simulateLatency() {
+        REQUESTS.incrementAndGet();
+        int every = spikeEvery;
+        long millis = every > 0 && CALLS.incrementAndGet() % every == 0 ? spikeMillis : latencyMillis;
+        sleep(millis);
+    }
+
+    private static void sleep(long millis) {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.order;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+@QuarkusTest
+@DisplayName("Order Metrics Tests")
+public class MetricsTest {
+
+    @Test
+    @DisplayName("Should expose order outcomes and inventory call timings on /q/metrics")
+    public void testOrderMetricsAreExposed() {
+        createOrder(1L, 1);
+        createOrder(999L, 1);
+
+        given()
+            .when()
+                .get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("orders_total{outcome=\"confirmed\",reason=\"none\""))
+                .body(containsString("orders_total{outcome=\"failed\",reason=\"unavailable\""))
+                .body(containsString("orders_create_seconds_count{pipeline=\"reactive\""))
+                .body(containsString("inventory_client_requests_seconds_count{operation=\"reserve\",outcome=\"success\""))
+                .body(containsString("inventory_client_requests_seconds_count{operation=\"reserve\",outcome=\"rejected\""))
+                .body(containsString("inventory_client_requests_seconds_bucket{operation=\"reserve\""))
+                .body(containsString("inventory_coalescing_calls_total{operation=\"get\""))
+                .body(containsString("inventory_client_circuit_state{state=\"closed\"} 1.0"))
+                .body(containsString("inventory_client_rejections_total{reason=\"circuit_open\""))
+                .body(containsString("inventory_client_bulkhead_in_flight "))
+                .body(containsString("inventory_client_pool_utilization "))
+                .body(containsString("http_client_queue_delay_seconds_count{clientName=\"inventory-api\""))
+                .body(containsString("cache_gets_total{cache=\"product-metadata\""));
+    }
+
+    private static void createOrder(Long productId, int quantity) {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201);
+    }
+}
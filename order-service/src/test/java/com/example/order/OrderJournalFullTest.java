@@ -0,0 +1,117 @@
+package com.example.order;
+
+import com.example.order.model.Order;
+import com.example.order.persistence.JournalFullException;
+import com.example.order.persistence.OrderJournal;
+import com.example.order.persistence.OrderLog;
+import com.example.order.persistence.OrderPersistence;
+import com.example.order.service.OrderService;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs with a journal that has room for a single order and takes that room
+ * itself, so every order finds the journal full.
+ */
+@QuarkusTest
+@TestProfile(OrderJournalFullTest.FullJournalProfile.class)
+@DisplayName("Full Order Journal Tests")
+public class OrderJournalFullTest {
+
+    public static class FullJournalProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "order.journal.enabled", "true",
+                "order.journal.directory", "target/order-journal-full-test/" + System.nanoTime(),
+                "order.journal.queue-capacity", "1");
+        }
+
+        @Override
+        public Set<Class<?>> getEnabledAlternatives() {
+            return Set.of(CapturingPersistence.class);
+        }
+    }
+
+    /** Keeps the journal the order service opens, so the test can take its room. */
+    @Alternative
+    @ApplicationScoped
+    public static class CapturingPersistence extends OrderPersistence {
+
+        static volatile OrderLog log;
+
+        @Override
+        public OrderLog open(Consumer<Order> sink) {
+            log = super.open(sink);
+            return log;
+        }
+    }
+
+    @Inject
+    OrderService orderService;
+
+    @Test
+    @DisplayName("A 503 for a full journal should leave stock and orders unchanged")
+    public void testFullJournalRefusesOrderBeforeReserving() {
+        int orders = orderService.getAllOrders().size();
+        int stock = stock(2L);
+        int requests = InventoryStubResource.REQUESTS.get();
+
+        OrderJournal.Slot onlySlot = CapturingPersistence.log.reserve();
+        try {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{ \"productId\": 2, \"quantity\": 1 }")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(503);
+            assertThrows(JournalFullException.class, () -> orderService.createOrder(2L, 1, null));
+            assertThrows(JournalFullException.class,
+                () -> orderService.createOrderAsync(2L, 1, null).await().indefinitely());
+
+            assertEquals(requests, InventoryStubResource.REQUESTS.get(), "inventory was called");
+            assertEquals(stock, stock(2L));
+            assertEquals(orders, orderService.getAllOrders().size());
+        } finally {
+            onlySlot.cancel();
+        }
+
+        // With the room back the retry goes through, and reserves once
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"productId\": 2, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("CONFIRMED"));
+        assertEquals(stock - 1, stock(2L));
+        assertEquals(orders + 1, orderService.getAllOrders().size());
+    }
+
+    private static int stock(Long productId) {
+        return given()
+            .when()
+                .get("/inventory/" + productId)
+            .then()
+                .statusCode(200)
+                .extract().path("quantity");
+    }
+}
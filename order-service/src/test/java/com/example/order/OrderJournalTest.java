@@ -0,0 +1,181 @@
+package com.example.order;
+
+import com.example.order.model.Order;
+import com.example.order.persistence.Durability;
+import com.example.order.persistence.JournalFullException;
+import com.example.order.persistence.OrderJournal;
+import com.example.order.persistence.OrderLog;
+import com.example.order.service.OrderStore;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Order Journal Tests")
+public class OrderJournalTest {
+
+    private static final int SEGMENT_SIZE = 1 << 20;
+    // Room for every order the tests append, so none is refused for a full queue
+    private static final int QUEUE_CAPACITY = 65_536;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should restore orders and the highest order ID after a restart")
+    public void testRecoverAfterRestart() throws Exception {
+        try (OrderLog log = open(Durability.STRICT, new OrderStore())) {
+            assertEquals(0, log.maxRecoveredId());
+            log.append(new Order(1L, 1L, "Laptop", 2, "CONFIRMED")).join();
+            log.append(new Order(2L, 2L, "Mouse", 100, "FAILED: Product not available")).join();
+            log.append(new Order(3L, 9L, null, 1, "FAILED: Error communicating with inventory service")).join();
+        }
+
+        OrderStore store = new OrderStore();
+        try (OrderLog log = open(Durability.STRICT, store)) {
+            assertEquals(3, log.recoveredOrders());
+            assertEquals(3, log.maxRecoveredId());
+        }
+        assertEquals(3, store.size());
+        assertEquals("Laptop", store.get(1L).getProductName());
+        assertEquals(2, store.get(1L).getQuantity());
+        assertEquals("CONFIRMED", store.get(1L).getStatus());
+        assertEquals("FAILED: Product not available", store.get(2L).getStatus());
+        assertNull(store.get(3L).getProductName());
+        assertEquals(2, store.findByStatus("FAILED").size());
+    }
+
+    @Test
+    @DisplayName("Should write asynchronously across segments and flush everything on close")
+    public void testAsyncAcrossSegments() throws Exception {
+        int count = 50_000;
+        try (OrderLog log = open(Durability.ASYNC, new OrderStore())) {
+            for (long id = 1; id <= count; id++) {
+                CompletableFuture<Void> written = log.append(new Order(id, id % 100, "Product " + (id % 100), 1, "CONFIRMED"));
+                assertTrue(written.isDone(), "async appends must not wait for the disk");
+            }
+        }
+        assertTrue(segmentFiles().size() > 1, "expected the log to roll over");
+
+        OrderStore store = new OrderStore();
+        try (OrderLog log = open(Durability.ASYNC, store)) {
+            assertEquals(count, log.recoveredOrders());
+            assertEquals(count, log.maxRecoveredId());
+        }
+        assertEquals(count, store.size());
+        assertEquals(count / 100, store.findByProduct(7L).size());
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the tail of an unclosed segment")
+    public void testTornTail() throws Exception {
+        OrderLog log = open(Durability.STRICT, new OrderStore());
+        for (long id = 1; id <= 10; id++) {
+            log.append(new Order(id, 1L, "Laptop", 1, "CONFIRMED")).join();
+        }
+        // Simulate a crash: no close, so no segment index, and a half-written record at the end
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(file.length());
+            file.writeInt(64);
+            file.writeInt(12345);
+            file.write(new byte[20]);
+        }
+
+        OrderStore store = new OrderStore();
+        try (OrderLog recovered = open(Durability.STRICT, store)) {
+            assertEquals(10, recovered.recoveredOrders());
+            recovered.append(new Order(11L, 1L, "Laptop", 1, "CONFIRMED")).join();
+        }
+        assertEquals(10, store.size());
+
+        try (OrderLog reopened = open(Durability.STRICT, new OrderStore())) {
+            assertEquals(11, reopened.maxRecoveredId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse orders on the event loop when the queue is full instead of waiting for the disk")
+    public void testFullQueueNeverBlocksTheEventLoop() throws Exception {
+        int count = 10_000;
+        List<CompletableFuture<Void>> results = new ArrayList<>(count);
+        Vertx vertx = Vertx.vertx();
+        try (OrderLog log = OrderLog.open(directory, Durability.STRICT, SEGMENT_SIZE, 1, new OrderStore()::save)) {
+            CompletableFuture<Boolean> onEventLoop = new CompletableFuture<>();
+            vertx.runOnContext(ignored -> {
+                for (long id = 1; id <= count; id++) {
+                    results.add(log.append(new Order(id, 1L, "Laptop", 1, "CONFIRMED")));
+                }
+                onEventLoop.complete(Context.isOnEventLoopThread());
+            });
+            assertTrue(onEventLoop.get(10, TimeUnit.SECONDS));
+
+            long refused = 0;
+            for (CompletableFuture<Void> result : results) {
+                try {
+                    result.join();
+                } catch (CompletionException e) {
+                    assertInstanceOf(JournalFullException.class, e.getCause());
+                    refused++;
+                }
+            }
+            assertTrue(refused > 0, "expected a one-slot queue to refuse some of " + count + " orders");
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+
+        long accepted = results.stream().filter(result -> !result.isCompletedExceptionally()).count();
+        try (OrderLog log = open(Durability.STRICT, new OrderStore())) {
+            assertEquals(accepted, log.recoveredOrders());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a slot when the queue is full and take orders again once it is handed back")
+    public void testReservedSlots() throws Exception {
+        try (OrderLog log = OrderLog.open(directory, Durability.STRICT, SEGMENT_SIZE, 1, new OrderStore()::save)) {
+            OrderJournal.Slot slot = log.reserve();
+            assertThrows(JournalFullException.class, log::reserve);
+            CompletionException full = assertThrows(CompletionException.class,
+                () -> log.append(new Order(1L, 1L, "Laptop", 1, "CONFIRMED")).join());
+            assertInstanceOf(JournalFullException.class, full.getCause());
+
+            slot.cancel();
+            slot.cancel();
+            log.reserve().append(new Order(1L, 1L, "Laptop", 1, "CONFIRMED")).join();
+            log.reserve().append(new Order(2L, 1L, "Laptop", 1, "CONFIRMED")).join();
+        }
+
+        try (OrderLog log = open(Durability.STRICT, new OrderStore())) {
+            assertEquals(2, log.recoveredOrders());
+        }
+    }
+
+    private OrderLog open(Durability durability, OrderStore store) throws IOException {
+        return OrderLog.open(directory, durability, SEGMENT_SIZE, QUEUE_CAPACITY, store::save);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(file -> file.toString().endsWith(".log")).sorted().toList());
+        }
+    }
+}
@@ -5,9 +5,18 @@ import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @DisplayName("Order Resource Integration Tests")
@@ -229,5 +238,228 @@ public class OrderResourceTest {
                 .body("quantity", notNullValue())
                 .body("status", notNullValue());
     }
-}
 
+    @Test
+    @DisplayName("Should confirm order with product name from a single reservation call")
+    public void testCreateOrderConfirmed() {
+        String orderJson = """
+            {
+                "productId": 3,
+                "quantity": 1
+            }
+            """;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("CONFIRMED"))
+                .body("productName", is("Keyboard"));
+    }
+
+    @Test
+    @DisplayName("Should fail order when inventory rejects the reservation")
+    public void testCreateOrderInsufficientStock() {
+        String orderJson = """
+            {
+                "productId": 3,
+                "quantity": 99999999
+            }
+            """;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(orderJson)
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("FAILED: Product not available"))
+                .body("productName", is("Keyboard"));
+    }
+
+    @Test
+    @DisplayName("Should filter orders by product and status")
+    public void testFilterOrders() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"productId\": 2, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201);
+
+        given()
+            .queryParam("productId", 2)
+            .queryParam("status", "CONFIRMED")
+            .when()
+                .get("/orders")
+            .then()
+                .statusCode(200)
+                .body("size()", greaterThanOrEqualTo(1))
+                .body("productId", everyItem(is(2)))
+                .body("status", everyItem(is("CONFIRMED")));
+    }
+
+    @Test
+    @DisplayName("Should page through orders with a cursor and stream them as NDJSON")
+    public void testOrderPaginationAndStreaming() {
+        for (int i = 0; i < 3; i++) {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{ \"productId\": 1, \"quantity\": 1 }")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201);
+        }
+
+        String cursor = given()
+            .queryParam("limit", 2)
+            .when()
+                .get("/orders")
+            .then()
+                .statusCode(200)
+                .body("size()", is(2))
+                .header("X-Next-Cursor", notNullValue())
+                .extract()
+                .header("X-Next-Cursor");
+
+        given()
+            .queryParam("limit", 2)
+            .queryParam("after", cursor)
+            .when()
+                .get("/orders")
+            .then()
+                .statusCode(200)
+                .body("[0].id", is(Integer.parseInt(cursor) + 1));
+
+        String body = given()
+            .accept("application/x-ndjson")
+            .queryParam("after", cursor)
+            .when()
+                .get("/orders")
+            .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+        assertTrue(body.startsWith("{\"id\":" + (Integer.parseInt(cursor) + 1) + ","));
+    }
+
+    @Test
+    @DisplayName("Should reject an out of range page size")
+    public void testInvalidPageSize() {
+        given()
+            .queryParam("limit", 0)
+            .when()
+                .get("/orders")
+            .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should return the original order when a request is retried with the same idempotency key")
+    public void testIdempotentCreateOrder() throws Exception {
+        String key = "order-retry-" + System.nanoTime();
+        String orderJson = """
+            {
+                "productId": 2,
+                "quantity": 1
+            }
+            """;
+
+        // Concurrent duplicates wait for the first request instead of creating orders of their own
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> ids = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                ids.add(pool.submit(() -> given()
+                    .contentType(ContentType.JSON)
+                    .header("Idempotency-Key", key)
+                    .body(orderJson)
+                    .when()
+                        .post("/orders")
+                    .then()
+                        .statusCode(201)
+                        .extract()
+                        .<Integer>path("id")));
+            }
+            Integer first = ids.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<Integer> id : ids) {
+                assertEquals(first, id.get(30, TimeUnit.SECONDS));
+            }
+
+            given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(orderJson)
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201)
+                    .header("Idempotent-Replayed", "true")
+                    .body("id", is(first));
+        } finally {
+            pool.shutdownNow();
+        }
+        // The key is forwarded to inventory-service, which saw exactly one reservation
+        assertEquals(1, InventoryStubResource.IDEMPOTENCY_KEYS.get(key).get());
+
+        given()
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", key)
+            .body("{\"productId\": 2, \"quantity\": 5}")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(422);
+    }
+
+    @Test
+    @DisplayName("Should fail the order fast when inventory-service exceeds the call timeout")
+    public void testSlowInventoryFailsWithinTimeout() {
+        InventoryStubResource.latencyMillis = 3_000;
+        try {
+            long start = System.nanoTime();
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 2, \"quantity\": 1}")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201)
+                    .body("status", is("FAILED: Inventory service unavailable (call timed out)"));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis < 2_500, "Order took " + elapsedMillis + " ms");
+        } finally {
+            InventoryStubResource.latencyMillis = 0;
+        }
+    }
+
+    @Test
+    @DisplayName("Should confirm a reservation that landed although its call timed out, without reserving twice")
+    public void testTimedOutReservationIsResolvedByItsKey() {
+        int stock = given().when().get("/inventory/2").then().statusCode(200).extract().path("quantity");
+        int requests = InventoryStubResource.REQUESTS.get();
+        // The stub takes the stock at once but answers after the 1 s call timeout
+        InventoryStubResource.responseDelayMillis = 1_500;
+        try {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 2, \"quantity\": 1}")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201)
+                    .body("status", is("CONFIRMED"));
+        } finally {
+            InventoryStubResource.responseDelayMillis = 0;
+        }
+        assertEquals(2, InventoryStubResource.REQUESTS.get() - requests, "expected the reserve to be sent twice");
+        assertEquals(stock - 1, (int) given().when().get("/inventory/2").then().extract().path("quantity"));
+    }
+}
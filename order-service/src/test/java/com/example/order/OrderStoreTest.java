@@ -0,0 +1,89 @@
+package com.example.order;
+
+import com.example.order.model.Order;
+import com.example.order.service.OrderStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("Order Store Tests")
+public class OrderStoreTest {
+
+    @Test
+    @DisplayName("Should look up orders by ID and secondary indexes")
+    public void testIndexes() {
+        OrderStore store = new OrderStore();
+        Order first = new Order(1L, 10L, "Laptop", 1, "CONFIRMED");
+        store.save(first);
+        store.save(new Order(2L, 10L, "Laptop", 5, "FAILED: Product not available"));
+        store.save(new Order(3L, 20L, "Mouse", 2, "CONFIRMED"));
+
+        assertSame(first, store.get(1L));
+        assertNull(store.get(4L));
+        assertEquals(List.of(1L, 2L), ids(store.findByProduct(10L)));
+        assertEquals(List.of(1L, 3L), ids(store.findByStatus("confirmed")));
+        assertEquals(List.of(2L), ids(store.findByStatus("FAILED")));
+        assertEquals(List.of(2L), ids(store.findByProductAndStatus(10L, "FAILED")));
+        assertEquals(List.of(1L, 2L, 3L), ids(store.findAll()));
+    }
+
+    @Test
+    @DisplayName("Should move an order between status indexes when it is replaced")
+    public void testStatusChange() {
+        OrderStore store = new OrderStore();
+        store.save(new Order(1L, 10L, "Laptop", 1, "PENDING"));
+        store.save(new Order(1L, 10L, "Laptop", 1, "CONFIRMED"));
+
+        assertEquals(List.of(), ids(store.findByStatus("PENDING")));
+        assertEquals(List.of(1L), ids(store.findByStatus("CONFIRMED")));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should keep every order under concurrent writes")
+    public void testConcurrentSaves() throws Exception {
+        OrderStore store = new OrderStore();
+        AtomicLong idCounter = new AtomicLong(1);
+        int threads = 8;
+        int perThread = 10_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        long id = idCounter.getAndIncrement();
+                        store.save(new Order(id, id % 4, "P", 1, id % 2 == 0 ? "CONFIRMED" : "FAILED: x"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = threads * perThread;
+        assertEquals(total, store.size());
+        assertEquals(total, store.findAll().size());
+        assertEquals(total / 2, store.findByStatus("CONFIRMED").size());
+        assertEquals(total / 4, store.findByProduct(0L).size());
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
+}
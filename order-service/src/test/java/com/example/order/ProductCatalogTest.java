@@ -0,0 +1,77 @@
+package com.example.order;
+
+import com.example.order.service.ProductCatalog;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@QuarkusTest
+@DisplayName("Product Metadata Cache Tests")
+public class ProductCatalogTest {
+
+    @Inject
+    ProductCatalog productCatalog;
+
+    @AfterEach
+    public void restore() {
+        productCatalog.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Should fill the cache from reservation responses without extra reads")
+    public void testWriteThroughFromOrders() {
+        productCatalog.invalidateAll();
+
+        given()
+            .contentType("application/json")
+            .body("{ \"productId\": 2, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201);
+
+        long hitsBefore = productCatalog.stats().hitCount();
+        assertEquals("Mouse", productCatalog.cachedName(2L));
+        assertEquals(hitsBefore + 1, productCatalog.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Should replace a cached entry when a newer version is observed")
+    public void testVersionInvalidation() {
+        productCatalog.observe(2L, "Mouse", 5L);
+        productCatalog.observe(2L, "Stale Mouse", 4L);
+        assertEquals("Mouse", productCatalog.cachedName(2L));
+
+        productCatalog.observe(2L, "Wireless Mouse", 6L);
+        assertEquals("Wireless Mouse", productCatalog.cachedName(2L));
+    }
+
+    @Test
+    @DisplayName("Should answer a miss without calling inventory")
+    public void testMissMakesNoInventoryCall() {
+        productCatalog.invalidate(3L);
+        int requestsBefore = InventoryStubResource.REQUESTS.get();
+        long missesBefore = productCatalog.stats().missCount();
+
+        assertNull(productCatalog.cachedName(3L));
+
+        assertEquals(missesBefore + 1, productCatalog.stats().missCount());
+        assertEquals(requestsBefore, InventoryStubResource.REQUESTS.get());
+    }
+
+    @Test
+    @DisplayName("Should drop an entry on explicit invalidation")
+    public void testExplicitInvalidation() {
+        productCatalog.observe(2L, "Mouse", 1L);
+        assertEquals("Mouse", productCatalog.cachedName(2L));
+
+        given().when().delete("/cache/product-metadata/2").then().statusCode(204);
+        assertNull(productCatalog.cachedName(2L));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.order;
+
+import com.example.order.client.InventoryCallGuard;
+import com.example.order.client.InventoryClient;
+import com.example.order.client.InventoryUnavailableException;
+import com.example.order.client.ReservationBatcher;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(ReservationBatcherTest.BatchingProfile.class)
+@DisplayName("Reservation Micro-Batching Tests")
+public class ReservationBatcherTest {
+
+    public static class BatchingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "order.reservation.batch.enabled", "true",
+                "order.reservation.batch.max-size", "10",
+                "order.reservation.batch.linger-ms", "20");
+        }
+    }
+
+    @Inject
+    ReservationBatcher reservationBatcher;
+
+    @Inject
+    InventoryCallGuard guard;
+
+    @Test
+    @DisplayName("Should flush full batches and complete each caller with its own line")
+    public void testFlushOnSize() throws Exception {
+        int batchCallsBefore = InventoryStubResource.BATCH_CALLS.get();
+
+        List<CompletableFuture<InventoryClient.LineResult>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(reservationBatcher.submit(i % 2 == 0 ? 1L : 999L, 1, guard.newDeadline()));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            InventoryClient.LineResult line = results.get(i).get(5, TimeUnit.SECONDS);
+            if (i % 2 == 0) {
+                assertTrue(line.success);
+                assertEquals("Laptop", line.productName);
+            } else {
+                assertFalse(line.success);
+                assertEquals(999L, line.productId);
+            }
+        }
+        assertEquals(3, InventoryStubResource.BATCH_CALLS.get() - batchCallsBefore);
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch after the linger time")
+    public void testFlushOnLinger() throws Exception {
+        long start = System.nanoTime();
+        InventoryClient.LineResult line = reservationBatcher.submit(2L, 1, guard.newDeadline()).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(line.success);
+        assertTrue(elapsedMillis >= 20, "partial batch flushed before the linger time");
+    }
+
+    @Test
+    @DisplayName("Should create orders through the batcher")
+    public void testCreateOrderBatched() {
+        long linesBefore = reservationBatcher.linesSent();
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"productId\": 3, \"quantity\": 2 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("CONFIRMED"))
+                .body("productName", is("Keyboard"));
+
+        assertEquals(linesBefore + 1, reservationBatcher.linesSent());
+    }
+
+    @Test
+    @DisplayName("Should fail lines whose deadline passed while lingering and send the rest")
+    public void testExpiredLineIsNotSent() throws Exception {
+        long linesBefore = reservationBatcher.linesSent();
+
+        CompletableFuture<InventoryClient.LineResult> expired =
+            reservationBatcher.submit(1L, 1, new InventoryCallGuard.Deadline(System.nanoTime()));
+        CompletableFuture<InventoryClient.LineResult> live = reservationBatcher.submit(2L, 1, guard.newDeadline());
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> expired.get(5, TimeUnit.SECONDS));
+        InventoryUnavailableException unavailable =
+            assertInstanceOf(InventoryUnavailableException.class, failure.getCause());
+        assertEquals(InventoryUnavailableException.Reason.DEADLINE_EXCEEDED, unavailable.reason());
+        assertTrue(live.get(5, TimeUnit.SECONDS).success);
+        assertEquals(linesBefore + 1, reservationBatcher.linesSent());
+    }
+
+    @Test
+    @DisplayName("Should reserve orders with an Idempotency-Key outside the batcher, forwarding the key")
+    public void testIdempotentOrderBypassesBatcher() {
+        long linesBefore = reservationBatcher.linesSent();
+        String key = UUID.randomUUID().toString();
+
+        given()
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", key)
+            .body("{ \"productId\": 3, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("CONFIRMED"));
+
+        assertEquals(linesBefore, reservationBatcher.linesSent());
+        assertEquals(1, InventoryStubResource.IDEMPOTENCY_KEYS.get(key).get());
+    }
+}
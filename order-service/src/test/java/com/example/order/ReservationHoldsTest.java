@@ -0,0 +1,105 @@
+package com.example.order;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+@TestProfile(ReservationHoldsTest.HoldsProfile.class)
+@DisplayName("Reservation Hold Tests")
+public class ReservationHoldsTest {
+
+    public static class HoldsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("order.reservation.holds.enabled", "true");
+        }
+    }
+
+    @Test
+    @DisplayName("Should confirm the order once its hold is confirmed")
+    public void testOrderThroughHold() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"productId\": 1, \"quantity\": 1}")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .body("status", is("CONFIRMED"))
+                .body("productName", is("Laptop"));
+    }
+
+    @Test
+    @DisplayName("Should fail the order when its hold expires before it is confirmed")
+    public void testHoldExpiredBeforeConfirm() {
+        InventoryStubResource.CONFIRM_FAILURES.set(1);
+        try {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 3, \"quantity\": 1}")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201)
+                    .body("status", startsWith("FAILED"));
+        } finally {
+            InventoryStubResource.CONFIRM_FAILURES.set(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should confirm the order when the confirm went through but its response was lost")
+    public void testLostConfirmResponse() {
+        int before = stock(2);
+        InventoryStubResource.LOST_CONFIRMS.set(1);
+        try {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 2, \"quantity\": 3}")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201)
+                    .body("status", is("CONFIRMED"));
+        } finally {
+            InventoryStubResource.LOST_CONFIRMS.set(0);
+        }
+        assertEquals(before - 3, stock(2));
+    }
+
+    @Test
+    @DisplayName("Should fail the order and return the stock when the confirm failed")
+    public void testConfirmError() {
+        int before = stock(2);
+        InventoryStubResource.CONFIRM_ERRORS.set(1);
+        try {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 2, \"quantity\": 3}")
+                .when()
+                    .post("/orders")
+                .then()
+                    .statusCode(201)
+                    .body("status", startsWith("FAILED"));
+        } finally {
+            InventoryStubResource.CONFIRM_ERRORS.set(0);
+        }
+        assertEquals(before, stock(2));
+    }
+
+    private static int stock(long productId) {
+        return given().when().get("/inventory/" + productId).then().statusCode(200)
+            .extract().path("quantity");
+    }
+}
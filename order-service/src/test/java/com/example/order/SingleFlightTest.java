@@ -0,0 +1,69 @@
+package com.example.order;
+
+import com.example.order.client.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Single Flight Coalescing Tests")
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Should share one in-flight call between identical concurrent callers")
+    public void testCoalescesConcurrentCalls() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        AtomicInteger downstreamCalls = new AtomicInteger();
+
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            callers.add(flight.execute(1L, () -> {
+                downstreamCalls.incrementAndGet();
+                return downstream;
+            }));
+        }
+        downstream.complete("Laptop");
+
+        for (CompletableFuture<String> caller : callers) {
+            assertEquals("Laptop", caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(100, flight.calls());
+        assertEquals(99, flight.deduplicated());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should start a fresh call once the previous one has completed")
+    public void testNoStaleResults() throws Exception {
+        SingleFlight<Long, Integer> flight = new SingleFlight<>();
+        AtomicInteger counter = new AtomicInteger();
+
+        assertEquals(1, flight.execute(1L, () -> CompletableFuture.completedFuture(counter.incrementAndGet())).get());
+        assertEquals(2, flight.execute(1L, () -> CompletableFuture.completedFuture(counter.incrementAndGet())).get());
+        assertEquals(0, flight.deduplicated());
+    }
+
+    @Test
+    @DisplayName("Should propagate failures to every waiting caller and not cancel the shared call")
+    public void testFailureAndCancellation() {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.execute(1L, () -> downstream);
+        CompletableFuture<String> second = flight.execute(1L, () -> downstream);
+        first.cancel(true);
+        downstream.completeExceptionally(new IllegalStateException("inventory down"));
+
+        assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.inFlight());
+    }
+}
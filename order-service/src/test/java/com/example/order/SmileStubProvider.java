@@ -0,0 +1,49 @@
+package com.example.order;
+
+import com.example.common.SmileMessageBodyHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Smile support for the {@link InventoryStubResource}, counting the bodies it
+ * encodes and decodes so tests can tell which wire format a call used.
+ * Media type annotations are not inherited, so they are repeated here.
+ */
+@Provider
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileStubProvider extends SmileMessageBodyHandler {
+
+    public static final AtomicInteger READS = new AtomicInteger();
+    public static final AtomicInteger WRITES = new AtomicInteger();
+
+    @Inject
+    public SmileStubProvider(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        READS.incrementAndGet();
+        return super.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        WRITES.incrementAndGet();
+        super.writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.order;
+
+import com.example.order.client.InventoryClient;
+import com.example.order.model.Product;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(SmileWireFormatTest.SmileProfile.class)
+@DisplayName("Smile Wire Format Tests")
+public class SmileWireFormatTest {
+
+    public static class SmileProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("order.inventory.wire-format", "smile");
+        }
+    }
+
+    @RestClient
+    InventoryClient inventoryClient;
+
+    @Test
+    @DisplayName("Should exchange Smile bodies with the inventory service, batch requests included")
+    public void testInventoryCallsUseSmile() {
+        int writes = SmileStubProvider.WRITES.get();
+        int reads = SmileStubProvider.READS.get();
+
+        Product product = inventoryClient.getProduct(2L);
+        assertEquals("Mouse", product.getName());
+        assertTrue(inventoryClient.checkAvailability(2L, 1).available);
+
+        InventoryClient.BatchReservationResponse batch = inventoryClient.reserveBatch(
+            new InventoryClient.BatchReservationRequest(List.of(
+                new InventoryClient.ReservationLine(2L, 1),
+                new InventoryClient.ReservationLine(999L, 1))), false);
+        assertEquals(2, batch.lines.size());
+        assertTrue(batch.lines.get(0).success);
+        assertFalse(batch.lines.get(1).success);
+
+        assertTrue(SmileStubProvider.WRITES.get() - writes >= 3, "responses were not sent as Smile");
+        assertTrue(SmileStubProvider.READS.get() - reads >= 4, "bodies were not read as Smile");
+    }
+
+    @Test
+    @DisplayName("Should still confirm orders and serve them as JSON")
+    public void testOrderOverSmile() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"productId\": 1, \"quantity\": 1 }")
+            .when()
+                .post("/orders")
+            .then()
+                .statusCode(201)
+                .contentType(ContentType.JSON)
+                .body("status", is("CONFIRMED"))
+                .body("productName", is("Laptop"));
+    }
+}
@@ -7,6 +7,12 @@ echo.
 
 cd /d "%~dp0.."
 
+echo Installing shared code...
+echo.
+cd common
+call mvn -q install
+cd ..
+
 echo Testing Inventory Service...
 echo.
 cd inventory-service